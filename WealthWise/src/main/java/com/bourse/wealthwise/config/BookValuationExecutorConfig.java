@@ -0,0 +1,21 @@
+package com.bourse.wealthwise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executor used to value portfolios in parallel, sized by {@code app.valuation.parallelism}
+ * (0 = one thread per core).
+ */
+@Configuration
+public class BookValuationExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService valuationExecutor(@Value("${app.valuation.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,29 @@
+package com.bourse.wealthwise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executor used to fan capital-raise grant computation out over holders.
+ * {@code app.capital-raise.executor} picks {@code fork-join} (default, sized by
+ * {@code app.capital-raise.parallelism}) or {@code virtual} threads.
+ */
+@Configuration
+public class CapitalRaiseExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService capitalRaiseExecutor(
+            @Value("${app.capital-raise.executor:fork-join}") String kind,
+            @Value("${app.capital-raise.parallelism:0}") int parallelism) {
+        return switch (kind) {
+            case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+            case "fork-join" -> new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Unknown app.capital-raise.executor: " + kind);
+        };
+    }
+}
@@ -10,6 +10,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,6 +19,7 @@ import java.util.List;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class BaseAction {
     @EqualsAndHashCode.Include
+    @Setter
     protected String uuid;
 
     protected LocalDateTime datetime;
@@ -31,6 +33,8 @@ public abstract class BaseAction {
     protected Actor actor;
 
     public abstract List<BalanceChange> getBalanceChanges();
+    /** Signed cash effect of this action, without building {@link BalanceChange}s. */
+    public abstract BigInteger getBalanceChangeAmount();
     public abstract List<SecurityChange> getSecurityChanges();
     public abstract String accept(ActionVisitor visitor);
 
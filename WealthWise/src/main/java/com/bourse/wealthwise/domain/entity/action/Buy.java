@@ -26,12 +26,17 @@ public class Buy extends BaseAction {
                         .uuid(UUID.randomUUID())
                         .portfolio(this.portfolio)
                         .datetime(this.datetime)
-                        .change_amount(this.totalValue.negate()) // Deduct total cost
+                        .change_amount(getBalanceChangeAmount())
                         .action(this)
                         .build()
         );
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        return totalValue == null ? BigInteger.ZERO : totalValue.negate(); // Deduct total cost
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges() {
         return List.of(
@@ -40,7 +45,7 @@ public class Buy extends BaseAction {
                         .portfolio(this.portfolio)
                         .datetime(this.datetime)
                         .security(this.security)
-                        .volumeChange(this.totalValue)
+                        .volumeChange(this.volume)
                         .action(this)
                         .build()
         );
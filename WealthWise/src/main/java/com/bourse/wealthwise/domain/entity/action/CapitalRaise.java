@@ -33,6 +33,11 @@ public class CapitalRaise extends BaseAction {
         return List.of(); // no cash movement on grant
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        return BigInteger.ZERO;
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges() {
         return List.of(
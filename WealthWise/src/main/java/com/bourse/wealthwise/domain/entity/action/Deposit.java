@@ -25,11 +25,16 @@ public class Deposit extends BaseAction {
                     .uuid(UUID.randomUUID())
                     .portfolio(this.portfolio)
                     .datetime(this.datetime)
-                    .change_amount(this.amount)
+                    .change_amount(getBalanceChangeAmount())
                     .action(this).build()
         );
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        return amount == null ? BigInteger.ZERO : amount;
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges(){
         return List.of();
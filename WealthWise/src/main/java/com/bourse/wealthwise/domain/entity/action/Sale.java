@@ -26,12 +26,17 @@ public class Sale extends BaseAction {
                         .uuid(UUID.randomUUID())
                         .portfolio(this.portfolio)
                         .datetime(this.datetime)
-                        .change_amount(this.totalValue)
+                        .change_amount(getBalanceChangeAmount())
                         .action(this)
                         .build()
         );
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        return totalValue == null ? BigInteger.ZERO : totalValue;
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges() {
         return List.of(
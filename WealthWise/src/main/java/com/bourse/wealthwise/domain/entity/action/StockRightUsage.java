@@ -35,18 +35,23 @@ public class StockRightUsage extends BaseAction {
 
     @Override
     public List<BalanceChange> getBalanceChanges() {
-        BigInteger totalCost = rightsUsed.multiply(pricePerRight);
         return List.of(
             BalanceChange.builder()
                 .uuid(UUID.randomUUID())
                 .datetime(LocalDateTime.now())
                 .portfolio(this.getPortfolio())
-                .change_amount(totalCost.negate()) // debit
+                .change_amount(getBalanceChangeAmount())
                 .action(this)
                 .build()
         );
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        if (rightsUsed == null || pricePerRight == null) return BigInteger.ZERO;
+        return rightsUsed.multiply(pricePerRight).negate(); // debit
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges() {
         return List.of(
@@ -23,11 +23,16 @@ public class Withdrawal extends BaseAction {
                         .uuid(UUID.randomUUID())
                         .portfolio(this.portfolio)
                         .datetime(this.datetime)
-                        .change_amount(this.amount.negate()) // -1 * amount
+                        .change_amount(getBalanceChangeAmount())
                         .action(this).build()
         );
     }
 
+    @Override
+    public BigInteger getBalanceChangeAmount() {
+        return amount == null ? BigInteger.ZERO : amount.negate(); // -1 * amount
+    }
+
     @Override
     public List<SecurityChange> getSecurityChanges(){
         return List.of();
@@ -0,0 +1,81 @@
+package com.bourse.wealthwise.domain.entity.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a {@code long} count of hundredths ({@link #SCALE} decimal places),
+ * so sums and price x volume products need no {@link BigDecimal}. Arithmetic is exact and
+ * throws {@link ArithmeticException} on overflow instead of wrapping. Hot loops may work on
+ * {@link #units()} directly with {@code Math.*Exact} and wrap the result once with
+ * {@link #ofUnits}.
+ */
+public record Money(long units) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long UNITS_PER_WHOLE = 100;
+
+    public static Money ofUnits(long units) {
+        return new Money(units);
+    }
+
+    /** {@code whole} currency units, e.g. a cash amount of an action. */
+    public static Money of(long whole) {
+        return new Money(Math.multiplyExact(whole, UNITS_PER_WHOLE));
+    }
+
+    public static Money of(BigInteger whole) {
+        return of(whole.longValueExact());
+    }
+
+    /** {@code amount} rounded half-even to {@link #SCALE} places. */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /** An amount given as a double, rounded half-even to {@link #SCALE} places; prices are {@link Price}s. */
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(units, other.units));
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(units, quantity));
+    }
+
+    public Money times(Quantity quantity) {
+        return times(quantity.value());
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.bourse.wealthwise.domain.entity.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A price per share as a {@code long} count of millionths ({@link #SCALE} decimal places),
+ * finer than {@link Money} so quoted prices such as 12.345 are kept exactly. Only a
+ * price x volume product is rounded to {@link Money}, half-even, the same as
+ * {@code Money.of(BigDecimal.valueOf(price).multiply(volume))}.
+ */
+public record Price(long micros) {
+
+    public static final int SCALE = 6;
+    public static final Price ZERO = new Price(0);
+
+    private static final long MICROS_PER_UNIT = 10_000; // 10^(SCALE - Money.SCALE)
+
+    /** A quoted price rounded half-even to {@link #SCALE} places. */
+    public static Price of(double price) {
+        return new Price(BigDecimal.valueOf(price).setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    public Money times(long volume) {
+        return Money.ofUnits(unitsTimes(volume));
+    }
+
+    public Money times(Quantity volume) {
+        return times(volume.value());
+    }
+
+    /** {@code this x volume} in {@link Money} units, without allocating unless the product exceeds a long. */
+    public long unitsTimes(long volume) {
+        long high = Math.multiplyHigh(micros, volume);
+        long low = micros * volume;
+        if ((high != 0 || low < 0) && (high != -1 || low >= 0)) {
+            return Money.of(BigDecimal.valueOf(micros, SCALE).multiply(BigDecimal.valueOf(volume))).units();
+        }
+        long units = Math.floorDiv(low, MICROS_PER_UNIT);
+        long remainder = low - units * MICROS_PER_UNIT;
+        if (remainder > MICROS_PER_UNIT / 2 || (remainder == MICROS_PER_UNIT / 2 && (units & 1) != 0)) units++;
+        return units;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+}
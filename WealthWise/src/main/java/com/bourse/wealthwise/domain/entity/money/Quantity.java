@@ -0,0 +1,47 @@
+package com.bourse.wealthwise.domain.entity.money;
+
+import java.math.BigInteger;
+
+/**
+ * A whole number of shares or rights as a {@code long}; negative for a short or an
+ * outgoing change. Arithmetic throws {@link ArithmeticException} on overflow.
+ */
+public record Quantity(long value) implements Comparable<Quantity> {
+
+    public static final Quantity ZERO = new Quantity(0);
+
+    public static Quantity of(long value) {
+        return new Quantity(value);
+    }
+
+    /** @throws ArithmeticException when {@code value} does not fit in a long */
+    public static Quantity of(BigInteger value) {
+        return new Quantity(value.longValueExact());
+    }
+
+    public Quantity plus(Quantity other) {
+        return new Quantity(Math.addExact(value, other.value));
+    }
+
+    public Quantity minus(Quantity other) {
+        return new Quantity(Math.subtractExact(value, other.value));
+    }
+
+    public Quantity negate() {
+        return new Quantity(Math.negateExact(value));
+    }
+
+    public boolean isZero() {
+        return value == 0;
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
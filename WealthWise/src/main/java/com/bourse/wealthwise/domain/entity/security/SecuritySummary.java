@@ -1,13 +1,14 @@
 package com.bourse.wealthwise.domain.entity.security;
 
-import java.math.BigDecimal;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
 
 public class SecuritySummary {
     private Security security;
-    private int volume;
-    private BigDecimal value;
+    private Quantity volume;
+    private Money value;
 
-    public SecuritySummary(Security security, int volume, BigDecimal value) {
+    public SecuritySummary(Security security, Quantity volume, Money value) {
         this.security = security;
         this.volume = volume;
         this.value = value;
@@ -17,11 +18,11 @@ public class SecuritySummary {
         return security;
     }
 
-    public int getVolume() {
+    public Quantity getVolume() {
         return volume;
     }
 
-    public BigDecimal getValue() {
+    public Money getValue() {
         return value;
     }
 }
@@ -1,7 +1,8 @@
 package com.bourse.wealthwise.domain.services;
 
-import com.bourse.wealthwise.repository.ActionRepository;
 import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.PortfolioResultCache;
+import com.bourse.wealthwise.repository.ledger.BalanceLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -12,18 +13,15 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class BalanceActionService {
 
-    private final ActionRepository actionRepository;
     private final PortfolioRepository portfolioRepository;
+    private final BalanceLedger balanceLedger;
+    private final PortfolioResultCache resultCache;
 
     public BigInteger getBalanceForPortfolio(String portfolioId, LocalDateTime localDateTime) {
-        return actionRepository.findAllActionsOf(
-                        portfolioRepository.findById(portfolioId)
-                                .orElseThrow(() -> new IllegalArgumentException("Portfolio not found"))
-                                .getUuid()
-                ).stream()
-                .filter(action -> action.getDatetime() != null && action.getDatetime().isBefore(localDateTime))
-                .map(action -> action.getBalanceChanges().getFirst().getChange_amount())
-                .reduce(BigInteger.ZERO, BigInteger::add);
+        String uuid = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new IllegalArgumentException("Portfolio not found"))
+                .getUuid();
+        return resultCache.balance(uuid, localDateTime, () -> balanceLedger.exactBalanceBefore(uuid, localDateTime));
     }
 
 }
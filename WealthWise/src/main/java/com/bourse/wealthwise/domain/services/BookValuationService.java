@@ -0,0 +1,158 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Price;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Values every portfolio of the book on one date at the {@link SecurityPriceRepository#getPriceAsOf}
+ * price, zero when there is none. Prices are kept as {@link Price}s and each position's
+ * price x volume is rounded half-even to {@link Money} once, so a portfolio's value is the
+ * sum of its securities summary lines, each rounded to {@link Money#SCALE} places.
+ * <p>
+ * Portfolios are split into chunks valued in parallel, each chunk reading the position
+ * ledger under one read lock. Each security's price is looked up once per run and shared
+ * by all of its holders, and values are summed as {@link Money} units, so the per-position
+ * work allocates nothing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookValuationService {
+
+    /**
+     * Holdings value of each portfolio the position ledger knows (zero when it held
+     * nothing on the date) and the book's exposure per security, sorted by security name.
+     */
+    public record BookValuation(LocalDate date, Map<String, Money> portfolioValues,
+                                List<SecurityExposure> exposures) {
+
+        public Money total() {
+            Money total = Money.ZERO;
+            for (SecurityExposure exposure : exposures) total = total.plus(exposure.value());
+            return total;
+        }
+    }
+
+    /** Volume of {@code security} held across the book, by how many portfolios, and its value. */
+    public record SecurityExposure(Security security, Quantity volume, int holders, Money value) {
+    }
+
+    private final PositionLedger positionLedger;
+    private final SecurityPriceRepository securityPriceRepository;
+    private final ExecutorService valuationExecutor;
+
+    @Value("${app.valuation.chunk-size:4096}")
+    private int chunkSize = 4096;
+
+    public BookValuation valueAll(LocalDate date) {
+        long started = System.nanoTime();
+        List<String> portfolioIds = new ArrayList<>(positionLedger.portfolioIds());
+        LocalDateTime until = date.atTime(23, 59, 59);
+        Map<Security, Price> prices = new ConcurrentHashMap<>();
+
+        List<Partial> partials = portfolioIds.size() <= chunkSize
+                ? List.of(value(portfolioIds, until, date, prices))
+                : fanOut(portfolioIds, until, date, prices);
+
+        Map<String, Money> portfolioValues = new HashMap<>(Math.max(4, portfolioIds.size() * 4 / 3 + 1));
+        Map<Security, Exposure> exposures = new HashMap<>();
+        for (Partial partial : partials) {
+            partial.portfolioValues.forEach((portfolioId, total) -> portfolioValues.put(portfolioId, Money.ofUnits(total.units)));
+            partial.exposures.forEach((security, exposure) -> exposures.merge(security, exposure, Exposure::add));
+        }
+        List<SecurityExposure> exposureList = new ArrayList<>(exposures.size());
+        exposures.forEach((security, exposure) -> exposureList.add(new SecurityExposure(security,
+                Quantity.of(exposure.volume), exposure.holders, Money.ofUnits(exposure.units))));
+        exposureList.sort(Comparator.comparing(exposure -> exposure.security().getName(),
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        log.info("Valued {} portfolios holding {} securities as of {} in {} ms",
+                portfolioValues.size(), exposureList.size(), date, (System.nanoTime() - started) / 1_000_000);
+        return new BookValuation(date, Collections.unmodifiableMap(portfolioValues), List.copyOf(exposureList));
+    }
+
+    private List<Partial> fanOut(List<String> portfolioIds, LocalDateTime until, LocalDate date,
+                                 Map<Security, Price> prices) {
+        List<CompletableFuture<Partial>> tasks = new ArrayList<>();
+        for (int from = 0; from < portfolioIds.size(); from += chunkSize) {
+            List<String> chunk = portfolioIds.subList(from, Math.min(from + chunkSize, portfolioIds.size()));
+            tasks.add(CompletableFuture.supplyAsync(() -> value(chunk, until, date, prices), valuationExecutor));
+        }
+        List<Partial> partials = new ArrayList<>(tasks.size());
+        try {
+            for (CompletableFuture<Partial> task : tasks) {
+                partials.add(task.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return partials;
+    }
+
+    private Partial value(List<String> portfolioIds, LocalDateTime until, LocalDate date,
+                          Map<Security, Price> prices) {
+        Partial partial = new Partial(portfolioIds.size());
+        for (String portfolioId : portfolioIds) partial.portfolioValues.put(portfolioId, new Total());
+        positionLedger.forEachHoldingAsOf(portfolioIds, until, (portfolioId, security, volume) -> {
+            long value = prices.computeIfAbsent(security, s -> priceOf(s, date)).unitsTimes(volume);
+            Total total = partial.portfolioValues.get(portfolioId);
+            total.units = Math.addExact(total.units, value);
+            Exposure exposure = partial.exposures.computeIfAbsent(security, k -> new Exposure());
+            exposure.volume = Math.addExact(exposure.volume, volume);
+            exposure.holders++;
+            exposure.units = Math.addExact(exposure.units, value);
+        });
+        return partial;
+    }
+
+    private Price priceOf(Security security, LocalDate date) {
+        return securityPriceRepository.getPriceAsOf(security.getIsin(), date)
+                .map(Price::of)
+                .orElse(Price.ZERO);
+    }
+
+    /** Result of one chunk of portfolios. */
+    private static final class Partial {
+        private final Map<String, Total> portfolioValues;
+        private final Map<Security, Exposure> exposures = new HashMap<>();
+
+        private Partial(int portfolios) {
+            portfolioValues = new HashMap<>(Math.max(4, portfolios * 4 / 3 + 1));
+        }
+    }
+
+    /** Running value of one portfolio, in {@link Money} units. */
+    private static final class Total {
+        private long units;
+    }
+
+    private static final class Exposure {
+        private long volume;
+        private int holders;
+        private long units;
+
+        private Exposure add(Exposure other) {
+            volume = Math.addExact(volume, other.volume);
+            holders += other.holders;
+            units = Math.addExact(units, other.units);
+            return this;
+        }
+    }
+}
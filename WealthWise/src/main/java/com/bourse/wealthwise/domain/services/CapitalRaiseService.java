@@ -1,54 +1,221 @@
 package com.bourse.wealthwise.domain.services;
 
-import com.bourse.wealthwise.domain.entity.action.Buy;
 import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
-import com.bourse.wealthwise.domain.entity.action.Sale;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.AnnouncementDedupCache;
 import com.bourse.wealthwise.repository.PortfolioRepository;
 import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CapitalRaiseService {
 
     private final ActionRepository actionRepository;
     private final PortfolioRepository portfolioRepository;
     private final SecurityRepository securityRepository;
+    private final PositionLedger positionLedger;
+    private final ExecutorService capitalRaiseExecutor;
+    private final AnnouncementDedupCache dedupCache;
 
+    /** Holders per fan-out task; announcements with fewer holders are computed inline. */
+    @Value("${app.capital-raise.chunk-size:1024}")
+    private int chunkSize = 1024;
+
+    /** Fixed-point scale announcement ratios are compared at: six decimal places. */
+    public static final long RATIO_SCALE = 1_000_000L;
+
+    /** One announcement of a batch handed to {@link #processAnnouncements}; {@code announcedOn} may be null. */
+    public record Announcement(String symbol, double perShare, LocalDate announcedOn) {
+
+        public Announcement(String symbol, double perShare) {
+            this(symbol, perShare, null);
+        }
+    }
+
+    /**
+     * Deterministic identity of an announcement: its symbol, its ratio in millionths and
+     * the date it was announced on, whichever queue, delivery or day it is processed on.
+     * Stored as the {@code tracing_number} of every grant it creates. Without a date the
+     * key only names the symbol and ratio, which a later, distinct raise may share, so
+     * undated announcements are traced by it but never deduplicated.
+     */
+    public static String idempotencyKey(String symbol, double perShare, LocalDate announcedOn) {
+        String key = "CAPITAL_RAISE:" + symbol + ":" + Math.round(perShare * RATIO_SCALE);
+        return announcedOn == null ? key : key + ":" + announcedOn;
+    }
+
+    /** As {@link #processAnnouncement(String, double, LocalDate, LocalDateTime)} for an undated announcement. */
     public void processAnnouncement(String symbol, double perShare, LocalDateTime now) {
+        processAnnouncement(symbol, perShare, null, now);
+    }
+
+    /**
+     * Applies one announcement. A dated announcement already applied within the dedup TTL
+     * is ignored; an undated one is always applied.
+     */
+    public void processAnnouncement(String symbol, double perShare, LocalDate announcedOn, LocalDateTime now) {
+        String key = idempotencyKey(symbol, perShare, announcedOn);
+        boolean dedup = announcedOn != null;
+        if (dedup && !dedupCache.tryClaim(key, now)) {
+            log.info("Ignoring repeated capital raise {}", key);
+            return;
+        }
+        long started = System.nanoTime();
+        Grants grants;
+        long computed;
+        try {
+            grants = grantsFor(symbol, perShare, now, key, Map.of());
+            computed = System.nanoTime();
+            actionRepository.saveAll(grants.actions());
+        } catch (RuntimeException e) {
+            if (dedup) dedupCache.release(key);
+            throw e;
+        }
+        long committed = System.nanoTime();
+
+        log.info("Capital raise {} x{}: {} holders, {} grants, fan-out {} ms, commit {} ms",
+                symbol, perShare, grants.holders(), grants.actions().size(),
+                (computed - started) / 1_000_000.0, (committed - computed) / 1_000_000.0);
+    }
+
+    /**
+     * Processes announcements in order and saves all their grants in one repository write.
+     * A later announcement for one of the rights granted earlier in the batch sees those
+     * grants as holdings, as if they had been saved already. Announcements whose
+     * securities are unknown are skipped and counted as rejected, and repeats of dated
+     * ones already applied are dropped. Nothing is saved until every grant has been computed,
+     * so a failure leaves the repository untouched and releases the batch's claims.
+     *
+     * @return the number of announcements rejected
+     */
+    public int processAnnouncements(List<Announcement> announcements, LocalDateTime now) {
+        long started = System.nanoTime();
+        List<CapitalRaise> pending = new ArrayList<>();
+        // Volumes granted by pending grants: right -> portfolio -> volume.
+        Map<Security, Map<String, Long>> staged = new HashMap<>();
+        List<String> claimed = new ArrayList<>();
+        int rejected = 0;
+        int repeated = 0;
+        int granted = 0;
+        try {
+            for (Announcement announcement : announcements) {
+                String key = idempotencyKey(announcement.symbol(), announcement.perShare(), announcement.announcedOn());
+                boolean dedup = announcement.announcedOn() != null;
+                if (dedup && !dedupCache.tryClaim(key, now)) {
+                    log.info("Ignoring repeated capital raise {}", key);
+                    repeated++;
+                    continue;
+                }
+                if (dedup) claimed.add(key);
+                Grants grants;
+                try {
+                    grants = grantsFor(announcement.symbol(), announcement.perShare(), now, key, staged);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping capital raise {}: {}", announcement.symbol(), e.getMessage());
+                    if (dedup) dedupCache.release(key);
+                    rejected++;
+                    continue;
+                }
+                pending.addAll(grants.actions());
+                Map<String, Long> rights = staged.computeIfAbsent(grants.right(), k -> new HashMap<>());
+                for (CapitalRaise grant : grants.actions()) {
+                    rights.merge(grant.getPortfolio().getUuid(), grant.getVolume().longValueExact(), Math::addExact);
+                }
+                granted += grants.actions().size();
+            }
+            actionRepository.saveAll(pending);
+        } catch (RuntimeException e) {
+            claimed.forEach(dedupCache::release);
+            throw e;
+        }
+
+        log.info("Capital raise batch: {} announcements ({} rejected, {} repeated), {} grants in {} ms",
+                announcements.size(), rejected, repeated, granted, (System.nanoTime() - started) / 1_000_000.0);
+        return rejected;
+    }
+
+    private record Grants(Security right, int holders, List<CapitalRaise> actions) {
+    }
+
+    /** Grants for holders of {@code symbol}, counting {@code staged} volumes not saved yet as held. */
+    private Grants grantsFor(String symbol, double perShare, LocalDateTime now, String key,
+                             Map<Security, Map<String, Long>> staged) {
         Security stock = securityRepository.findSecurityBySymbol(symbol);
         Security right = securityRepository.findSecurityBySymbol(symbol + "_X");
         if (stock == null || right == null) {
             throw new IllegalArgumentException("Stock or right security not found for symbol " + symbol);
         }
 
-        for (Portfolio portfolio : portfolioRepository.getPortfolios()) {
-            long currentShares = 0L;
-            for (var a : actionRepository.findAllActionsOf(portfolio.getUuid())) {
-                if (a instanceof Buy b && b.getSecurity().equals(stock)) {
-                    currentShares += b.getVolume().longValue();
-                } else if (a instanceof Sale s && s.getSecurity().equals(stock)) {
-                    currentShares -= s.getVolume().longValue();
-                }
+        Map<String, Long> unsaved = staged.getOrDefault(stock, Map.of());
+        Set<String> holderSet = new LinkedHashSet<>(positionLedger.holdersOf(stock));
+        holderSet.addAll(unsaved.keySet());
+        List<String> holders = List.copyOf(holderSet);
+        List<CapitalRaise> grants = holders.size() <= chunkSize
+                ? computeGrants(holders, stock, right, perShare, now, key, unsaved)
+                : fanOut(holders, stock, right, perShare, now, key, unsaved);
+        return new Grants(right, holders.size(), grants);
+    }
+
+    private List<CapitalRaise> fanOut(List<String> holders, Security stock, Security right,
+                                      double perShare, LocalDateTime now, String key, Map<String, Long> unsaved) {
+        List<CompletableFuture<List<CapitalRaise>>> tasks = new ArrayList<>();
+        for (int from = 0; from < holders.size(); from += chunkSize) {
+            List<String> chunk = holders.subList(from, Math.min(from + chunkSize, holders.size()));
+            tasks.add(CompletableFuture.supplyAsync(
+                    () -> computeGrants(chunk, stock, right, perShare, now, key, unsaved), capitalRaiseExecutor));
+        }
+        List<CapitalRaise> grants = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<CapitalRaise>> task : tasks) {
+                grants.addAll(task.join());
             }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return grants;
+    }
+
+    private List<CapitalRaise> computeGrants(List<String> holders, Security stock, Security right,
+                                             double perShare, LocalDateTime now, String key, Map<String, Long> unsaved) {
+        List<CapitalRaise> grants = new ArrayList<>();
+        for (String portfolioId : holders) {
+            Portfolio portfolio = portfolioRepository.findById(portfolioId).orElse(null);
+            if (portfolio == null) continue;
+            long currentShares = Math.addExact(positionLedger.volumeOf(portfolioId, stock).value(), unsaved.getOrDefault(portfolioId, 0L));
 
             long grant = (long) Math.floor(currentShares * perShare);
             if (grant <= 0) continue;
 
-            CapitalRaise cr = CapitalRaise.builder()
+            grants.add(CapitalRaise.builder()
                     .portfolio(portfolio)
                     .security(right)
                     .volume(BigInteger.valueOf(grant))
                     .datetime(now)
-                    .build();
-            actionRepository.save(cr);
+                    .tracing_number(key)
+                    .build());
         }
+        return grants;
     }
 }
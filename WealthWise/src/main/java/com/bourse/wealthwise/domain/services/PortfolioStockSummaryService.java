@@ -1,52 +1,57 @@
 package com.bourse.wealthwise.domain.services;
 
-import com.bourse.wealthwise.domain.entity.action.BaseAction;
-import com.bourse.wealthwise.domain.entity.action.Buy;
-import com.bourse.wealthwise.domain.entity.action.Sale;
-import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Price;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
 import com.bourse.wealthwise.domain.entity.security.Security;
-import com.bourse.wealthwise.domain.entity.security.SecurityPrice;
 import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
-import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioResultCache;
 import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 
+/**
+ * Holdings of a portfolio at the end of a day, valued at the last price on or before it.
+ * Volumes come from {@link PositionLedger}, so every security change counts: rights
+ * granted by capital raises are listed alongside shares, and a rights usage moves volume
+ * from the right to the stock, the same positions {@link BookValuationService} values.
+ */
 @Service
 public class PortfolioStockSummaryService {
 
     @Autowired
-    private ActionRepository actionRepository;
+    private SecurityPriceRepository securityPriceRepository;
 
     @Autowired
-    private SecurityPriceRepository securityPriceRepository;
+    private PositionLedger positionLedger;
+
+    @Autowired
+    private PortfolioResultCache resultCache;
 
     public List<SecuritySummary> getSecuritiesSummary(UUID portfolioId, LocalDate date) {
-        List<BaseAction> actions = actionRepository.findAllActionsOfUntilDate(portfolioId.toString(), date.atTime(23, 59, 59));
+        return resultCache.summary(portfolioId.toString(), date, () -> computeSummary(portfolioId, date));
+    }
 
-        Map<Security, Integer> volumeMap = new HashMap<>();
+    private List<SecuritySummary> computeSummary(UUID portfolioId, LocalDate date) {
+        Map<Security, Quantity> volumeMap = positionLedger.holdingsAsOf(portfolioId.toString(), date.atTime(23, 59, 59));
 
-        for (BaseAction action : actions) {
-            if (action instanceof Buy buy) {
-                volumeMap.merge(buy.getSecurity(), buy.getVolume().intValue(), Integer::sum);
-            } else if (action instanceof Sale sale) {
-                volumeMap.merge(sale.getSecurity(), sale.getVolume().negate().intValue(), Integer::sum);
-            }
-        }
+        List<String> isins = new ArrayList<>(volumeMap.size());
+        volumeMap.keySet().forEach(security -> isins.add(security.getIsin()));
+        Map<String, Double> prices = securityPriceRepository.getPricesAsOf(isins, date);
 
         List<SecuritySummary> summaryList = new ArrayList<>();
-        for (Map.Entry<Security, Integer> entry : volumeMap.entrySet()) {
+        for (Map.Entry<Security, Quantity> entry : volumeMap.entrySet()) {
             Security security = entry.getKey();
-            int volume = entry.getValue();
+            Quantity volume = entry.getValue();
 
-            Optional<Double> priceOpt = securityPriceRepository.getPrice(security.getIsin(), date);
-            BigDecimal price = priceOpt.map(BigDecimal::valueOf).orElse(BigDecimal.ZERO);
+            Double lastPrice = prices.get(security.getIsin());
+            Money value = lastPrice == null ? Money.ZERO : Price.of(lastPrice).times(volume);
 
-            summaryList.add(new SecuritySummary(security, volume, price.multiply(BigDecimal.valueOf(volume))));
+            summaryList.add(new SecuritySummary(security, volume, value));
         }
 
         summaryList.sort(Comparator.comparing(ss -> ss.getSecurity().getName()));
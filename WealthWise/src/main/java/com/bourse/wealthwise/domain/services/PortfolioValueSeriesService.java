@@ -0,0 +1,94 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.PriceHistory;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.PositionHistory;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holdings value of a portfolio at regular dates, computed in one forward sweep. Each
+ * position keeps a cursor into its dated changes from the {@link PositionLedger} and one
+ * into its prices, and both only move forward, so a series costs
+ * O(changes + prices + dates x positions). Each point equals the sum of
+ * {@link PortfolioStockSummaryService#getSecuritiesSummary} values for that date.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioValueSeriesService {
+
+    /** Values at the dates in {@code epochDays} ({@link LocalDate#toEpochDay()}), in ascending order. */
+    public record ValueSeries(int[] epochDays, double[] values) {
+
+        public int size() {
+            return epochDays.length;
+        }
+
+        public LocalDate dateAt(int index) {
+            return LocalDate.ofEpochDay(epochDays[index]);
+        }
+    }
+
+    private final PositionLedger positionLedger;
+    private final SecurityPriceRepository securityPriceRepository;
+
+    public ValueSeries dailyValues(UUID portfolioId, LocalDate from, LocalDate to) {
+        return valueSeries(portfolioId, from, to, Period.ofDays(1));
+    }
+
+    /** Values at {@code from}, {@code from + step}, ... up to and including {@code to}. */
+    public ValueSeries valueSeries(UUID portfolioId, LocalDate from, LocalDate to, Period step) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("Range start is after its end");
+        if (step.isZero() || step.isNegative()) throw new IllegalArgumentException("Step must be positive");
+
+        int count = 0;
+        while (!from.plus(step.multipliedBy(count)).isAfter(to)) count++;
+        int[] days = new int[count];
+        double[] values = new double[count];
+
+        Map<Security, PositionHistory> histories = positionLedger.historiesOf(portfolioId.toString());
+        int positions = histories.size();
+        PositionHistory[] changes = new PositionHistory[positions];
+        PriceHistory[] prices = new PriceHistory[positions];
+        int i = 0;
+        for (Map.Entry<Security, PositionHistory> entry : histories.entrySet()) {
+            changes[i] = entry.getValue();
+            prices[i++] = securityPriceRepository.historyOf(entry.getKey().getIsin());
+        }
+        int[] changeCursors = new int[positions];
+        int[] priceCursors = new int[positions];
+        Arrays.fill(changeCursors, -1);
+        for (int p = 0; p < positions; p++) priceCursors[p] = prices[p].floorIndex(Math.toIntExact(from.toEpochDay()));
+
+        for (int point = 0; point < count; point++) {
+            LocalDate date = from.plus(step.multipliedBy(point));
+            int day = Math.toIntExact(date.toEpochDay());
+            // Same cut-off as the securities summary.
+            LocalDateTime end = date.atTime(23, 59, 59);
+            double value = 0;
+            for (int p = 0; p < positions; p++) {
+                int at = changes[p].floorIndex(end, changeCursors[p]);
+                changeCursors[p] = at;
+                long volume = at < 0 ? 0 : changes[p].volumeAt(at);
+                PriceHistory history = prices[p];
+                int priced = priceCursors[p];
+                while (priced + 1 < history.size() && history.epochDayAt(priced + 1) <= day) priced++;
+                priceCursors[p] = priced;
+                // The cursor mirrors SecurityPriceRepository#getPriceAsOf.
+                if (volume != 0 && priced >= 0) value += history.priceAt(priced) * volume;
+            }
+            days[point] = day;
+            values[point] = value;
+        }
+        return new ValueSeries(days, values);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Price;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.LotLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Realized and unrealized profit and loss of a portfolio on a date from its FIFO lots in
+ * {@link LotLedger}, counting the actions up to the end of that day, the same cut-off as
+ * the securities summary. Open lots are valued at the
+ * {@link SecurityPriceRepository#getPriceAsOf} price, zero when there is none; realized
+ * profit covers every sale up to the date.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProfitAndLossService {
+
+    /** One position: open volume, cost of its open lots, their value on the date and profit realized on it. */
+    public record PositionProfitAndLoss(Security security, Quantity volume, Money cost, Money marketValue,
+                                        Money realized) {
+
+        public Money unrealized() {
+            return marketValue.minus(cost);
+        }
+    }
+
+    /** Positions sorted by security name. */
+    public record ProfitAndLoss(LocalDate date, List<PositionProfitAndLoss> positions) {
+
+        public Money realized() {
+            Money total = Money.ZERO;
+            for (PositionProfitAndLoss position : positions) total = total.plus(position.realized());
+            return total;
+        }
+
+        public Money unrealized() {
+            Money total = Money.ZERO;
+            for (PositionProfitAndLoss position : positions) total = total.plus(position.unrealized());
+            return total;
+        }
+    }
+
+    private final LotLedger lotLedger;
+    private final SecurityPriceRepository securityPriceRepository;
+
+    public ProfitAndLoss profitAndLoss(UUID portfolioId, LocalDate date) {
+        List<PositionProfitAndLoss> positions = new ArrayList<>();
+        lotLedger.forEachPositionAsOf(portfolioId.toString(), date.atTime(23, 59, 59), (security, volume, cost, realized) -> {
+            long marketValue = volume == 0 ? 0L : priceOf(security, date).unitsTimes(volume);
+            positions.add(new PositionProfitAndLoss(security, Quantity.of(volume), Money.ofUnits(cost),
+                    Money.ofUnits(marketValue), Money.ofUnits(realized)));
+        });
+        positions.sort(Comparator.comparing(position -> position.security().getName(),
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return new ProfitAndLoss(date, List.copyOf(positions));
+    }
+
+    private Price priceOf(Security security, LocalDate date) {
+        return securityPriceRepository.getPriceAsOf(security.getIsin(), date)
+                .map(Price::of)
+                .orElse(Price.ZERO);
+    }
+}
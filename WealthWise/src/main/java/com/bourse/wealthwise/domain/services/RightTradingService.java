@@ -1,24 +1,23 @@
 package com.bourse.wealthwise.domain.services;
 
 import com.bourse.wealthwise.domain.entity.action.Buy;
-import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
 import com.bourse.wealthwise.domain.entity.action.Sale;
-import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class RightTradingService {
 
     private final ActionRepository actionRepository;
+    private final PositionLedger positionLedger;
 
     public void buyRights(Portfolio portfolio, Security right, long quantity, double price, LocalDateTime when) {
         if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
@@ -45,20 +44,6 @@ public class RightTradingService {
     }
 
     private long rightsOwnedUpTo(Portfolio portfolio, Security right, LocalDateTime until) {
-        List<com.bourse.wealthwise.domain.entity.action.BaseAction> actions =
-                actionRepository.findAllActionsOfUntilDate(portfolio.getUuid(), until);
-        long total = 0L;
-        for (var a : actions) {
-            if (a instanceof Buy b && b.getSecurity().equals(right)) {
-                total += b.getVolume().longValue();
-            } else if (a instanceof Sale s && s.getSecurity().equals(right)) {
-                total -= s.getVolume().longValue();
-            } else if (a instanceof CapitalRaise cr && cr.getSecurity().equals(right)) {
-                total += cr.getVolume().longValue();
-            } else if (a instanceof StockRightUsage su && su.getRightSecurity().equals(right)) {
-                total -= su.getRightsUsed().longValue();
-            }
-        }
-        return total;
+        return positionLedger.volumeAsOf(portfolio.getUuid(), right, until).value();
     }
 }
\ No newline at end of file
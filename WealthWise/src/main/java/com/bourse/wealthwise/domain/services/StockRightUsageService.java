@@ -1,20 +1,16 @@
 package com.bourse.wealthwise.domain.services;
 
-import com.bourse.wealthwise.domain.entity.action.BaseAction;
-import com.bourse.wealthwise.domain.entity.action.Buy;
-import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
-import com.bourse.wealthwise.domain.entity.action.Sale;
 import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.repository.ActionRepository;
 import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
 
 @Service
@@ -25,6 +21,7 @@ public class StockRightUsageService {
 
     private final ActionRepository actionRepository;
     private final SecurityRepository securityRepository;
+    private final PositionLedger positionLedger;
 
     public void useRights(Portfolio portfolio, String stockSymbol, long quantity, LocalDateTime now) {
         if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
@@ -53,19 +50,6 @@ public class StockRightUsageService {
     }
 
     private long rightsOwnedUpTo(Portfolio portfolio, Security right, LocalDateTime until) {
-        List<BaseAction> actions = actionRepository.findAllActionsOfUntilDate(portfolio.getUuid(), until);
-        long total = 0L;
-        for (var a : actions) {
-            if (a instanceof Buy b && b.getSecurity().equals(right)) {
-                total += b.getVolume().longValue();
-            } else if (a instanceof Sale s && s.getSecurity().equals(right)) {
-                total -= s.getVolume().longValue();
-            } else if (a instanceof CapitalRaise cr && cr.getSecurity().equals(right)) {
-                total += cr.getVolume().longValue();
-            } else if (a instanceof StockRightUsage su && su.getRightSecurity().equals(right)) {
-                total -= su.getRightsUsed().longValue();
-            }
-        }
-        return total;
+        return positionLedger.volumeAsOf(portfolio.getUuid(), right, until).value();
     }
 }
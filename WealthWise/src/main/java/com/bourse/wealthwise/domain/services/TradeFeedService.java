@@ -0,0 +1,146 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.action.ActionType;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.Withdrawal;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.BalanceLedger;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns trade-feed orders into actions. A batch is validated against the current cash
+ * balance and positions plus the effect of the batch's own earlier orders, and every
+ * order that passes is committed with one {@link ActionRepository#saveAll}.
+ * <p>
+ * The check is only sound while a portfolio's orders are applied by one thread at a
+ * time, which is what the trade-feed consumers guarantee through per-portfolio message groups.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradeFeedService {
+
+    public enum Kind { BUY, SELL, DEPOSIT, WITHDRAW }
+
+    /**
+     * One order of the feed; {@code symbol}, {@code volume} and {@code price} are only
+     * meaningful for trades, {@code amount} only for cash movements.
+     */
+    public record TradeOrder(Kind kind, String portfolioId, String symbol, long volume, int price, long amount,
+                             LocalDateTime datetime) {
+    }
+
+    /** Outcome of one batch. */
+    public record Result(int accepted, int rejected) {
+    }
+
+    private record PositionKey(String portfolioId, Security security) {
+    }
+
+    private final ActionRepository actionRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final SecurityRepository securityRepository;
+    private final BalanceLedger balanceLedger;
+    private final PositionLedger positionLedger;
+
+    public Result apply(List<TradeOrder> orders) {
+        Map<String, Money> cash = new HashMap<>();
+        Map<PositionKey, Quantity> positions = new HashMap<>();
+        List<BaseAction> accepted = new ArrayList<>(orders.size());
+        int rejected = 0;
+        for (TradeOrder order : orders) {
+            try {
+                accepted.add(toAction(order, cash, positions));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                log.warn("Rejected {} for portfolio {}: {}", order.kind(), order.portfolioId(), e.getMessage());
+                rejected++;
+            }
+        }
+        actionRepository.saveAll(accepted);
+        return new Result(accepted.size(), rejected);
+    }
+
+    private BaseAction toAction(TradeOrder order, Map<String, Money> cash, Map<PositionKey, Quantity> positions) {
+        Portfolio portfolio = portfolioRepository.findById(order.portfolioId())
+                .orElseThrow(() -> new IllegalArgumentException("Portfolio not found"));
+        String id = portfolio.getUuid();
+        Money balance = cash.computeIfAbsent(id, p -> balanceLedger.balanceBefore(p, LocalDateTime.MAX));
+        return switch (order.kind()) {
+            case DEPOSIT -> {
+                requirePositive(order.amount(), "amount");
+                cash.put(id, balance.plus(Money.of(order.amount())));
+                yield Deposit.builder().portfolio(portfolio).datetime(order.datetime())
+                        .actionType(ActionType.DEPOSIT).amount(BigInteger.valueOf(order.amount())).build();
+            }
+            case WITHDRAW -> {
+                requirePositive(order.amount(), "amount");
+                Money amount = Money.of(order.amount());
+                if (amount.compareTo(balance) > 0) throw new IllegalArgumentException("Insufficient balance");
+                cash.put(id, balance.minus(amount));
+                yield Withdrawal.builder().portfolio(portfolio).datetime(order.datetime())
+                        .actionType(ActionType.WITHDRAWAL).amount(BigInteger.valueOf(order.amount())).build();
+            }
+            case BUY -> {
+                Security security = security(order.symbol());
+                long total = total(order);
+                Money cost = Money.of(total);
+                if (cost.compareTo(balance) > 0) throw new IllegalArgumentException("Insufficient balance");
+                PositionKey key = new PositionKey(id, security);
+                Quantity held = positions.computeIfAbsent(key, k -> positionLedger.volumeOf(id, security));
+                cash.put(id, balance.minus(cost));
+                positions.put(key, held.plus(Quantity.of(order.volume())));
+                yield Buy.builder().portfolio(portfolio).datetime(order.datetime()).actionType(ActionType.BUY)
+                        .security(security).volume(BigInteger.valueOf(order.volume())).price(order.price())
+                        .totalValue(BigInteger.valueOf(total)).build();
+            }
+            case SELL -> {
+                Security security = security(order.symbol());
+                long total = total(order);
+                PositionKey key = new PositionKey(id, security);
+                Quantity held = positions.computeIfAbsent(key, k -> positionLedger.volumeOf(id, security));
+                Quantity sold = Quantity.of(order.volume());
+                if (sold.compareTo(held) > 0) throw new IllegalArgumentException("Not enough shares to sell");
+                cash.put(id, balance.plus(Money.of(total)));
+                positions.put(key, held.minus(sold));
+                yield Sale.builder().portfolio(portfolio).datetime(order.datetime()).actionType(ActionType.SALE)
+                        .security(security).volume(BigInteger.valueOf(order.volume())).price(order.price())
+                        .totalValue(BigInteger.valueOf(total)).build();
+            }
+        };
+    }
+
+    private Security security(String symbol) {
+        Security security = securityRepository.findSecurityBySymbol(symbol);
+        if (security == null) throw new IllegalArgumentException("Security not found for symbol " + symbol);
+        return security;
+    }
+
+    private static long total(TradeOrder order) {
+        requirePositive(order.volume(), "volume");
+        requirePositive(order.price(), "price");
+        return Math.multiplyExact(order.volume(), (long) order.price());
+    }
+
+    private static void requirePositive(long value, String what) {
+        if (value <= 0) throw new IllegalArgumentException(what + " must be positive");
+    }
+}
@@ -4,6 +4,7 @@ import com.bourse.wealthwise.domain.services.CapitalRaiseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 
 /**
@@ -17,10 +18,19 @@ public class CapitalRaiseAnnouncementsConsumer {
     private final CapitalRaiseService capitalRaiseService;
 
     public void consume(String message) {
-        CapitalRaiseParser.CapitalRaiseMsg m = CapitalRaiseParser.parse(message);
+        process(CapitalRaiseParser.parse(message));
+    }
+
+    /** Consumes an announcement in the {@link CorporateActionCodec} binary format. */
+    public void consume(ByteBuffer message) {
+        process(CorporateActionCodec.decodeCapitalRaise(message, new CapitalRaiseParser.CapitalRaiseMsg()));
+    }
+
+    public void process(CapitalRaiseParser.CapitalRaiseMsg m) {
         capitalRaiseService.processAnnouncement(
                 m.getSymbol(),
                 m.getPerShare(),
+                m.getAnnouncedOn(),
                 LocalDateTime.now()
         );
     }
@@ -0,0 +1,172 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch-listening alternative to {@link CapitalRaiseJmsAdapter}, enabled with
+ * {@code app.capital-raise.consumer=batch}.
+ * <p>
+ * Each of {@code app.capital-raise.consumers} workers owns a transacted session on
+ * {@link CapitalRaiseJmsAdapter#QUEUE}. A worker waits for a message, then drains up to
+ * {@code app.capital-raise.batch.size} messages or until {@code app.capital-raise.batch.wait-ms}
+ * has passed, hands them to {@link CapitalRaiseService#processAnnouncements} as one unit and
+ * commits once. Text and binary ({@link CorporateActionCodec}) messages may be mixed. Malformed messages are logged and committed with the batch; if processing
+ * fails the session is rolled back and the broker redelivers the whole batch.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${app.messaging.enabled:false} and '${app.capital-raise.consumer:single}' == 'batch'")
+public class CapitalRaiseBatchConsumer implements SmartLifecycle {
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final long RECONNECT_MILLIS = 1_000;
+
+    private final CapitalRaiseService capitalRaiseService;
+    private final ConnectionFactory connectionFactory;
+    private final int consumers;
+    private final int batchSize;
+    private final long waitMillis;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public CapitalRaiseBatchConsumer(CapitalRaiseService capitalRaiseService,
+                                     ConnectionFactory connectionFactory,
+                                     @Value("${app.capital-raise.consumers:1}") int consumers,
+                                     @Value("${app.capital-raise.batch.size:500}") int batchSize,
+                                     @Value("${app.capital-raise.batch.wait-ms:50}") long waitMillis) {
+        if (consumers < 1 || batchSize < 1 || waitMillis < 0) {
+            throw new IllegalArgumentException("Capital-raise consumers and batch size must be positive");
+        }
+        this.capitalRaiseService = capitalRaiseService;
+        // Workers hold their connection for their whole life, so bypass the shared cached one.
+        this.connectionFactory = connectionFactory instanceof CachingConnectionFactory caching
+                && caching.getTargetConnectionFactory() != null ? caching.getTargetConnectionFactory() : connectionFactory;
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            workers.add(Thread.ofPlatform().name("capital-raise-batch-" + i).daemon().start(this::work));
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long batchesProcessed() {
+        return batches.sum();
+    }
+
+    public long messagesProcessed() {
+        return messages.sum();
+    }
+
+    public long messagesRejected() {
+        return rejected.sum();
+    }
+
+    private void work() {
+        while (running) {
+            try (Connection connection = connectionFactory.createConnection();
+                 Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                 MessageConsumer consumer = session.createConsumer(session.createQueue(CapitalRaiseJmsAdapter.QUEUE))) {
+                connection.start();
+                List<Message> batch = new ArrayList<>(batchSize);
+                while (running) {
+                    Message first = consumer.receive(IDLE_POLL_MILLIS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+                    while (batch.size() < batchSize) {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        Message next = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                    process(session, batch);
+                    batch.clear();
+                }
+            } catch (JMSException e) {
+                if (!running) return;
+                log.warn("Capital-raise batch consumer lost its session, reconnecting", e);
+                sleepQuietly(RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    private void process(Session session, List<Message> batch) throws JMSException {
+        List<CapitalRaiseService.Announcement> announcements = new ArrayList<>(batch.size());
+        CapitalRaiseParser.CapitalRaiseMsg m = new CapitalRaiseParser.CapitalRaiseMsg();
+        int malformed = 0;
+        for (Message message : batch) {
+            try {
+                CorporateActionCodec.read(message, m);
+                announcements.add(new CapitalRaiseService.Announcement(m.getSymbol(), m.getPerShare(), m.getAnnouncedOn()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid capital raise message {}: {}", message.getJMSMessageID(), e.getMessage());
+                malformed++;
+            }
+        }
+        try {
+            int skipped = capitalRaiseService.processAnnouncements(announcements, LocalDateTime.now());
+            session.commit();
+            batches.increment();
+            messages.add(batch.size());
+            rejected.add(malformed + skipped);
+        } catch (RuntimeException e) {
+            log.error("Capital-raise batch of {} messages failed, rolling back for redelivery", batch.size(), e);
+            session.rollback();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
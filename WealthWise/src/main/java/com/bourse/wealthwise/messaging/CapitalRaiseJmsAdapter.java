@@ -1,24 +1,37 @@
 package com.bourse.wealthwise.messaging;
 
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
 /**
- * Thin JMS adapter that listens on a queue and delegates to the domain consumer.
+ * Thin JMS adapter that listens on a queue and hands each announcement to the
+ * {@link CapitalRaiseStage}, blocking while the stage is full. Replaced by {@link CapitalRaiseBatchConsumer} when
+ * {@code app.capital-raise.consumer=batch}.
+ * <p>
+ * A message is acknowledged once it is queued in the stage, before its batch is saved.
+ * Announcements whose batch fails go to {@link #DEAD_LETTER_QUEUE} rather than being
+ * dropped (see {@link CapitalRaiseStage}), but those still queued when the process dies
+ * are lost. The batch consumer acknowledges only after the save and loses none.
  */
 @Component
-@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+@ConditionalOnExpression("${app.messaging.enabled:false} and '${app.capital-raise.consumer:single}' == 'single'")
 @RequiredArgsConstructor
 public class CapitalRaiseJmsAdapter {
 
     public static final String QUEUE = "capital.raise.announcements";
+    /** Announcements the stage could not apply, in the {@link CapitalRaiseParser} text grammar. */
+    public static final String DEAD_LETTER_QUEUE = QUEUE + ".DLQ";
 
-    private final CapitalRaiseAnnouncementsConsumer consumer;
+    private final CapitalRaiseStage stage;
 
-    @JmsListener(destination = QUEUE)
-    public void onMessage(String payload) {
-        consumer.consume(payload); // reuse your existing parsing + service workflow
+    @JmsListener(destination = QUEUE, concurrency = "${app.capital-raise.consumers:1}")
+    public void onMessage(Message message) throws JMSException, InterruptedException {
+        // text or binary payloads
+        CapitalRaiseParser.CapitalRaiseMsg m = CorporateActionCodec.read(message, new CapitalRaiseParser.CapitalRaiseMsg());
+        stage.submit(m.getSymbol(), m.getPerShare(), m.getAnnouncedOn());
     }
 }
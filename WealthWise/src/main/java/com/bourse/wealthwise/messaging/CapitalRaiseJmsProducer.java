@@ -1,17 +1,66 @@
 package com.bourse.wealthwise.messaging;
 
+import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import jakarta.jms.BytesMessage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+
 @Component
 @ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
 @RequiredArgsConstructor
 public class CapitalRaiseJmsProducer {
     private final JmsTemplate jmsTemplate;
 
+    /** Wire format of {@link #publish(String, double, LocalDate)}: {@code text} or {@code binary}. */
+    @Value("${app.capital-raise.wire-format:text}")
+    private String wireFormat = "text";
+
     public void publish(String payload) {
         jmsTemplate.convertAndSend(CapitalRaiseJmsAdapter.QUEUE, payload);
     }
+
+    public void publish(String symbol, double perShare) {
+        publish(symbol, perShare, null);
+    }
+
+    /**
+     * Publishes an announcement made on {@code announcedOn}, which consumers deduplicate it
+     * by; null sends it undated, and consumers apply it every time it arrives.
+     */
+    public void publish(String symbol, double perShare, LocalDate announcedOn) {
+        switch (wireFormat) {
+            case "text" -> publish(text(symbol, perShare, announcedOn));
+            case "binary" -> publishBinary(symbol, perShare, announcedOn);
+            default -> throw new IllegalArgumentException("Unknown app.capital-raise.wire-format: " + wireFormat);
+        }
+    }
+
+    /** Sends an announcement that could not be applied to {@link CapitalRaiseJmsAdapter#DEAD_LETTER_QUEUE}, as text. */
+    public void deadLetter(CapitalRaiseService.Announcement announcement) {
+        jmsTemplate.convertAndSend(CapitalRaiseJmsAdapter.DEAD_LETTER_QUEUE,
+                text(announcement.symbol(), announcement.perShare(), announcement.announcedOn()));
+    }
+
+    public void publishBinary(String symbol, double perShare) {
+        publishBinary(symbol, perShare, null);
+    }
+
+    /** Sends the announcement as a {@link CorporateActionCodec} {@code BytesMessage}. */
+    public void publishBinary(String symbol, double perShare, LocalDate announcedOn) {
+        byte[] body = CorporateActionCodec.encodeCapitalRaise(symbol, perShare, announcedOn);
+        jmsTemplate.send(CapitalRaiseJmsAdapter.QUEUE, session -> {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(body);
+            return message;
+        });
+    }
+
+    private static String text(String symbol, double perShare, LocalDate announcedOn) {
+        return "CAPITAL_RAISE " + symbol + " " + perShare + (announcedOn == null ? "" : " " + announcedOn);
+    }
 }
@@ -1,6 +1,7 @@
 package com.bourse.wealthwise.messaging;
 
 import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import jakarta.jms.Message;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -18,11 +19,11 @@ public class CapitalRaiseListener {
     private final CapitalRaiseService capitalRaiseService;
 
     @JmsListener(destination = "capital-raise")
-    public void onMessage(String message) {
+    public void onMessage(Message message) {
         try {
-            CapitalRaiseParser.CapitalRaiseMsg m = CapitalRaiseParser.parse(message);
-            capitalRaiseService.processAnnouncement(m.getSymbol(), m.getPerShare(), LocalDateTime.now());
-            log.info("Processed capital raise: {}", message);
+            CapitalRaiseParser.CapitalRaiseMsg m = CorporateActionCodec.read(message, new CapitalRaiseParser.CapitalRaiseMsg());
+            capitalRaiseService.processAnnouncement(m.getSymbol(), m.getPerShare(), m.getAnnouncedOn(), LocalDateTime.now());
+            log.info("Processed capital raise: {} x{}", m.getSymbol(), m.getPerShare());
         } catch (Exception e) {
             log.warn("Invalid capital raise message: {}", message, e);
         }
@@ -1,35 +1,196 @@
 package com.bourse.wealthwise.messaging;
 
+import com.bourse.wealthwise.util.AsciiDecimal;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
 public class CapitalRaiseParser {
 
+    private static final String VERB = "CAPITAL_RAISE";
+
+    /**
+     * Parse result. A holder created with {@link #CapitalRaiseMsg()} can be passed to the
+     * {@code parse} overloads again and again; it remembers the symbols it has produced,
+     * so parsing a symbol seen before allocates nothing.
+     */
     public static class CapitalRaiseMsg {
-        private final String symbol;
-        private final double perShare;
+        private static final int SYMBOL_CACHE = 64;
+        static final int UNDATED = Integer.MIN_VALUE;
+
+        private String symbol;
+        private double perShare;
+        private int announcedOn = UNDATED;
+        private String[] symbols;
+        private AsciiChars bytes;
+
+        public CapitalRaiseMsg() {
+        }
+
         public CapitalRaiseMsg(String symbol, double perShare) {
+            this(symbol, perShare, null);
+        }
+
+        public CapitalRaiseMsg(String symbol, double perShare, LocalDate announcedOn) {
             this.symbol = symbol;
             this.perShare = perShare;
+            this.announcedOn = announcedOn == null ? UNDATED : Math.toIntExact(announcedOn.toEpochDay());
         }
+
         public String getSymbol() { return symbol; }
         public double getPerShare() { return perShare; }
+
+        /** The date the announcement was made on, or null when the message carries none. */
+        public LocalDate getAnnouncedOn() {
+            return announcedOn == UNDATED ? null : LocalDate.ofEpochDay(announcedOn);
+        }
+
+        void set(CharSequence msg, int symbolFrom, int symbolTo, double perShare) {
+            set(msg, symbolFrom, symbolTo, perShare, UNDATED);
+        }
+
+        void set(CharSequence msg, int symbolFrom, int symbolTo, double perShare, int announcedOn) {
+            if (symbols == null) symbols = new String[SYMBOL_CACHE];
+            int hash = 0;
+            for (int i = symbolFrom; i < symbolTo; i++) hash = 31 * hash + msg.charAt(i);
+            // Two candidate slots per symbol, so a pair of colliding symbols does not thrash.
+            int slot = (hash ^ (hash >>> 16)) & (SYMBOL_CACHE - 1);
+            int other = slot ^ 1;
+            String cached;
+            if (symbols[slot] != null && sameChars(symbols[slot], msg, symbolFrom, symbolTo)) {
+                cached = symbols[slot];
+            } else if (symbols[other] != null && sameChars(symbols[other], msg, symbolFrom, symbolTo)) {
+                cached = symbols[other];
+            } else {
+                cached = msg.subSequence(symbolFrom, symbolTo).toString();
+                symbols[symbols[slot] == null || symbols[other] != null ? slot : other] = cached;
+            }
+            this.symbol = cached;
+            this.perShare = perShare;
+            this.announcedOn = announcedOn;
+        }
+
+        CharSequence bytes(ByteBuffer buffer, int from, int to) {
+            if (bytes == null) bytes = new AsciiChars();
+            bytes.buffer = buffer;
+            bytes.from = from;
+            bytes.length = to - from;
+            return bytes;
+        }
     }
 
     /**
-     * Parses messages in the exact format: "CAPITAL_RAISE <SYMBOL> <PER_SHARE>"
-     * e.g., "CAPITAL_RAISE FOOLAD 0.25"
+     * Parses messages in the exact format: "CAPITAL_RAISE <SYMBOL> <PER_SHARE> [<ANNOUNCED_ON>]"
+     * e.g., "CAPITAL_RAISE FOOLAD 0.25" or "CAPITAL_RAISE FOOLAD 0.25 2024-05-01"
      * @throws IllegalArgumentException if the format is invalid
      */
     public static CapitalRaiseMsg parse(String msg) {
+        return parse(msg, new CapitalRaiseMsg());
+    }
+
+    /**
+     * Same grammar and errors as {@link #parse(String)}, scanned in place with the result
+     * written to {@code into}.
+     */
+    public static CapitalRaiseMsg parse(CharSequence msg, CapitalRaiseMsg into) {
         if (msg == null) throw new IllegalArgumentException("Message is null");
-        String[] parts = msg.trim().split("\\s+");
-        if (parts.length != 3) throw new IllegalArgumentException("Expected 3 parts");
-        if (!"CAPITAL_RAISE".equals(parts[0])) throw new IllegalArgumentException("Unknown verb: " + parts[0]);
-        String symbol = parts[1];
-        double perShare;
+        // String.trim() bounds, then tokens split on runs of \s, as trim().split("\\s+") does.
+        int start = 0;
+        int end = msg.length();
+        while (start < end && msg.charAt(start) <= ' ') start++;
+        while (end > start && msg.charAt(end - 1) <= ' ') end--;
+
+        int verbFrom = start, verbTo = start, symbolFrom = start, symbolTo = start, numberFrom = start, numberTo = start;
+        int dateFrom = start, dateTo = start;
+        int parts = 0;
+        for (int i = start; i < end || parts == 0; ) {
+            int tokenFrom = i;
+            while (i < end && !isSpace(msg.charAt(i))) i++;
+            switch (parts++) {
+                case 0 -> { verbFrom = tokenFrom; verbTo = i; }
+                case 1 -> { symbolFrom = tokenFrom; symbolTo = i; }
+                case 2 -> { numberFrom = tokenFrom; numberTo = i; }
+                case 3 -> { dateFrom = tokenFrom; dateTo = i; }
+                default -> { }
+            }
+            while (i < end && isSpace(msg.charAt(i))) i++;
+            if (parts > 4) break;
+        }
+        if (parts != 3 && parts != 4) throw new IllegalArgumentException("Expected 3 or 4 parts");
+        if (!sameChars(VERB, msg, verbFrom, verbTo)) {
+            throw new IllegalArgumentException("Unknown verb: " + msg.subSequence(verbFrom, verbTo));
+        }
+        double perShare = perShare(msg, numberFrom, numberTo);
+        into.set(msg, symbolFrom, symbolTo, perShare, parts == 4 ? announcedOn(msg, dateFrom, dateTo) : CapitalRaiseMsg.UNDATED);
+        return into;
+    }
+
+    /** Parses the ASCII message in bytes {@code from} (inclusive) to {@code to} of {@code buffer}. */
+    public static CapitalRaiseMsg parse(ByteBuffer buffer, int from, int to, CapitalRaiseMsg into) {
+        if (buffer == null) throw new IllegalArgumentException("Message is null");
+        return parse(into.bytes(buffer, from, to), into);
+    }
+
+    private static double perShare(CharSequence msg, int from, int to) {
         try {
-            perShare = Double.parseDouble(parts[2]);
+            return AsciiDecimal.parseDouble(msg, from, to);
+        } catch (NumberFormatException fast) {
+            // Forms only the JDK accepts ("NaN", "0x1p3", "1d", ...) keep parsing as before.
+            try {
+                return Double.parseDouble(msg.subSequence(from, to).toString());
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("Per-share must be a number");
+            }
+        }
+    }
+
+    private static int announcedOn(CharSequence msg, int from, int to) {
+        try {
+            return AsciiDecimal.parseEpochDay(msg, from, to);
         } catch (NumberFormatException nfe) {
-            throw new IllegalArgumentException("Per-share must be a number");
+            throw new IllegalArgumentException("Announcement date must be yyyy-MM-dd");
+        }
+    }
+
+    /** The characters {@code \s} matches in a regex. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static boolean sameChars(String expected, CharSequence msg, int from, int to) {
+        if (expected.length() != to - from) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (expected.charAt(i) != msg.charAt(from + i)) return false;
+        }
+        return true;
+    }
+
+    /** Reusable view of ASCII bytes as characters. */
+    private static final class AsciiChars implements CharSequence {
+        private ByteBuffer buffer;
+        private int from;
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(from + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            char[] chars = new char[end - start];
+            for (int i = start; i < end; i++) chars[i - start] = charAt(i);
+            return new String(chars);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
         }
-        return new CapitalRaiseMsg(symbol, perShare);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import com.bourse.wealthwise.util.PartitionedWorkQueue;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded stage between {@link CapitalRaiseJmsAdapter} and {@link CapitalRaiseService}.
+ * Announcements are partitioned by symbol over {@code app.capital-raise.queue.workers}
+ * workers, so one symbol's announcements are applied in arrival order while a slow
+ * fan-out only holds up the symbols sharing its lane. Whatever is waiting in a lane is
+ * processed as one batch. When a lane holds {@code app.capital-raise.queue.capacity}
+ * announcements, {@link #submit} blocks the listener thread, which stops it consuming
+ * until the workers catch up.
+ * <p>
+ * Messages are already acknowledged when their batch runs, so a failed batch is not
+ * redelivered. Its announcements are retried one at a time instead, and any that still
+ * fail are sent to {@link CapitalRaiseJmsAdapter#DEAD_LETTER_QUEUE}. What is lost is
+ * whatever sits in the lanes when the process dies, up to workers x capacity
+ * announcements, and an announcement whose dead-letter send fails as well.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${app.messaging.enabled:false} and '${app.capital-raise.consumer:single}' == 'single'")
+public class CapitalRaiseStage {
+
+    private final PartitionedWorkQueue<String, CapitalRaiseService.Announcement> queue;
+    private final Consumer<List<CapitalRaiseService.Announcement>> process;
+    private final Consumer<CapitalRaiseService.Announcement> deadLetter;
+
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    @Autowired
+    public CapitalRaiseStage(CapitalRaiseService capitalRaiseService,
+                             CapitalRaiseJmsProducer producer,
+                             @Value("${app.capital-raise.queue.workers:4}") int workers,
+                             @Value("${app.capital-raise.queue.capacity:256}") int capacity,
+                             @Value("${app.capital-raise.queue.batch-size:64}") int batchSize) {
+        this(batch -> capitalRaiseService.processAnnouncements(batch, LocalDateTime.now()), producer::deadLetter,
+                workers, capacity, batchSize);
+    }
+
+    CapitalRaiseStage(Consumer<List<CapitalRaiseService.Announcement>> process,
+                      Consumer<CapitalRaiseService.Announcement> deadLetter,
+                      int workers, int capacity, int batchSize) {
+        this.process = process;
+        this.deadLetter = deadLetter;
+        this.queue = new PartitionedWorkQueue<>("capital-raise-worker", workers, capacity, batchSize, this::handle);
+    }
+
+    public void submit(String symbol, double perShare, LocalDate announcedOn) throws InterruptedException {
+        queue.put(symbol, new CapitalRaiseService.Announcement(symbol, perShare, announcedOn));
+    }
+
+    /** Queue depth, put/queue wait and processing time of the stage. */
+    public PartitionedWorkQueue.Stats stats() {
+        return queue.stats();
+    }
+
+    /** Announcements sent to the dead-letter queue since start. */
+    public long deadLettered() {
+        return deadLettered.sum();
+    }
+
+    /** Announcements that failed and could not be dead-lettered either. */
+    public long lost() {
+        return lost.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        queue.close();
+        log.info("Capital-raise stage stopped: {}, {} dead-lettered, {} lost", queue.stats(), deadLettered(), lost());
+    }
+
+    private void handle(List<CapitalRaiseService.Announcement> batch) {
+        try {
+            process.accept(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e);
+                return;
+            }
+            log.warn("Capital-raise batch of {} failed, retrying its announcements one at a time", batch.size(), e);
+        }
+        for (CapitalRaiseService.Announcement announcement : batch) {
+            try {
+                process.accept(List.of(announcement));
+            } catch (RuntimeException e) {
+                deadLetter(announcement, e);
+            }
+        }
+    }
+
+    private void deadLetter(CapitalRaiseService.Announcement announcement, RuntimeException cause) {
+        log.error("Capital raise {} failed, sending it to {}", announcement, CapitalRaiseJmsAdapter.DEAD_LETTER_QUEUE, cause);
+        try {
+            deadLetter.accept(announcement);
+            deadLettered.increment();
+        } catch (RuntimeException e) {
+            log.error("Could not dead-letter capital raise {}, it is lost", announcement, e);
+            lost.increment();
+        }
+    }
+}
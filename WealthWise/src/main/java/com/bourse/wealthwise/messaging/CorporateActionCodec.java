@@ -0,0 +1,119 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Binary wire format for corporate-action announcements, sent as a JMS {@link BytesMessage}:
+ * <pre>
+ *   byte  version      (1, or 2 when dated)
+ *   byte  action type  (1 = capital raise)
+ *   byte  symbol length, then the symbol in ASCII
+ *   long  per-share ratio in millionths, big-endian
+ *   int   announcement date in days since 1970-01-01, big-endian (version 2 only)
+ * </pre>
+ * Decoders reject versions and action types they do not know, so new actions or fields
+ * can be introduced under a new version without old consumers misreading them.
+ * Undated announcements are still written as version 1.
+ */
+public final class CorporateActionCodec {
+
+    public static final byte VERSION = 1;
+    public static final byte VERSION_DATED = 2;
+    public static final byte CAPITAL_RAISE = 1;
+
+    /** Fixed-point scale of the per-share ratio, the one announcements are deduplicated at. */
+    public static final long RATIO_SCALE = CapitalRaiseService.RATIO_SCALE;
+
+    private static final int HEADER_BYTES = 3;
+
+    private CorporateActionCodec() {
+    }
+
+    public static int encodedLength(String symbol) {
+        return encodedLength(symbol, null);
+    }
+
+    public static int encodedLength(String symbol, LocalDate announcedOn) {
+        return HEADER_BYTES + symbol.length() + Long.BYTES + (announcedOn == null ? 0 : Integer.BYTES);
+    }
+
+    /** Writes an undated capital raise at the buffer's position; the ratio is rounded to six decimals. */
+    public static ByteBuffer encodeCapitalRaise(String symbol, double perShare, ByteBuffer out) {
+        return encodeCapitalRaise(symbol, perShare, null, out);
+    }
+
+    /** As {@link #encodeCapitalRaise(String, double, ByteBuffer)}, dated when {@code announcedOn} is not null. */
+    public static ByteBuffer encodeCapitalRaise(String symbol, double perShare, LocalDate announcedOn, ByteBuffer out) {
+        if (symbol == null || symbol.isEmpty() || symbol.length() > 255) {
+            throw new IllegalArgumentException("Symbol must be 1-255 characters");
+        }
+        if (!Double.isFinite(perShare) || Math.abs(perShare) >= Long.MAX_VALUE / (double) RATIO_SCALE) {
+            throw new IllegalArgumentException("Per-share must be a finite ratio");
+        }
+        out.put(announcedOn == null ? VERSION : VERSION_DATED).put(CAPITAL_RAISE).put((byte) symbol.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if (c > 0x7F) throw new IllegalArgumentException("Symbol must be ASCII: " + symbol);
+            out.put((byte) c);
+        }
+        out.putLong(Math.round(perShare * RATIO_SCALE));
+        return announcedOn == null ? out : out.putInt(Math.toIntExact(announcedOn.toEpochDay()));
+    }
+
+    public static byte[] encodeCapitalRaise(String symbol, double perShare) {
+        return encodeCapitalRaise(symbol, perShare, (LocalDate) null);
+    }
+
+    public static byte[] encodeCapitalRaise(String symbol, double perShare, LocalDate announcedOn) {
+        byte[] bytes = new byte[encodedLength(symbol, announcedOn)];
+        encodeCapitalRaise(symbol, perShare, announcedOn, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /** Reads one capital raise from the buffer's position into {@code into}. */
+    public static CapitalRaiseParser.CapitalRaiseMsg decodeCapitalRaise(ByteBuffer in, CapitalRaiseParser.CapitalRaiseMsg into) {
+        if (in.remaining() < HEADER_BYTES) throw new IllegalArgumentException("Truncated corporate-action message");
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_DATED) throw new IllegalArgumentException("Unsupported corporate-action message version: " + version);
+        byte type = in.get();
+        if (type != CAPITAL_RAISE) throw new IllegalArgumentException("Not a capital raise: action type " + type);
+        int symbolLength = in.get() & 0xFF;
+        int fields = Long.BYTES + (version == VERSION_DATED ? Integer.BYTES : 0);
+        if (symbolLength == 0 || in.remaining() < symbolLength + fields) {
+            throw new IllegalArgumentException("Truncated corporate-action message");
+        }
+        int symbolFrom = in.position();
+        in.position(symbolFrom + symbolLength);
+        long micros = in.getLong();
+        int announcedOn = version == VERSION_DATED ? in.getInt() : CapitalRaiseParser.CapitalRaiseMsg.UNDATED;
+        into.set(into.bytes(in, symbolFrom, symbolFrom + symbolLength), 0, symbolLength, (double) micros / RATIO_SCALE,
+                announcedOn);
+        return into;
+    }
+
+    /**
+     * Reads a capital raise from either wire format: a {@link TextMessage} in the
+     * {@link CapitalRaiseParser} grammar or a {@link BytesMessage} in this format.
+     */
+    public static CapitalRaiseParser.CapitalRaiseMsg read(Message message, CapitalRaiseParser.CapitalRaiseMsg into)
+            throws JMSException {
+        if (message instanceof TextMessage text) {
+            return CapitalRaiseParser.parse(text.getText(), into);
+        }
+        if (message instanceof BytesMessage bytes) {
+            long length = bytes.getBodyLength();
+            if (length > HEADER_BYTES + 255 + Long.BYTES + Integer.BYTES) throw new IllegalArgumentException("Corporate-action message too long");
+            byte[] body = new byte[(int) length];
+            bytes.readBytes(body);
+            return decodeCapitalRaise(ByteBuffer.wrap(body), into);
+        }
+        throw new IllegalArgumentException("Unsupported message type: " + (message == null ? null : message.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers incoming price ticks and applies them to {@link SecurityPriceRepository} once
+ * per flush window ({@code app.price-feed.flush-interval-ms}). A burst of ticks for one
+ * ISIN within a window collapses to the last one received, so the repository sees at
+ * most one write per ISIN per flush however fast the feed is. Like its listener, it only
+ * exists with {@code app.messaging.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PriceTickCoalescer {
+
+    /** Counters since startup; {@code coalescingRatio} is ticks received per price applied. */
+    public record Stats(long received, long applied, long flushes, double ticksPerSecond) {
+        public double coalescingRatio() {
+            return applied == 0 ? 0 : (double) received / applied;
+        }
+    }
+
+    private final SecurityPriceRepository securityPriceRepository;
+
+    private final Map<String, PriceTickParser.PriceTick> pending = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final long startedNanos = System.nanoTime();
+
+    public void offer(PriceTickParser.PriceTick tick) {
+        pending.put(tick.isin(), tick);
+        received.increment();
+    }
+
+    /**
+     * Applies the latest pending tick of every ISIN. A tick that arrives while its ISIN
+     * is being flushed stays pending for the next window rather than being lost.
+     */
+    @Scheduled(fixedDelayString = "${app.price-feed.flush-interval-ms:100}")
+    public int flush() {
+        int count = 0;
+        for (Map.Entry<String, PriceTickParser.PriceTick> entry : pending.entrySet()) {
+            PriceTickParser.PriceTick tick = entry.getValue();
+            if (!pending.remove(entry.getKey(), tick)) continue;
+            securityPriceRepository.addPrice(tick.isin(), tick.date(), tick.price());
+            count++;
+        }
+        if (count > 0) {
+            applied.add(count);
+            flushes.increment();
+            if (log.isDebugEnabled()) {
+                Stats stats = stats();
+                log.debug("Applied {} price ticks ({} received, {} ticks/s, coalescing {}:1)", count,
+                        stats.received(), String.format("%,.0f", stats.ticksPerSecond()),
+                        String.format("%.1f", stats.coalescingRatio()));
+            }
+        }
+        return count;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public Stats stats() {
+        long total = received.sum();
+        long elapsed = System.nanoTime() - startedNanos;
+        return new Stats(total, applied.sum(), flushes.sum(), elapsed == 0 ? 0 : total * 1e9 / elapsed);
+    }
+}
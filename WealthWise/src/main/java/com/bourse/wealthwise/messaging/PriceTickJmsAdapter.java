@@ -0,0 +1,31 @@
+package com.bourse.wealthwise.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens for price ticks and hands them to the coalescer; prices reach the repository
+ * on its next flush.
+ */
+@Component
+@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceTickJmsAdapter {
+
+    public static final String QUEUE = "price.ticks";
+
+    private final PriceTickCoalescer coalescer;
+
+    @JmsListener(destination = QUEUE)
+    public void onMessage(String payload) {
+        try {
+            coalescer.offer(PriceTickParser.parse(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid price tick: {} ({})", payload, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bourse.wealthwise.messaging;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+public class PriceTickParser {
+
+    public record PriceTick(String isin, LocalDate date, double price) {
+    }
+
+    /**
+     * Parses messages in the format: "PRICE_TICK <ISIN> <PRICE> [yyyy-MM-dd]"
+     * e.g., "PRICE_TICK IRO1FOLD0001 5120.5 2025-01-15"; without a date the tick is for today.
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static PriceTick parse(String msg) {
+        if (msg == null) throw new IllegalArgumentException("Message is null");
+        String[] parts = msg.trim().split("\\s+");
+        if (parts.length != 3 && parts.length != 4) throw new IllegalArgumentException("Expected 3 or 4 parts");
+        if (!"PRICE_TICK".equals(parts[0])) throw new IllegalArgumentException("Unknown verb: " + parts[0]);
+        double price;
+        try {
+            price = Double.parseDouble(parts[2]);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Price must be a number");
+        }
+        if (!(price > 0) || Double.isInfinite(price)) throw new IllegalArgumentException("Price must be positive");
+        LocalDate date;
+        try {
+            date = parts.length == 4 ? LocalDate.parse(parts[3]) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be yyyy-MM-dd");
+        }
+        return new PriceTick(parts[1], date, price);
+    }
+}
@@ -0,0 +1,150 @@
+package com.bourse.wealthwise.messaging;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes the trade feed in batches and hands each to the {@link TradeFeedPipeline}.
+ * <p>
+ * Each of {@code app.trade-feed.consumers} workers owns a transacted session on
+ * {@link #QUEUE}. A worker waits for a message, drains up to {@code app.trade-feed.batch-size}
+ * messages or until {@code app.trade-feed.wait-ms} has passed, and commits them only
+ * after the pipeline has saved their actions. If the save fails the session is rolled back
+ * and the broker redelivers the batch, so an acknowledged order is always a saved one.
+ * <p>
+ * Per-portfolio order relies on the broker's message groups: {@link TradeFeedJmsProducer}
+ * sets {@code JMSXGroupID} to the portfolio id, so one portfolio's messages always reach
+ * the same worker, and a worker applies its batches one at a time.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+public class TradeFeedJmsAdapter implements SmartLifecycle {
+
+    public static final String QUEUE = "trade.feed";
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final long RECONNECT_MILLIS = 1_000;
+
+    private final TradeFeedPipeline pipeline;
+    private final ConnectionFactory connectionFactory;
+    private final int consumers;
+    private final int batchSize;
+    private final long waitMillis;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public TradeFeedJmsAdapter(TradeFeedPipeline pipeline,
+                               ConnectionFactory connectionFactory,
+                               @Value("${app.trade-feed.consumers:4}") int consumers,
+                               @Value("${app.trade-feed.batch-size:512}") int batchSize,
+                               @Value("${app.trade-feed.wait-ms:20}") long waitMillis) {
+        if (consumers < 1 || batchSize < 1 || waitMillis < 0) {
+            throw new IllegalArgumentException("Trade-feed consumers and batch size must be positive");
+        }
+        this.pipeline = pipeline;
+        // Workers hold their connection for their whole life, so bypass the shared cached one.
+        this.connectionFactory = connectionFactory instanceof CachingConnectionFactory caching
+                && caching.getTargetConnectionFactory() != null ? caching.getTargetConnectionFactory() : connectionFactory;
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            workers.add(Thread.ofPlatform().name("trade-feed-" + i).daemon().start(this::work));
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        log.info("Trade feed stopped: {}", pipeline.stats());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void work() {
+        while (running) {
+            try (Connection connection = connectionFactory.createConnection();
+                 Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                 MessageConsumer consumer = session.createConsumer(session.createQueue(QUEUE))) {
+                connection.start();
+                List<String> batch = new ArrayList<>(batchSize);
+                while (running) {
+                    Message first = consumer.receive(IDLE_POLL_MILLIS);
+                    if (first == null) continue;
+                    batch.add(payload(first));
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+                    while (batch.size() < batchSize) {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        Message next = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+                        if (next == null) break;
+                        batch.add(payload(next));
+                    }
+                    process(session, batch);
+                    batch.clear();
+                }
+            } catch (JMSException e) {
+                if (!running) return;
+                log.warn("Trade-feed consumer lost its session, reconnecting", e);
+                sleepQuietly(RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    private void process(Session session, List<String> batch) throws JMSException {
+        try {
+            pipeline.process(batch);
+            session.commit();
+        } catch (RuntimeException e) {
+            log.error("Trade-feed batch of {} messages failed, rolling back for redelivery", batch.size(), e);
+            session.rollback();
+        }
+    }
+
+    /** The text of a trade-feed message; anything else becomes a null payload the parser rejects. */
+    private static String payload(Message message) throws JMSException {
+        return message instanceof TextMessage text ? text.getText() : null;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
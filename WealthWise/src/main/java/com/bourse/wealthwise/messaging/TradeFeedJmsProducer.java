@@ -0,0 +1,21 @@
+package com.bourse.wealthwise.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TradeFeedJmsProducer {
+    private final JmsTemplate jmsTemplate;
+
+    /** Sends {@code payload} in the message group of {@code portfolioId} to keep its orders in sequence. */
+    public void publish(String portfolioId, String payload) {
+        jmsTemplate.convertAndSend(TradeFeedJmsAdapter.QUEUE, payload, message -> {
+            message.setStringProperty("JMSXGroupID", portfolioId);
+            return message;
+        });
+    }
+}
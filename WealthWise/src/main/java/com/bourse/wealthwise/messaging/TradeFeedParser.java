@@ -0,0 +1,61 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.TradeFeedService.Kind;
+import com.bourse.wealthwise.domain.services.TradeFeedService.TradeOrder;
+import com.bourse.wealthwise.util.AsciiDecimal;
+
+import java.time.LocalDateTime;
+
+public class TradeFeedParser {
+
+    private static final int MAX_PARTS = 5;
+
+    /**
+     * Parses one trade-feed line, space separated:
+     * "BUY <PORTFOLIO> <SYMBOL> <VOLUME> <PRICE>", "SELL <PORTFOLIO> <SYMBOL> <VOLUME> <PRICE>",
+     * "DEPOSIT <PORTFOLIO> <AMOUNT>" or "WITHDRAW <PORTFOLIO> <AMOUNT>"; the order is dated {@code at}.
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static TradeOrder parse(String msg, LocalDateTime at) {
+        if (msg == null) throw new IllegalArgumentException("Message is null");
+        int[] bounds = new int[MAX_PARTS * 2];
+        int parts = 0;
+        int i = 0;
+        int end = msg.length();
+        while (true) {
+            while (i < end && msg.charAt(i) <= ' ') i++;
+            if (i == end) break;
+            if (parts == MAX_PARTS) throw new IllegalArgumentException("Too many parts");
+            bounds[parts * 2] = i;
+            while (i < end && msg.charAt(i) > ' ') i++;
+            bounds[parts * 2 + 1] = i;
+            parts++;
+        }
+        if (parts == 0) throw new IllegalArgumentException("Expected a verb");
+        Kind kind = switch (msg.substring(bounds[0], bounds[1])) {
+            case "BUY" -> Kind.BUY;
+            case "SELL" -> Kind.SELL;
+            case "DEPOSIT" -> Kind.DEPOSIT;
+            case "WITHDRAW" -> Kind.WITHDRAW;
+            default -> throw new IllegalArgumentException("Unknown verb: " + msg.substring(bounds[0], bounds[1]));
+        };
+        String portfolioId = parts > 1 ? msg.substring(bounds[2], bounds[3]) : null;
+        if (kind == Kind.BUY || kind == Kind.SELL) {
+            if (parts != 5) throw new IllegalArgumentException("Expected 5 parts");
+            long volume = number(msg, bounds[6], bounds[7], "Volume");
+            long price = number(msg, bounds[8], bounds[9], "Price");
+            if (price > Integer.MAX_VALUE) throw new IllegalArgumentException("Price out of range");
+            return new TradeOrder(kind, portfolioId, msg.substring(bounds[4], bounds[5]), volume, (int) price, 0, at);
+        }
+        if (parts != 3) throw new IllegalArgumentException("Expected 3 parts");
+        return new TradeOrder(kind, portfolioId, null, 0, 0, number(msg, bounds[4], bounds[5], "Amount"), at);
+    }
+
+    private static long number(String msg, int from, int to, String what) {
+        try {
+            return AsciiDecimal.parseLong(msg, from, to);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(what + " must be a whole number");
+        }
+    }
+}
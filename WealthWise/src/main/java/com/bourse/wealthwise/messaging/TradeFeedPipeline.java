@@ -0,0 +1,71 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.TradeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses a batch of trade-feed messages and validates and commits the orders through
+ * {@link TradeFeedService#apply} as one {@code saveAll}. {@link TradeFeedJmsAdapter}
+ * calls it once per received batch and commits the messages only when it returns, so a
+ * batch whose save fails is redelivered rather than lost. Malformed messages are
+ * counted and dropped with their batch.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.messaging.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TradeFeedPipeline {
+
+    /** Counters since startup; failed batches are counted each time they are attempted. */
+    public record Stats(long malformed, long accepted, long rejected, long batches, long failedBatches) {
+    }
+
+    private final TradeFeedService tradeFeedService;
+
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    /**
+     * Applies {@code payloads} in order. Returns once their actions are saved; throws,
+     * with nothing saved, when the save fails.
+     */
+    public void process(List<String> payloads) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TradeFeedService.TradeOrder> orders = new ArrayList<>(payloads.size());
+        int invalid = 0;
+        for (String payload : payloads) {
+            try {
+                orders.add(TradeFeedParser.parse(payload, now));
+            } catch (IllegalArgumentException e) {
+                invalid++;
+                log.warn("Invalid trade-feed message: {} ({})", payload, e.getMessage());
+            }
+        }
+        TradeFeedService.Result result;
+        try {
+            result = tradeFeedService.apply(orders);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            throw e;
+        }
+        malformed.add(invalid);
+        accepted.add(result.accepted());
+        rejected.add(result.rejected());
+        batches.increment();
+    }
+
+    public Stats stats() {
+        return new Stats(malformed.sum(), accepted.sum(), rejected.sum(), batches.sum(), failedBatches.sum());
+    }
+}
@@ -1,54 +1,276 @@
 package com.bourse.wealthwise.repository;
 
 import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 @Component
+@RequiredArgsConstructor
 public class ActionRepository {
 
+    /**
+     * Orders a portfolio's actions by datetime, then by id so that actions sharing
+     * a timestamp keep distinct entries. A null id sorts last, which lets
+     * {@code (until, null)} act as an inclusive upper bound for range lookups.
+     */
+    private static final Comparator<ActionKey> ACTION_ORDER = Comparator
+            .comparing(ActionKey::datetime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(ActionKey::id, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
     private final Map<String, BaseAction> actions = new ConcurrentHashMap<>();
 
+    /** Secondary index: portfolio uuid -> that portfolio's actions in time order. */
+    private final Map<String, NavigableMap<ActionKey, BaseAction>> actionsByPortfolio = new ConcurrentHashMap<>();
+
+    /** Secondary index: actions that belong to no portfolio, by id. */
+    private final Map<String, BaseAction> unowned = new ConcurrentHashMap<>();
+
+    private final List<ActionRepositoryListener> listeners;
+    private final ActionStoreLock lock;
+
+    /** Stores {@code action}; if it is rejected or a listener fails, nothing is changed. */
     public BaseAction save(BaseAction action) {
-        String id = (action.getUuid() == null || action.getUuid().isBlank())
-                ? java.util.UUID.randomUUID().toString()
-                : action.getUuid();
-        actions.put(id, action);
-        return action;
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            listeners.forEach(l -> l.validate(action));
+            Deque<Runnable> undo = new ArrayDeque<>();
+            try {
+                BaseAction previous = store(action);
+                undo.push(() -> restore(action, previous));
+                if (previous != null) notify(l -> l.onDelete(previous), l -> l.onSave(previous), undo);
+                notify(l -> l.onSave(action), l -> l.onDelete(action), undo);
+            } catch (RuntimeException e) {
+                rollBack(undo, e);
+                throw e;
+            }
+            return action;
+        } finally {
+            write.unlock();
+        }
     }
 
+    /**
+     * Stores a batch in one pass under a single write lock: ids are assigned to
+     * actions without one, indexes are updated, and each listener receives the
+     * batch at once. Readers see either none or all of it, and so does the store
+     * itself when an action is rejected or a listener fails.
+     */
+    public List<BaseAction> saveAll(Collection<? extends BaseAction> batch) {
+        List<BaseAction> pending = new ArrayList<>(batch.size());
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            for (BaseAction action : batch) listeners.forEach(l -> l.validate(action));
+            Deque<Runnable> undo = new ArrayDeque<>();
+            try {
+                for (BaseAction action : batch) {
+                    BaseAction previous = store(action);
+                    undo.push(() -> restore(action, previous));
+                    if (previous != null) {
+                        // Keep listeners in input order when the batch replaces a stored action.
+                        publish(pending, undo);
+                        pending.clear();
+                        notify(l -> l.onDelete(previous), l -> l.onSave(previous), undo);
+                    }
+                    pending.add(action);
+                }
+                publish(pending, undo);
+            } catch (RuntimeException e) {
+                rollBack(undo, e);
+                throw e;
+            }
+        } finally {
+            write.unlock();
+        }
+        return List.copyOf(batch);
+    }
 
     public Optional<BaseAction> findById(String uuid) {
         return Optional.ofNullable(actions.get(uuid));
     }
 
     public List<BaseAction> findAllActionsOf(String portfolioId) {
-        return actions.values().stream()
-                .filter(a -> a.getPortfolio() != null && a.getPortfolio().getUuid().equals(portfolioId))
-                .sorted(Comparator.comparing(BaseAction::getDatetime))
-                .toList();
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            NavigableMap<ActionKey, BaseAction> history = actionsByPortfolio.get(portfolioId);
+            return history == null ? List.of() : List.copyOf(history.values());
+        } finally {
+            read.unlock();
+        }
     }
 
     public void deleteById(String uuid) {
-        if (uuid != null) actions.remove(uuid);
+        if (uuid == null) return;
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            BaseAction previous = actions.remove(uuid);
+            if (previous == null) return;
+            unindex(uuid, previous);
+            Deque<Runnable> undo = new ArrayDeque<>();
+            undo.push(() -> restore(null, previous));
+            try {
+                notify(l -> l.onDelete(previous), l -> l.onSave(previous), undo);
+            } catch (RuntimeException e) {
+                rollBack(undo, e);
+                throw e;
+            }
+        } finally {
+            write.unlock();
+        }
     }
 
     public List<BaseAction> findAllActionsOfUntilDate(String portfolioId, LocalDateTime untilDateTime) {
-        return actions.values().stream()
-                .filter(a -> a.getPortfolio() != null && a.getPortfolio().getUuid().equals(portfolioId))
-                .filter(a -> a.getDatetime() != null && !a.getDatetime().isAfter(untilDateTime))
-                .sorted(Comparator.comparing(BaseAction::getDatetime))
-                .toList();
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            NavigableMap<ActionKey, BaseAction> history = actionsByPortfolio.get(portfolioId);
+            if (history == null) return List.of();
+            return history.headMap(new ActionKey(untilDateTime, null), true).values().stream()
+                    .filter(a -> a.getDatetime() != null)
+                    .toList();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Every stored action, grouped by portfolio in time order and followed by actions
+     * that belong to no portfolio. Replaying the list in this order only ever appends
+     * to the ledgers' time series.
+     * <p>
+     * Each portfolio is copied under a read lock of its own, so writers wait for one
+     * portfolio at a time rather than the whole book. The list is therefore not a single
+     * point in time: a write made while it is built may be missing, and an action moved
+     * between portfolios meanwhile may appear twice.
+     */
+    public List<BaseAction> findAll() {
+        List<BaseAction> all = new ArrayList<>(actions.size());
+        for (String portfolioId : actionsByPortfolio.keySet()) all.addAll(findAllActionsOf(portfolioId));
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            all.addAll(unowned.values());
+        } finally {
+            read.unlock();
+        }
+        return all;
+    }
+
+    public Set<String> portfolioIds() {
+        return Set.copyOf(actionsByPortfolio.keySet());
     }
 
     public void clear() {
-        this.actions.clear();
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            this.actions.clear();
+            this.actionsByPortfolio.clear();
+            this.unowned.clear();
+            listeners.forEach(ActionRepositoryListener::onClear);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /** Puts the action in the primary map and the portfolio index; returns what it replaced. */
+    private BaseAction store(BaseAction action) {
+        if (action.getUuid() == null || action.getUuid().isBlank()) {
+            action.setUuid(newId());
+        }
+        String id = action.getUuid();
+        BaseAction previous = actions.put(id, action);
+        if (previous != null) unindex(id, previous);
+        index(id, action);
+        return previous;
+    }
+
+    /** Puts back {@code previous} in place of {@code action}; either may be null. */
+    private void restore(BaseAction action, BaseAction previous) {
+        String id = action != null ? action.getUuid() : previous.getUuid();
+        if (action != null) unindex(id, action);
+        if (previous == null) {
+            actions.remove(id);
+        } else {
+            actions.put(id, previous);
+            index(id, previous);
+        }
+    }
+
+    private void publish(List<BaseAction> stored, Deque<Runnable> undo) {
+        if (stored.isEmpty()) return;
+        List<BaseAction> view = List.copyOf(stored);
+        notify(l -> l.onSaveAll(view), l -> view.reversed().forEach(l::onDelete), undo);
+    }
+
+    /** Runs {@code change} on each listener, recording {@code inverse} for the ones it completed on. */
+    private void notify(Consumer<ActionRepositoryListener> change, Consumer<ActionRepositoryListener> inverse,
+                        Deque<Runnable> undo) {
+        for (ActionRepositoryListener listener : listeners) {
+            change.accept(listener);
+            undo.push(() -> inverse.accept(listener));
+        }
+    }
+
+    /** Undoes a failed write, newest step first; failures while undoing are attached to {@code cause}. */
+    private static void rollBack(Deque<Runnable> undo, RuntimeException cause) {
+        while (!undo.isEmpty()) {
+            try {
+                undo.pop().run();
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    /** Random (version 4) UUID without the SecureRandom cost of {@link UUID#randomUUID()}. */
+    private static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long low = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+        return new UUID(high, low).toString();
+    }
+
+    private void index(String id, BaseAction action) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) {
+            unowned.put(id, action);
+            return;
+        }
+        actionsByPortfolio
+                .computeIfAbsent(action.getPortfolio().getUuid(), k -> new ConcurrentSkipListMap<>(ACTION_ORDER))
+                .put(new ActionKey(action.getDatetime(), id), action);
+    }
+
+    private void unindex(String id, BaseAction action) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) {
+            unowned.remove(id);
+            return;
+        }
+        NavigableMap<ActionKey, BaseAction> history = actionsByPortfolio.get(action.getPortfolio().getUuid());
+        if (history != null) history.remove(new ActionKey(action.getDatetime(), id));
+    }
+
+    private record ActionKey(LocalDateTime datetime, String id) {
     }
 }
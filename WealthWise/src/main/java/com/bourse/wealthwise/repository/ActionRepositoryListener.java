@@ -0,0 +1,35 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+
+import java.util.List;
+
+/**
+ * Keeps a derived view (ledger, index, ...) in step with {@link ActionRepository}.
+ * Callbacks run on the writing thread under the {@link ActionStoreLock} write
+ * lock, so implementations never observe two mutations at once; their readers
+ * should hold the read lock.
+ * <p>
+ * A write is all or nothing. Every action is passed to {@link #validate} before any is
+ * stored, so an action a listener cannot take is rejected with nothing changed. If a
+ * callback throws anyway, the repository undoes the write and sends the inverse
+ * callbacks to the listeners that had already taken it; the listener that threw gets
+ * none and must leave its own state as it was.
+ */
+public interface ActionRepositoryListener {
+
+    /** Throws if {@link #onSave} could not take {@code action}; must not change any state. */
+    default void validate(BaseAction action) {
+    }
+
+    void onSave(BaseAction action);
+
+    /** Newly stored actions of one bulk write, in input order. */
+    default void onSaveAll(List<BaseAction> actions) {
+        actions.forEach(this::onSave);
+    }
+
+    void onDelete(BaseAction action);
+
+    void onClear();
+}
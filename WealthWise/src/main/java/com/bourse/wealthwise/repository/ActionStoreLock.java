@@ -0,0 +1,26 @@
+package com.bourse.wealthwise.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Shared read/write lock of the action store and everything derived from it.
+ * {@link ActionRepository} writes (including every listener callback) hold the
+ * write lock; readers of the repository and of its ledgers hold the read lock,
+ * so a multi-action write such as {@code saveAll} is seen entirely or not at all.
+ */
+@Component
+public class ActionStoreLock {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Lock readLock() {
+        return lock.readLock();
+    }
+
+    public Lock writeLock() {
+        return lock.writeLock();
+    }
+}
@@ -0,0 +1,169 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idempotency keys of the corporate-action announcements already applied, so a
+ * redelivered or cross-posted announcement is dropped before its fan-out.
+ * <p>
+ * A key is known either because a caller claimed it with {@link #tryClaim} or because
+ * an action carrying it as {@code tracing_number} is in {@link ActionRepository}. The
+ * latter is what survives a restart: journal replay saves the grants again and rebuilds
+ * the cache through this listener. An announcement that granted nothing saves no action,
+ * so its key does not survive a restart. Keys older than
+ * {@code app.capital-raise.dedup.ttl-days} (by the time they were applied) are forgotten:
+ * each claim first drops the expired keys at the head of the insertion order. Past
+ * {@code app.capital-raise.dedup.max-entries} the oldest-inserted key is evicted.
+ */
+@Component
+public class AnnouncementDedupCache implements ActionRepositoryListener {
+
+    /**
+     * Claimed-but-not-yet-saved keys have no grants; a key goes away when its last grant is
+     * deleted. Grants dated before {@code since} belong to a claim that expired and was
+     * dropped, so they are not counted against this one.
+     */
+    private static final class Entry {
+        int grants;
+        LocalDateTime appliedAt;
+        LocalDateTime since;
+        /** When a re-claim of an expired key was made, the time it had been applied before. */
+        LocalDateTime reclaimedFrom;
+
+        Entry(LocalDateTime appliedAt) {
+            this.appliedAt = appliedAt;
+            this.since = appliedAt;
+        }
+    }
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> keys;
+    private long duplicates;
+    private long evictions;
+
+    public AnnouncementDedupCache(@Value("${app.capital-raise.dedup.ttl-days:7}") long ttlDays,
+                                  @Value("${app.capital-raise.dedup.max-entries:100000}") int maxEntries) {
+        this.ttl = Duration.ofDays(ttlDays);
+        this.maxEntries = maxEntries;
+        this.keys = new LinkedHashMap<>(1024, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= AnnouncementDedupCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Reserves {@code key} for an announcement being applied at {@code now}.
+     *
+     * @return false when the key was already applied (or is being applied) within the TTL
+     */
+    public synchronized boolean tryClaim(String key, LocalDateTime now) {
+        sweep(now);
+        Entry entry = keys.get(key);
+        if (entry != null && !expired(entry, now)) {
+            duplicates++;
+            return false;
+        }
+        Entry claim = new Entry(now);
+        if (entry != null) {
+            // The expired claim's grants are still stored; keep counting them.
+            claim.grants = entry.grants;
+            claim.since = entry.since;
+            claim.reclaimedFrom = entry.appliedAt;
+            keys.remove(key);
+            evictions++;
+        }
+        keys.put(key, claim);
+        return true;
+    }
+
+    /** Gives up a claim whose announcement was not applied, unless grants were saved under it. */
+    public synchronized void release(String key) {
+        Entry entry = keys.get(key);
+        if (entry == null) return;
+        if (entry.grants == 0) {
+            keys.remove(key);
+        } else if (entry.reclaimedFrom != null) {
+            entry.appliedAt = entry.reclaimedFrom;
+            entry.reclaimedFrom = null;
+        }
+    }
+
+    public synchronized boolean contains(String key, LocalDateTime now) {
+        Entry entry = keys.get(key);
+        return entry != null && !expired(entry, now);
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /** Announcements dropped as repeats since startup. */
+    public synchronized long duplicates() {
+        return duplicates;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized void onSave(BaseAction action) {
+        String key = keyOf(action);
+        if (key == null) return;
+        Entry entry = keys.get(key);
+        if (entry == null) {
+            entry = new Entry(action.getDatetime() != null ? action.getDatetime() : LocalDateTime.now());
+            keys.put(key, entry);
+        } else if (action.getDatetime() != null && action.getDatetime().isBefore(entry.since)) {
+            entry.since = action.getDatetime();
+        }
+        entry.reclaimedFrom = null;
+        entry.grants++;
+    }
+
+    @Override
+    public synchronized void onDelete(BaseAction action) {
+        String key = keyOf(action);
+        if (key == null) return;
+        Entry entry = keys.get(key);
+        if (entry == null || action.getDatetime() != null && action.getDatetime().isBefore(entry.since)) return;
+        // A re-claim whose own grants are not saved yet stays claimed.
+        if (--entry.grants <= 0 && entry.reclaimedFrom == null) keys.remove(key);
+    }
+
+    @Override
+    public synchronized void onClear() {
+        keys.clear();
+    }
+
+    /** Drops expired keys from the head of the insertion order, up to the first live one. */
+    private void sweep(LocalDateTime now) {
+        Iterator<Entry> oldest = keys.values().iterator();
+        while (oldest.hasNext() && expired(oldest.next(), now)) {
+            oldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean expired(Entry entry, LocalDateTime now) {
+        return entry.appliedAt.plus(ttl).isBefore(now);
+    }
+
+    private static String keyOf(BaseAction action) {
+        return action instanceof CapitalRaise ? action.getTracing_number() : null;
+    }
+}
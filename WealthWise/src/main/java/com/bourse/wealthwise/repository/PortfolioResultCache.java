@@ -0,0 +1,205 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Recently computed securities summaries and cash balances per (portfolio, date), at most
+ * {@code app.result-cache.max-entries} of them, least recently used evicted first.
+ * <p>
+ * Invalidation is narrow. An action of a portfolio dated T drops that portfolio's
+ * summaries for dates on or after T's day and its balances taken after T; an undated
+ * action drops all of the portfolio's entries. A price of an ISIN dated D drops the
+ * summaries for dates on or after D that list the ISIN. A result computed while its own
+ * portfolio, or an ISIN it lists, was changed is returned but not stored, since it may
+ * predate the change; changes to other portfolios and ISINs do not hold it back.
+ */
+@Component
+public class PortfolioResultCache implements ActionRepositoryListener, SecurityPriceListener {
+
+    /** Hit ratio is hits / (hits + misses); invalidations are entries dropped because their inputs changed. */
+    public record Stats(int size, long hits, long misses, long evictions, long invalidations) {
+        public double hitRatio() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    private sealed interface Key permits SummaryKey, BalanceKey {
+        String portfolioId();
+    }
+
+    private record SummaryKey(String portfolioId, LocalDate date) implements Key {
+    }
+
+    private record BalanceKey(String portfolioId, LocalDateTime before) implements Key {
+    }
+
+    /** A cached summary with the ISINs it lists, so its entry can be found by price. */
+    private record Summary(List<SecuritySummary> securities, Set<String> isins) {
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Object> entries;
+    private final Map<String, Set<Key>> byPortfolio = new HashMap<>();
+    private final Map<String, Set<SummaryKey>> byIsin = new HashMap<>();
+    /** Bumped by every change; each portfolio and ISIN remembers the value of its latest one. */
+    private long sequence;
+    private long clearedAt;
+    private final Map<String, Long> portfolioChangedAt = new HashMap<>();
+    private final Map<String, Long> isinChangedAt = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public PortfolioResultCache(@Value("${app.result-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() <= PortfolioResultCache.this.maxEntries) return false;
+                unindex(eldest.getKey(), eldest.getValue());
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** The summary of {@code portfolioId} on {@code date}, computed by {@code loader} on a miss. */
+    public List<SecuritySummary> summary(String portfolioId, LocalDate date, Supplier<List<SecuritySummary>> loader) {
+        SummaryKey key = new SummaryKey(portfolioId, date);
+        long seen;
+        synchronized (this) {
+            if (entries.get(key) instanceof Summary cached) {
+                hits++;
+                return new ArrayList<>(cached.securities());
+            }
+            misses++;
+            seen = sequence;
+        }
+        List<SecuritySummary> securities = loader.get();
+        Set<String> isins = new HashSet<>();
+        securities.forEach(summary -> isins.add(summary.getSecurity().getIsin()));
+        synchronized (this) {
+            if (maxEntries > 0 && unchangedSince(seen, portfolioId, isins)) {
+                entries.put(key, new Summary(List.copyOf(securities), isins));
+                byPortfolio.computeIfAbsent(portfolioId, k -> new HashSet<>()).add(key);
+                for (String isin : isins) byIsin.computeIfAbsent(isin, k -> new HashSet<>()).add(key);
+            }
+        }
+        return securities;
+    }
+
+    /** The cash balance of {@code portfolioId} before {@code before}, computed by {@code loader} on a miss. */
+    public BigInteger balance(String portfolioId, LocalDateTime before, Supplier<BigInteger> loader) {
+        BalanceKey key = new BalanceKey(portfolioId, before);
+        long seen;
+        synchronized (this) {
+            if (entries.get(key) instanceof BigInteger cached) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            seen = sequence;
+        }
+        BigInteger balance = loader.get();
+        synchronized (this) {
+            if (maxEntries > 0 && unchangedSince(seen, portfolioId, Set.of())) {
+                entries.put(key, balance);
+                byPortfolio.computeIfAbsent(portfolioId, k -> new HashSet<>()).add(key);
+            }
+        }
+        return balance;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), hits, misses, evictions, invalidations);
+    }
+
+    @Override
+    public void onSave(BaseAction action) {
+        invalidate(action);
+    }
+
+    @Override
+    public void onDelete(BaseAction action) {
+        invalidate(action);
+    }
+
+    @Override
+    public synchronized void onClear() {
+        clearedAt = ++sequence;
+        portfolioChangedAt.clear();
+        isinChangedAt.clear();
+        invalidations += entries.size();
+        entries.clear();
+        byPortfolio.clear();
+        byIsin.clear();
+    }
+
+    @Override
+    public synchronized void onPricesChanged(String isin, LocalDate from) {
+        isinChangedAt.put(isin, ++sequence);
+        Set<SummaryKey> keys = byIsin.get(isin);
+        if (keys == null) return;
+        for (SummaryKey key : List.copyOf(keys)) {
+            if (!key.date().isBefore(from)) remove(key);
+        }
+    }
+
+    private synchronized void invalidate(BaseAction action) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) return;
+        portfolioChangedAt.put(action.getPortfolio().getUuid(), ++sequence);
+        Set<Key> keys = byPortfolio.get(action.getPortfolio().getUuid());
+        if (keys == null) return;
+        LocalDateTime at = action.getDatetime();
+        for (Key key : List.copyOf(keys)) {
+            boolean affected = at == null || switch (key) {
+                case SummaryKey summary -> !summary.date().isBefore(at.toLocalDate());
+                case BalanceKey balance -> balance.before().isAfter(at);
+            };
+            if (affected) remove(key);
+        }
+    }
+
+    /** Whether nothing a result of {@code portfolioId} listing {@code isins} depends on changed after {@code seen}. */
+    private boolean unchangedSince(long seen, String portfolioId, Set<String> isins) {
+        if (clearedAt > seen || portfolioChangedAt.getOrDefault(portfolioId, 0L) > seen) return false;
+        for (String isin : isins) {
+            if (isinChangedAt.getOrDefault(isin, 0L) > seen) return false;
+        }
+        return true;
+    }
+
+    private void remove(Key key) {
+        Object value = entries.remove(key);
+        if (value == null) return;
+        unindex(key, value);
+        invalidations++;
+    }
+
+    private void unindex(Key key, Object value) {
+        Set<Key> keys = byPortfolio.get(key.portfolioId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) byPortfolio.remove(key.portfolioId());
+        if (value instanceof Summary summary && key instanceof SummaryKey summaryKey) {
+            for (String isin : summary.isins()) {
+                Set<SummaryKey> holders = byIsin.get(isin);
+                if (holders != null && holders.remove(summaryKey) && holders.isEmpty()) byIsin.remove(isin);
+            }
+        }
+    }
+}
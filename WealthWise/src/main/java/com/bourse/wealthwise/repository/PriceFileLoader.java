@@ -0,0 +1,351 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.util.AsciiDecimal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bulk import of end-of-day prices into {@link SecurityPriceRepository}.
+ * <p>
+ * Files are read through memory-mapped windows and parsed in place: dates and prices are
+ * decoded straight from the mapped bytes and appended to the repository's per-ISIN
+ * columns, and an ISIN string is only created the first time it is seen in a load.
+ * <ul>
+ *   <li>CSV: {@code isin,yyyy-MM-dd,price} per line, optional header, LF or CRLF.</li>
+ *   <li>Binary: {@code int magic, int version}, then blocks of {@code short isinLength,
+ *   isin bytes, int count} followed by {@code count} pairs of {@code int epochDay,
+ *   double price}, as written by {@link #exportBinary}.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceFileLoader {
+
+    static final int BINARY_MAGIC = 0x57575031;
+    static final int BINARY_VERSION = 1;
+    private static final long WINDOW = 1L << 28;
+    private static final int POINT_BYTES = Integer.BYTES + Double.BYTES;
+    private static final int BINARY_CHUNK = 8192;
+
+    private final SecurityPriceRepository securityPriceRepository;
+
+    /** Outcome of one load; {@code nanos} is the wall time spent parsing and storing. */
+    public record LoadResult(long rows, int securities, long nanos) {
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1e9 / nanos;
+        }
+    }
+
+    public LoadResult loadCsv(Path file) {
+        long started = System.nanoTime();
+        SeriesTable table = new SeriesTable();
+        long rows = 0;
+        long lineNumber = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            while (windowStart < size) {
+                int length = (int) Math.min(WINDOW, size - windowStart);
+                boolean lastWindow = windowStart + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+
+                int lineStart = 0;
+                while (lineStart < length) {
+                    int lineEnd = indexOf(window, (byte) '\n', lineStart, length);
+                    if (lineEnd < 0) {
+                        if (!lastWindow) break;
+                        lineEnd = length;
+                    }
+                    lineNumber++;
+                    int end = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                    if (end > lineStart && !(lineNumber == 1 && isHeader(window, lineStart, end))) {
+                        parseRow(window, lineStart, end, table, lineNumber);
+                        rows++;
+                    }
+                    lineStart = lineEnd + 1;
+                }
+                if (lineStart == 0 && !lastWindow) {
+                    throw new IllegalArgumentException("Price row longer than " + WINDOW + " bytes in " + file);
+                }
+                windowStart += Math.min(lineStart, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read price file " + file, e);
+        } finally {
+            table.reportChanges();
+        }
+        return report("CSV", file, rows, table.size(), started);
+    }
+
+    public LoadResult loadBinary(Path file) {
+        long started = System.nanoTime();
+        long rows = 0;
+        int securities = 0;
+        int[] days = new int[BINARY_CHUNK];
+        double[] prices = new double[BINARY_CHUNK];
+        // The block being loaded, so whatever of it was stored is reported even if the file breaks off.
+        String isin = null;
+        int firstDay = Integer.MAX_VALUE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Cursor in = new Cursor(channel);
+            in.require(8);
+            if (in.buffer().getInt() != BINARY_MAGIC || in.buffer().getInt() != BINARY_VERSION) {
+                throw new IllegalArgumentException("Not a binary price file: " + file);
+            }
+            while (in.hasMore()) {
+                long offset = in.position();
+                in.require(Short.BYTES);
+                int isinLength = Short.toUnsignedInt(in.buffer().getShort());
+                if (isinLength == 0 || isinLength + Integer.BYTES > in.remaining()) {
+                    throw new IllegalArgumentException("Bad ISIN length " + isinLength + " at offset " + offset + " of " + file);
+                }
+                byte[] isinBytes = new byte[isinLength];
+                in.require(isinLength + Integer.BYTES);
+                in.buffer().get(isinBytes);
+                int count = in.buffer().getInt();
+                if (count < 0 || (long) count * POINT_BYTES > in.remaining()) {
+                    throw new IllegalArgumentException("Bad row count " + count + " at offset " + offset + " of " + file);
+                }
+                isin = new String(isinBytes, StandardCharsets.US_ASCII);
+                PriceSeries series = securityPriceRepository.seriesFor(isin);
+                securities++;
+                for (int remaining = count; remaining > 0; ) {
+                    int chunk = Math.min(remaining, days.length);
+                    in.require((long) chunk * POINT_BYTES);
+                    ByteBuffer buffer = in.buffer();
+                    for (int i = 0; i < chunk; i++) {
+                        days[i] = buffer.getInt();
+                        prices[i] = buffer.getDouble();
+                        firstDay = Math.min(firstDay, days[i]);
+                    }
+                    series.putAll(days, prices, chunk);
+                    remaining -= chunk;
+                }
+                if (count > 0) securityPriceRepository.pricesChanged(isin, firstDay);
+                firstDay = Integer.MAX_VALUE;
+                rows += count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read price file " + file, e);
+        } finally {
+            if (firstDay != Integer.MAX_VALUE) securityPriceRepository.pricesChanged(isin, firstDay);
+        }
+        return report("binary", file, rows, securities, started);
+    }
+
+    /** Writes every stored price in the binary format; returns the number of rows written. */
+    public long exportBinary(Path file) {
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocate(1 << 20);
+            out.putInt(BINARY_MAGIC).putInt(BINARY_VERSION);
+            for (String isin : securityPriceRepository.isins()) {
+                PriceHistory history = securityPriceRepository.historyOf(isin);
+                byte[] isinBytes = isin.getBytes(StandardCharsets.US_ASCII);
+                if (out.remaining() < Short.BYTES + isinBytes.length + Integer.BYTES) drain(out, channel);
+                out.putShort((short) isinBytes.length).put(isinBytes).putInt(history.size());
+                for (int i = 0; i < history.size(); i++) {
+                    if (out.remaining() < POINT_BYTES) drain(out, channel);
+                    out.putInt(history.epochDayAt(i)).putDouble(history.priceAt(i));
+                }
+                rows += history.size();
+            }
+            drain(out, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write price file " + file, e);
+        }
+        return rows;
+    }
+
+    private void parseRow(ByteBuffer line, int from, int to, SeriesTable table, long lineNumber) {
+        int firstComma = indexOf(line, (byte) ',', from, to);
+        int secondComma = firstComma < 0 ? -1 : indexOf(line, (byte) ',', firstComma + 1, to);
+        if (secondComma < 0 || firstComma == from) {
+            throw new IllegalArgumentException("Expected isin,date,price at line " + lineNumber);
+        }
+        try {
+            int day = AsciiDecimal.parseEpochDay(line, firstComma + 1, secondComma);
+            double price = AsciiDecimal.parseDouble(line, secondComma + 1, to);
+            table.put(line, from, firstComma, day, price);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed price row at line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private LoadResult report(String format, Path file, long rows, int securities, long started) {
+        LoadResult result = new LoadResult(rows, securities, System.nanoTime() - started);
+        log.info("Loaded {} {} price rows for {} securities from {} in {} ms ({} rows/s)",
+                rows, format, securities, file.getFileName(), result.nanos() / 1_000_000,
+                String.format("%,.0f", result.rowsPerSecond()));
+        return result;
+    }
+
+    private static boolean isHeader(ByteBuffer line, int from, int to) {
+        int comma = indexOf(line, (byte) ',', from, to);
+        return comma >= 0 && comma + 1 < to && !Character.isDigit(line.get(comma + 1));
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) {
+        out.flip();
+        try {
+            while (out.hasRemaining()) channel.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.clear();
+    }
+
+    /**
+     * ISIN bytes to series, open-addressed so that a row's ISIN is matched against the
+     * mapped bytes without decoding it. The previous row's entry is checked first since
+     * price files are usually grouped by security. The earliest day written per ISIN is
+     * kept for {@link #reportChanges}.
+     */
+    private final class SeriesTable {
+
+        private byte[][] keys = new byte[64][];
+        private PriceSeries[] values = new PriceSeries[64];
+        private int[] firstDays = new int[64];
+        private int size;
+        private int lastSlot = -1;
+
+        void put(ByteBuffer buffer, int from, int to, int day, double price) {
+            int slot = slotOf(buffer, from, to);
+            values[slot].put(day, price);
+            firstDays[slot] = Math.min(firstDays[slot], day);
+        }
+
+        private int slotOf(ByteBuffer buffer, int from, int to) {
+            if (lastSlot >= 0 && matches(keys[lastSlot], buffer, from, to)) return lastSlot;
+            int hash = hash(buffer, from, to);
+            int mask = keys.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == null) {
+                    byte[] key = new byte[to - from];
+                    buffer.get(from, key);
+                    keys[slot] = key;
+                    values[slot] = securityPriceRepository.seriesFor(new String(key, StandardCharsets.US_ASCII));
+                    firstDays[slot] = Integer.MAX_VALUE;
+                    if (++size * 2 > keys.length) {
+                        grow();
+                        return slotOf(buffer, from, to);
+                    }
+                    lastSlot = slot;
+                    return slot;
+                }
+                if (matches(keys[slot], buffer, from, to)) {
+                    lastSlot = slot;
+                    return slot;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reportChanges() {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null && firstDays[slot] != Integer.MAX_VALUE) {
+                    securityPriceRepository.pricesChanged(new String(keys[slot], StandardCharsets.US_ASCII), firstDays[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            PriceSeries[] oldValues = values;
+            int[] oldFirstDays = firstDays;
+            keys = new byte[oldKeys.length * 2][];
+            values = new PriceSeries[keys.length];
+            firstDays = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) continue;
+                int slot = hash(ByteBuffer.wrap(oldKeys[i]), 0, oldKeys[i].length) & mask;
+                while (keys[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                firstDays[slot] = oldFirstDays[i];
+            }
+            lastSlot = -1;
+        }
+
+        private static int hash(ByteBuffer buffer, int from, int to) {
+            int h = 1;
+            for (int i = from; i < to; i++) h = 31 * h + buffer.get(i);
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int from, int to) {
+            if (key.length != to - from) return false;
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(from + i)) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Sequential reader over a file mapped one window at a time. */
+    private static final class Cursor {
+
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        Cursor(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(WINDOW, size));
+        }
+
+        boolean hasMore() {
+            return position() < size;
+        }
+
+        /** Offset in the file of the next byte to read. */
+        long position() {
+            return windowStart + window.position();
+        }
+
+        /** Bytes left in the file from {@link #position()}. */
+        long remaining() {
+            return size - position();
+        }
+
+        /** Makes the next {@code bytes} bytes readable from {@link #buffer()}, remapping if needed. */
+        void require(long bytes) throws IOException {
+            if (window.remaining() >= bytes) return;
+            long position = position();
+            if (position + bytes > size) {
+                throw new IllegalArgumentException("Truncated binary price file at offset " + position);
+            }
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Math.max(WINDOW, bytes), size - position));
+        }
+
+        ByteBuffer buffer() {
+            return window;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bourse.wealthwise.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Point-in-time view of one security's prices, sorted by epoch day.
+ * <p>
+ * Obtained from {@link SecurityPriceRepository#historyOf}; its length never changes, so
+ * a caller can size output from {@link #size()} and then iterate without racing the
+ * writer. The only thing that can change underneath is the price of a day that is
+ * already present, which the writer replaces atomically.
+ */
+public final class PriceHistory {
+
+    static final VarHandle PRICES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    static final PriceHistory EMPTY = new PriceHistory(new int[0], new double[0], 0);
+
+    final int[] days;
+    final double[] prices;
+    private final int size;
+
+    PriceHistory(int[] days, double[] prices, int size) {
+        this.days = days;
+        this.prices = prices;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int epochDayAt(int index) {
+        return days[index];
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(days[index]);
+    }
+
+    public double priceAt(int index) {
+        return (double) PRICES.getOpaque(prices, index);
+    }
+
+    /** Index of {@code day}, or a negative value when there is no price for it. */
+    public int indexOf(int day) {
+        return Arrays.binarySearch(days, 0, size, day);
+    }
+
+    /** Index of the last price on or before {@code day}, or -1 when every price is later. */
+    public int floorIndex(int day) {
+        int at = Arrays.binarySearch(days, 0, size, day);
+        return at >= 0 ? at : -at - 2;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bourse.wealthwise.repository;
+
+import java.util.Arrays;
+
+/**
+ * Prices of one security as two parallel primitive columns, sorted by epoch day.
+ * <p>
+ * Writers are serialized per security; readers take the current {@link PriceHistory}
+ * through one volatile read and never lock. A price for a day after the last one is
+ * written past the published length and then published, amortized O(1). A new price
+ * for an existing day is swapped in place atomically. Only a backdated day copies the
+ * columns, so readers holding an older history are never disturbed.
+ */
+final class PriceSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile PriceHistory history = PriceHistory.EMPTY;
+
+    PriceHistory history() {
+        return history;
+    }
+
+    synchronized void put(int day, double price) {
+        PriceHistory current = history;
+        int size = current.size();
+        if (size == 0 || day > current.days[size - 1]) {
+            PriceHistory grown = withCapacity(current, size + 1);
+            grown.days[size] = day;
+            grown.prices[size] = price;
+            history = new PriceHistory(grown.days, grown.prices, size + 1);
+            return;
+        }
+        int at = current.indexOf(day);
+        if (at >= 0) {
+            PriceHistory.PRICES.setRelease(current.prices, at, price);
+            return;
+        }
+        int insertAt = -at - 1;
+        int[] days = new int[Math.max(INITIAL_CAPACITY, size + 1 + (size >> 1))];
+        double[] prices = new double[days.length];
+        System.arraycopy(current.days, 0, days, 0, insertAt);
+        System.arraycopy(current.prices, 0, prices, 0, insertAt);
+        days[insertAt] = day;
+        prices[insertAt] = price;
+        System.arraycopy(current.days, insertAt, days, insertAt + 1, size - insertAt);
+        System.arraycopy(current.prices, insertAt, prices, insertAt + 1, size - insertAt);
+        history = new PriceHistory(days, prices, size + 1);
+    }
+
+    /**
+     * Stores {@code count} points from the given columns with one publication when they
+     * all follow the last stored day in ascending order, point by point otherwise.
+     */
+    synchronized void putAll(int[] days, double[] prices, int count) {
+        PriceHistory current = history;
+        int size = current.size();
+        boolean appendable = size == 0 || count == 0 || days[0] > current.days[size - 1];
+        for (int i = 1; appendable && i < count; i++) appendable = days[i] > days[i - 1];
+        if (!appendable) {
+            for (int i = 0; i < count; i++) put(days[i], prices[i]);
+            return;
+        }
+        PriceHistory grown = withCapacity(current, size + count);
+        System.arraycopy(days, 0, grown.days, size, count);
+        System.arraycopy(prices, 0, grown.prices, size, count);
+        history = new PriceHistory(grown.days, grown.prices, size + count);
+    }
+
+    /** The current columns if they can hold {@code capacity} points, otherwise grown copies. */
+    private static PriceHistory withCapacity(PriceHistory current, int capacity) {
+        if (capacity <= current.days.length) return current;
+        int grown = Math.max(Math.max(INITIAL_CAPACITY, capacity), current.days.length + (current.days.length >> 1));
+        return new PriceHistory(Arrays.copyOf(current.days, grown), Arrays.copyOf(current.prices, grown), current.size());
+    }
+}
@@ -0,0 +1,15 @@
+package com.bourse.wealthwise.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps something derived from prices in step with {@link SecurityPriceRepository}.
+ * Callbacks run on the writing thread once the new prices are visible to readers.
+ */
+public interface SecurityPriceListener {
+
+    /** Prices of {@code isin} dated {@code from} or later were added or replaced. */
+    void onPricesChanged(String isin, LocalDate from);
+
+    void onClear();
+}
@@ -1,36 +1,121 @@
 package com.bourse.wealthwise.repository;
 
 import com.bourse.wealthwise.domain.entity.security.SecurityPrice;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Daily prices per ISIN. Safe for concurrent use and tuned for many readers: lookups
+ * never lock, and writes to one ISIN only serialize with other writes to that ISIN
+ * (see {@link PriceSeries}). Every write is reported to the {@link SecurityPriceListener}s.
+ */
 @Component
 public class SecurityPriceRepository {
 
-    private final Map<String, Map<LocalDate, Double>> priceMap = new HashMap<>();
+    /** Receives one price point; days are {@link LocalDate#toEpochDay()} values. */
+    @FunctionalInterface
+    public interface PricePointConsumer {
+        void accept(int epochDay, double price);
+    }
+
+    private final Map<String, PriceSeries> priceMap = new ConcurrentHashMap<>();
+
+    private final List<SecurityPriceListener> listeners;
+
+    public SecurityPriceRepository() {
+        this(List.of());
+    }
+
+    @Autowired
+    public SecurityPriceRepository(List<SecurityPriceListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
 
     public void addPrice(String isin, LocalDate date, double price) {
-        priceMap
-                .computeIfAbsent(isin, k -> new HashMap<>())
-                .put(date, price);
+        int day = Math.toIntExact(date.toEpochDay());
+        seriesFor(isin).put(day, price);
+        pricesChanged(isin, day);
+    }
+
+    /**
+     * Storage of {@code isin}, created on first use; bulk loaders write to it directly and
+     * then report what they wrote through {@link #pricesChanged}.
+     */
+    PriceSeries seriesFor(String isin) {
+        return priceMap.computeIfAbsent(isin, k -> new PriceSeries());
+    }
+
+    void pricesChanged(String isin, int fromDay) {
+        if (listeners.isEmpty()) return;
+        LocalDate from = LocalDate.ofEpochDay(fromDay);
+        for (SecurityPriceListener listener : listeners) listener.onPricesChanged(isin, from);
     }
 
     public Optional<Double> getPrice(String isin, LocalDate date) {
-        return Optional.ofNullable(
-                priceMap.getOrDefault(isin, Collections.emptyMap()).get(date)
-        );
+        PriceHistory history = historyOf(isin);
+        int at = history.indexOf(Math.toIntExact(date.toEpochDay()));
+        return at < 0 ? Optional.empty() : Optional.of(history.priceAt(at));
     }
 
+    /**
+     * Most recent price of {@code isin} on or before {@code date}. This is the valuation
+     * price everywhere: weekends, holidays and halted days keep the previous close.
+     */
+    public Optional<Double> getPriceAsOf(String isin, LocalDate date) {
+        PriceHistory history = historyOf(isin);
+        int at = history.floorIndex(Math.toIntExact(date.toEpochDay()));
+        return at < 0 ? Optional.empty() : Optional.of(history.priceAt(at));
+    }
+
+    /**
+     * {@link #getPriceAsOf} prices of many securities in one call; ISINs without a price on or before
+     * {@code date} are left out of the result.
+     */
+    public Map<String, Double> getPricesAsOf(Collection<String> isins, LocalDate date) {
+        int day = Math.toIntExact(date.toEpochDay());
+        Map<String, Double> result = new HashMap<>(Math.max(4, isins.size() * 4 / 3 + 1));
+        for (String isin : isins) {
+            PriceHistory history = historyOf(isin);
+            int at = history.floorIndex(day);
+            if (at >= 0) result.put(isin, history.priceAt(at));
+        }
+        return result;
+    }
+
+    /** Current prices of {@code isin}; empty when there are none. */
+    public PriceHistory historyOf(String isin) {
+        PriceSeries series = priceMap.get(isin);
+        return series == null ? PriceHistory.EMPTY : series.history();
+    }
+
+    /** Prices of {@code isin} in date order. */
     public List<SecurityPrice> getPricesForSecurity(String isin) {
-        Map<LocalDate, Double> datePriceMap = priceMap.getOrDefault(isin, Collections.emptyMap());
-        List<SecurityPrice> prices = new ArrayList<>();
-        datePriceMap.forEach((date, price) -> prices.add(new SecurityPrice(isin, date, price)));
+        PriceHistory history = historyOf(isin);
+        List<SecurityPrice> prices = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            prices.add(new SecurityPrice(isin, history.dateAt(i), history.priceAt(i)));
+        }
         return prices;
     }
 
+    /** Streams the prices of {@code isin} in date order without boxing. */
+    public void forEachPrice(String isin, PricePointConsumer consumer) {
+        PriceHistory history = historyOf(isin);
+        for (int i = 0; i < history.size(); i++) {
+            consumer.accept(history.epochDayAt(i), history.priceAt(i));
+        }
+    }
+
+    public Set<String> isins() {
+        return Set.copyOf(priceMap.keySet());
+    }
+
     public void clear() {
         priceMap.clear();
+        listeners.forEach(SecurityPriceListener::onClear);
     }
 }
@@ -2,25 +2,30 @@ package com.bourse.wealthwise.repository;
 
 import com.bourse.wealthwise.domain.entity.security.Security;
 import org.springframework.stereotype.Component;
-import java.util.HashMap;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Component
 public class SecurityRepository {
-    private final HashMap<String, Security> securityByIsin = new HashMap<>();
-    private final HashMap<String, Security> securityBySymbol = new HashMap<>();
+    private final Map<String, Security> securityByIsin = new ConcurrentHashMap<>();
+    private final Map<String, Security> securityBySymbol = new ConcurrentHashMap<>();
 
     public Security findSecurityByIsin(String isin) {
-        return securityByIsin.get(isin);
+        return isin == null ? null : securityByIsin.get(isin);
     }
 
     public Security findSecurityBySymbol(String symbol) {
-        return securityBySymbol.get(symbol);
+        return symbol == null ? null : securityBySymbol.get(symbol);
     }
 
     public void addSecurity(Security security) {
-        securityByIsin.put(security.getIsin(), security);
-        securityBySymbol.put(security.getSymbol(), security);
+        if (security.getIsin() != null) securityByIsin.put(security.getIsin(), security);
+        if (security.getSymbol() != null) securityBySymbol.put(security.getSymbol(), security);
     }
 
     public void clear() {
@@ -28,7 +33,11 @@ public class SecurityRepository {
         securityBySymbol.clear();
     }
 
+    /** Every security stored under an ISIN, a symbol or both, each instance once. */
     public Iterable<Security> allSecurities() {
-        return securityByIsin.values();
+        Set<Security> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(securityByIsin.values());
+        all.addAll(securityBySymbol.values());
+        return all;
     }
 }
@@ -0,0 +1,166 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.action.ActionType;
+import com.bourse.wealthwise.domain.entity.action.Actor;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
+import com.bourse.wealthwise.domain.entity.action.Withdrawal;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecurityType;
+
+/**
+ * Binary encoding of every {@link BaseAction} subtype.
+ * <p>
+ * Layout: subtype tag, common fields (uuid, datetime, portfolio uuid, tracing
+ * number, action type, actor), then the subtype's own fields. Portfolios are
+ * stored by uuid and securities by their identifying fields; a {@link Resolver}
+ * turns those back into shared instances on decode.
+ */
+public final class ActionCodec {
+
+    private static final byte BUY = 1;
+    private static final byte SALE = 2;
+    private static final byte DEPOSIT = 3;
+    private static final byte WITHDRAWAL = 4;
+    private static final byte CAPITAL_RAISE = 5;
+    private static final byte STOCK_RIGHT_USAGE = 6;
+
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+    private static final Actor[] ACTORS = Actor.values();
+    private static final SecurityType[] SECURITY_TYPES = SecurityType.values();
+
+    /** Maps encoded references back to live objects while decoding. */
+    public interface Resolver {
+        Portfolio portfolio(String uuid);
+
+        Security security(String isin, String symbol, String name, SecurityType type);
+    }
+
+    private ActionCodec() {
+    }
+
+    public static void encode(BaseAction action, BinaryWriter out) {
+        out.writeByte(tagOf(action));
+        out.writeString(action.getUuid());
+        out.writeDateTime(action.getDatetime());
+        out.writeString(action.getPortfolio() == null ? null : action.getPortfolio().getUuid());
+        out.writeString(action.getTracing_number());
+        out.writeEnum(action.getActionType());
+        out.writeEnum(action.getActor());
+
+        switch (action) {
+            case Buy buy -> {
+                writeSecurity(buy.getSecurity(), out);
+                out.writeBigInteger(buy.getVolume());
+                writeInteger(buy.getPrice(), out);
+                out.writeBigInteger(buy.getTotalValue());
+            }
+            case Sale sale -> {
+                writeSecurity(sale.getSecurity(), out);
+                out.writeBigInteger(sale.getVolume());
+                writeInteger(sale.getPrice(), out);
+                out.writeBigInteger(sale.getTotalValue());
+            }
+            case Deposit deposit -> out.writeBigInteger(deposit.getAmount());
+            case Withdrawal withdrawal -> out.writeBigInteger(withdrawal.getAmount());
+            case CapitalRaise capitalRaise -> {
+                writeSecurity(capitalRaise.getSecurity(), out);
+                out.writeBigInteger(capitalRaise.getVolume());
+            }
+            case StockRightUsage usage -> {
+                writeSecurity(usage.getRightSecurity(), out);
+                writeSecurity(usage.getStockSecurity(), out);
+                out.writeBigInteger(usage.getRightsUsed());
+                out.writeBigInteger(usage.getPricePerRight());
+            }
+            default -> throw new IllegalArgumentException("Unsupported action " + action.getClass().getName());
+        }
+    }
+
+    public static BaseAction decode(BinaryReader in, Resolver resolver) {
+        byte tag = in.readByte();
+        String uuid = in.readString();
+        var datetime = in.readDateTime();
+        String portfolioId = in.readString();
+        Portfolio portfolio = portfolioId == null ? null : resolver.portfolio(portfolioId);
+        String tracingNumber = in.readString();
+        ActionType actionType = in.readEnum(ACTION_TYPES);
+        Actor actor = in.readEnum(ACTORS);
+
+        BaseAction.BaseActionBuilder<?, ?> builder = switch (tag) {
+            case BUY -> Buy.builder()
+                    .security(readSecurity(in, resolver))
+                    .volume(in.readBigInteger())
+                    .price(readInteger(in))
+                    .totalValue(in.readBigInteger());
+            case SALE -> Sale.builder()
+                    .security(readSecurity(in, resolver))
+                    .volume(in.readBigInteger())
+                    .price(readInteger(in))
+                    .totalValue(in.readBigInteger());
+            case DEPOSIT -> Deposit.builder().amount(in.readBigInteger());
+            case WITHDRAWAL -> Withdrawal.builder().amount(in.readBigInteger());
+            case CAPITAL_RAISE -> CapitalRaise.builder()
+                    .security(readSecurity(in, resolver))
+                    .volume(in.readBigInteger());
+            case STOCK_RIGHT_USAGE -> StockRightUsage.builder()
+                    .rightSecurity(readSecurity(in, resolver))
+                    .stockSecurity(readSecurity(in, resolver))
+                    .rightsUsed(in.readBigInteger())
+                    .pricePerRight(in.readBigInteger());
+            default -> throw new IllegalStateException("Unknown action tag " + tag);
+        };
+        return builder
+                .uuid(uuid)
+                .datetime(datetime)
+                .portfolio(portfolio)
+                .tracing_number(tracingNumber)
+                .actionType(actionType)
+                .actor(actor)
+                .build();
+    }
+
+    public static void writeSecurity(Security security, BinaryWriter out) {
+        out.writeBoolean(security != null);
+        if (security == null) return;
+        out.writeString(security.getIsin());
+        out.writeString(security.getSymbol());
+        out.writeString(security.getName());
+        out.writeEnum(security.getSecurityType());
+    }
+
+    public static Security readSecurity(BinaryReader in, Resolver resolver) {
+        if (!in.readBoolean()) return null;
+        String isin = in.readString();
+        String symbol = in.readString();
+        String name = in.readString();
+        SecurityType type = in.readEnum(SECURITY_TYPES);
+        return resolver.security(isin, symbol, name, type);
+    }
+
+    private static byte tagOf(BaseAction action) {
+        return switch (action) {
+            case Buy ignored -> BUY;
+            case Sale ignored -> SALE;
+            case Deposit ignored -> DEPOSIT;
+            case Withdrawal ignored -> WITHDRAWAL;
+            case CapitalRaise ignored -> CAPITAL_RAISE;
+            case StockRightUsage ignored -> STOCK_RIGHT_USAGE;
+            default -> throw new IllegalArgumentException("Unsupported action " + action.getClass().getName());
+        };
+    }
+
+    private static void writeInteger(Integer value, BinaryWriter out) {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeVarLong(value);
+    }
+
+    private static Integer readInteger(BinaryReader in) {
+        return in.readBoolean() ? in.readVarInt() : null;
+    }
+}
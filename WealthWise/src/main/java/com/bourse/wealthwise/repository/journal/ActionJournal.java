@@ -0,0 +1,274 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, on-disk log of every {@link com.bourse.wealthwise.repository.ActionRepository}
+ * mutation, written to size-rotated memory-mapped {@link JournalSegment}s.
+ * <p>
+ * Records are appended from the repository's listener callbacks, which run under the
+ * store's write lock, so the journal has a single writer and its order matches the order
+ * in which mutations became visible. A bulk save is group-committed: all of its records
+ * are appended first and flushed with one {@code force()} when fsync is enabled. If the
+ * batch fails partway, for instance because a new segment cannot be created, the records
+ * it already appended are wiped, so the log never holds part of a batch the repository
+ * rolled back.
+ * An action whose record would not fit in a segment is rejected in {@link #validate},
+ * before the repository stores anything.
+ * {@link JournalRecovery} replays the log into the repository at startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+public class ActionJournal implements ActionRepositoryListener {
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+    static final byte CLEAR = 3;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final BinaryWriter body = new BinaryWriter(256);
+
+    private JournalSegment active;
+    private long nextSeq;
+    private boolean replaying;
+
+    private volatile long recordsWritten;
+    private volatile long bytesWritten;
+
+    public ActionJournal(@Value("${app.journal.dir:data/journal}") String dir,
+                         @Value("${app.journal.segment-size:67108864}") int segmentSize,
+                         @Value("${app.journal.fsync:false}") boolean fsync) {
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(this.dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal directory " + dir, e);
+        }
+        List<Path> segments = segmentFiles();
+        long firstSeq = segments.isEmpty() ? 1 : JournalSegment.firstSeqOf(segments.get(segments.size() - 1));
+        this.active = JournalSegment.open(JournalSegment.pathFor(this.dir, firstSeq), firstSeq, segmentSize);
+        this.nextSeq = active.lastSeq() + 1;
+        log.info("Action journal at {}: {} segment(s), next sequence {}", this.dir, Math.max(1, segments.size()), nextSeq);
+    }
+
+    /** Rejects an action whose record is larger than an empty segment. */
+    @Override
+    public synchronized void validate(BaseAction action) {
+        if (replaying) return;
+        body.reset();
+        ActionCodec.encode(action, body);
+        if (body.size() > JournalSegment.maxBodySize(segmentSize)) {
+            throw new IllegalArgumentException("Action " + action.getUuid() + " needs a journal record of "
+                    + body.size() + " bytes, more than a " + segmentSize + "-byte segment holds");
+        }
+    }
+
+    @Override
+    public synchronized void onSave(BaseAction action) {
+        if (replaying) return;
+        appendSave(action);
+        sync();
+    }
+
+    @Override
+    public synchronized void onSaveAll(List<BaseAction> actions) {
+        if (replaying) return;
+        JournalSegment start = active;
+        int startPosition = active.position();
+        long startSeq = nextSeq;
+        long records = recordsWritten;
+        long bytes = bytesWritten;
+        try {
+            for (BaseAction action : actions) appendSave(action);
+            sync();
+        } catch (RuntimeException e) {
+            try {
+                truncateTo(start, startPosition, startSeq);
+                recordsWritten = records;
+                bytesWritten = bytes;
+            } catch (RuntimeException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void onDelete(BaseAction action) {
+        if (replaying) return;
+        body.reset();
+        body.writeString(action.getUuid());
+        append(DELETE);
+        sync();
+    }
+
+    @Override
+    public synchronized void onClear() {
+        if (replaying) return;
+        body.reset();
+        append(CLEAR);
+        sync();
+    }
+
+    /** Sequence number of the last record written or recovered; 0 for an empty journal. */
+    public synchronized long lastSequence() {
+        return nextSeq - 1;
+    }
+
+    public long recordsWritten() {
+        return recordsWritten;
+    }
+
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Feeds every record with a sequence number above {@code afterSeq} to {@code handler}, in log order. */
+    synchronized void replay(long afterSeq, JournalSegment.RecordHandler handler) {
+        List<Path> files = segmentFiles();
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            boolean last = i == files.size() - 1;
+            if (!last && JournalSegment.firstSeqOf(files.get(i + 1)) <= afterSeq + 1) continue;
+            JournalSegment.RecordHandler filtered = (seq, tag, record) -> {
+                if (seq > afterSeq) handler.onRecord(seq, tag, record);
+            };
+            if (file.equals(active.path())) {
+                active.forEach(filtered);
+            } else {
+                try (JournalSegment segment = JournalSegment.open(file, JournalSegment.firstSeqOf(file), segmentSize)) {
+                    segment.forEach(filtered);
+                }
+            }
+        }
+    }
+
+    /** Runs {@code body} without journaling the repository callbacks it triggers. */
+    synchronized void withoutAppending(Runnable body) {
+        replaying = true;
+        try {
+            body.run();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /**
+     * Deletes closed segments whose records all have sequence numbers up to {@code seq}.
+     * The active segment is always kept.
+     */
+    synchronized int deleteSegmentsUpTo(long seq) {
+        List<Path> files = segmentFiles();
+        int deleted = 0;
+        for (int i = 0; i < files.size() - 1; i++) {
+            Path file = files.get(i);
+            if (file.equals(active.path()) || JournalSegment.firstSeqOf(files.get(i + 1)) > seq + 1) break;
+            try {
+                Files.delete(file);
+                deleted++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete journal segment " + file, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Makes sure the next record is numbered after {@code seq}, starting a new segment if
+     * needed, so that records written after a snapshot are never mistaken for ones it covers.
+     */
+    synchronized void advancePast(long seq) {
+        if (nextSeq > seq) return;
+        nextSeq = seq + 1;
+        rotate();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        active.close();
+    }
+
+    private void appendSave(BaseAction action) {
+        body.reset();
+        ActionCodec.encode(action, body);
+        append(SAVE);
+    }
+
+    private void append(byte tag) {
+        if (!active.append(nextSeq, tag, body)) {
+            rotate();
+            active.append(nextSeq, tag, body);
+        }
+        nextSeq++;
+        recordsWritten++;
+        bytesWritten += JournalSegment.RECORD_OVERHEAD + body.size();
+    }
+
+    /**
+     * Removes every record from {@code position} of {@code segment} on, deleting the
+     * segments rotated into since then, and makes {@code segment} active again.
+     */
+    private void truncateTo(JournalSegment segment, int position, long seq) {
+        if (active != segment) {
+            try {
+                active.close();
+            } catch (UncheckedIOException e) {
+                // Its file is deleted below anyway.
+            }
+        }
+        for (Path file : segmentFiles()) {
+            if (!file.equals(segment.path()) && JournalSegment.firstSeqOf(file) >= seq) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot delete journal segment " + file, e);
+                }
+            }
+        }
+        active = segment.isClosed() ? JournalSegment.open(segment.path(), segment.firstSeq(), segmentSize) : segment;
+        active.truncateTo(position, seq - 1);
+        nextSeq = seq;
+    }
+
+    private void sync() {
+        if (fsync) active.force();
+    }
+
+    private void rotate() {
+        active.close();
+        active = JournalSegment.open(JournalSegment.pathFor(dir, nextSeq), nextSeq, segmentSize);
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files
+                    .filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(JournalSegment.PREFIX) && name.endsWith(JournalSegment.SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list journal directory " + dir, e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bourse.wealthwise.repository.journal;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads the encodings written by {@link BinaryWriter} from a {@link ByteBuffer},
+ * advancing its position.
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    public byte readByte() {
+        return buffer.get();
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public long readVarLong() {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) throw new IllegalStateException("Malformed varint");
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    public int readVarInt() {
+        return Math.toIntExact(readVarLong());
+    }
+
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public BigInteger readBigInteger() {
+        return switch (buffer.get()) {
+            case 0 -> null;
+            case 1 -> BigInteger.valueOf(readVarLong());
+            case 2 -> {
+                byte[] bytes = new byte[readVarInt()];
+                buffer.get(bytes);
+                yield new BigInteger(bytes);
+            }
+            default -> throw new IllegalStateException("Unknown BigInteger tag");
+        };
+    }
+
+    public LocalDateTime readDateTime() {
+        if (buffer.get() == 0) return null;
+        long seconds = readVarLong();
+        int nanos = readVarInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = readVarInt();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
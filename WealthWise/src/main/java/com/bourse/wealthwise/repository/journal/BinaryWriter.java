@@ -0,0 +1,118 @@
+package com.bourse.wealthwise.repository.journal;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the compact encodings shared by the journal and
+ * snapshot formats: zig-zag varints, length-prefixed UTF-8 strings and nullable
+ * values. Reused across records, so steady-state encoding does not allocate.
+ * {@link BinaryReader} reads the same encodings back.
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] array() {
+        return buffer;
+    }
+
+    public void writeTo(ByteBuffer target) {
+        target.put(buffer, 0, size);
+    }
+
+    public BinaryWriter writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    public BinaryWriter writeInt(int value) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+        return this;
+    }
+
+    public BinaryWriter writeLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+        return this;
+    }
+
+    public BinaryWriter writeDouble(double value) {
+        return writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /** Unsigned LEB128 of the zig-zag encoded value: small magnitudes take one byte. */
+    public BinaryWriter writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensure(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[size++] = (byte) zigzag;
+        return this;
+    }
+
+    public BinaryWriter writeString(String value) {
+        if (value == null) return writeVarLong(0);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /** Tag 0 = null, 1 = fits in a long (varint), 2 = two's-complement bytes. */
+    public BinaryWriter writeBigInteger(BigInteger value) {
+        if (value == null) return writeByte(0);
+        if (value.bitLength() < 64) return writeByte(1).writeVarLong(value.longValue());
+        byte[] bytes = value.toByteArray();
+        writeByte(2).writeVarLong(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public BinaryWriter writeDateTime(LocalDateTime value) {
+        if (value == null) return writeByte(0);
+        return writeByte(1)
+                .writeVarLong(value.toEpochSecond(ZoneOffset.UTC))
+                .writeVarLong(value.getNano());
+    }
+
+    /** Enum ordinal, or -1 for null. */
+    public BinaryWriter writeEnum(Enum<?> value) {
+        return writeVarLong(value == null ? -1 : value.ordinal());
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Rebuilds {@link ActionRepository} (and, through its listeners, every ledger) once all
+ * beans are up: the latest {@link SnapshotStore} checkpoint is loaded first, then the
+ * {@link ActionJournal} records written after it are replayed. Saves are replayed in batches through
+ * {@code saveAll}; a pending batch is flushed before each delete or clear so the log's
+ * order is preserved. The whole replay holds the store's write lock, so readers never
+ * see a half-recovered book. Portfolios, securities and prices are not journaled; see
+ * {@link SnapshotStore} for what that loses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+public class JournalRecovery implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final ActionJournal journal;
+    private final SnapshotStore snapshots;
+    private final ActionRepository actionRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final SecurityRepository securityRepository;
+    private final ActionStoreLock lock;
+
+    private volatile long recoveredRecords;
+    private volatile long recoveryMillis;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover(snapshots.loadLatest());
+    }
+
+    /** Replays every journal record after {@code afterSeq}; returns the number of records applied. */
+    public long recover(long afterSeq) {
+        long started = System.nanoTime();
+        RepositoryResolver resolver = new RepositoryResolver(portfolioRepository, securityRepository);
+        List<BaseAction> batch = new ArrayList<>(BATCH_SIZE);
+        long[] applied = {0};
+
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            journal.withoutAppending(() -> {
+                journal.replay(afterSeq, (seq, tag, body) -> {
+                    applied[0]++;
+                    switch (tag) {
+                        case ActionJournal.SAVE -> {
+                            batch.add(ActionCodec.decode(body, resolver));
+                            if (batch.size() == BATCH_SIZE) flush(batch);
+                        }
+                        case ActionJournal.DELETE -> {
+                            flush(batch);
+                            actionRepository.deleteById(body.readString());
+                        }
+                        case ActionJournal.CLEAR -> {
+                            flush(batch);
+                            actionRepository.clear();
+                        }
+                        default -> throw new IllegalStateException("Unknown journal record tag " + tag + " at " + seq);
+                    }
+                });
+                flush(batch);
+            });
+        } finally {
+            write.unlock();
+        }
+
+        recoveredRecords = applied[0];
+        recoveryMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Recovered {} journal records in {} ms", recoveredRecords, recoveryMillis);
+        if (resolver.stubPortfolios() > 0) {
+            log.warn("{} portfolio(s) registered after the latest snapshot were restored by uuid only; "
+                    + "their name, manager and status are not journaled", resolver.stubPortfolios());
+        }
+        return recoveredRecords;
+    }
+
+    public long recoveredRecords() {
+        return recoveredRecords;
+    }
+
+    public long recoveryMillis() {
+        return recoveryMillis;
+    }
+
+    private void flush(List<BaseAction> batch) {
+        if (batch.isEmpty()) return;
+        actionRepository.saveAll(batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,239 @@
+package com.bourse.wealthwise.repository.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file.
+ * <p>
+ * Records are laid out back to back as {@code [int length][int crc][long seq][byte tag][body]},
+ * where the length and checksum cover everything after them. The length is written last,
+ * so a zero length marks the end of the log; a record whose checksum does not match is
+ * a torn write and is treated the same way. Files are named after the sequence number of
+ * their first record so that a directory listing sorts them in log order.
+ * <p>
+ * {@link #close()} unmaps the file straight away rather than leaving the mapping to the
+ * garbage collector, so rolled, replayed and pruned segments do not keep their address
+ * space and, once deleted, their disk blocks. The segment must not be used afterwards.
+ */
+final class JournalSegment implements Closeable {
+
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".seg";
+
+    private static final int HEADER = 8;
+    private static final int RECORD_PREFIX = Long.BYTES + 1;
+    static final int RECORD_OVERHEAD = HEADER + RECORD_PREFIX;
+
+    /** {@code Unsafe.invokeCleaner}, or null when the runtime does not offer it. */
+    private static final MethodHandle UNMAP = unmapper();
+
+    /** Receives each valid record of a segment in log order. */
+    interface RecordHandler {
+        void onRecord(long seq, byte tag, BinaryReader body);
+    }
+
+    private final Path path;
+    private final long firstSeq;
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final CRC32C crc = new CRC32C();
+
+    private int position;
+    private int forcedUpTo;
+    private long lastSeq;
+    private boolean closed;
+
+    private JournalSegment(Path path, long firstSeq, FileChannel channel, MappedByteBuffer map) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.channel = channel;
+        this.map = map;
+        this.lastSeq = firstSeq - 1;
+    }
+
+    /**
+     * Maps {@code path} read-write, creating it at {@code size} bytes if it does not exist,
+     * and positions after its last valid record.
+     */
+    static JournalSegment open(Path path, long firstSeq, int size) {
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int mapped = channel.size() > 0 ? (int) channel.size() : size;
+            JournalSegment segment = new JournalSegment(path, firstSeq, channel,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+            segment.recoverTail();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal segment " + path, e);
+        }
+    }
+
+    static Path pathFor(Path dir, long firstSeq) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    static long firstSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSeq() {
+        return firstSeq;
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Appends one record, or returns false without writing anything if it does not fit
+     * in the space left. Records larger than an empty segment are rejected outright.
+     */
+    boolean append(long seq, byte tag, BinaryWriter body) {
+        int length = RECORD_PREFIX + body.size();
+        if (body.size() > maxBodySize(map.capacity())) {
+            throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds segment size");
+        }
+        if (position + HEADER + length > map.capacity()) return false;
+
+        int start = position + HEADER;
+        map.putLong(start, seq);
+        map.put(start + Long.BYTES, tag);
+        map.put(start + RECORD_PREFIX, body.array(), 0, body.size());
+
+        crc.reset();
+        crc.update(map.slice(start, length));
+        map.putInt(position + 4, (int) crc.getValue());
+        map.putInt(position, length);
+
+        position += HEADER + length;
+        lastSeq = seq;
+        return true;
+    }
+
+    /** Flushes what was appended since the last call to the storage device. */
+    void force() {
+        if (forcedUpTo == position) return;
+        map.force(forcedUpTo, position - forcedUpTo);
+        forcedUpTo = position;
+    }
+
+    /**
+     * Drops every record from {@code offset} on, which must be a record boundary at or
+     * before {@link #position()}, zeroing and flushing their bytes so a restart cannot
+     * find them; {@code lastSeq} is the sequence number of the record now last.
+     */
+    void truncateTo(int offset, long lastSeq) {
+        if (offset == position) return;
+        for (int i = offset; i < position; i++) map.put(i, (byte) 0);
+        map.force(offset, position - offset);
+        position = offset;
+        forcedUpTo = Math.min(forcedUpTo, offset);
+        this.lastSeq = lastSeq;
+    }
+
+    /** Feeds every valid record to {@code handler}, in log order. */
+    void forEach(RecordHandler handler) {
+        int offset = 0;
+        while (offset < position) {
+            int length = map.getInt(offset);
+            int start = offset + HEADER;
+            long seq = map.getLong(start);
+            byte tag = map.get(start + Long.BYTES);
+            ByteBuffer body = map.slice(start + RECORD_PREFIX, length - RECORD_PREFIX);
+            handler.onRecord(seq, tag, new BinaryReader(body));
+            offset = start + length;
+        }
+    }
+
+    /** Finds the end of the valid log and wipes whatever a torn write left behind it. */
+    private void recoverTail() {
+        int offset = 0;
+        long previous = firstSeq - 1;
+        while (offset + HEADER <= map.capacity()) {
+            int length = map.getInt(offset);
+            if (length < RECORD_PREFIX || offset + HEADER + length > map.capacity()) break;
+            crc.reset();
+            crc.update(map.slice(offset + HEADER, length));
+            if ((int) crc.getValue() != map.getInt(offset + 4)) break;
+            long seq = map.getLong(offset + HEADER);
+            if (seq <= previous) break;
+            previous = seq;
+            offset += HEADER + length;
+        }
+        position = offset;
+        forcedUpTo = offset;
+        lastSeq = previous;
+
+        if (offset + HEADER <= map.capacity() && map.getInt(offset) != 0) {
+            for (int i = offset; i < map.capacity(); i++) map.put(i, (byte) 0);
+            map.force(offset, map.capacity() - offset);
+        }
+    }
+
+    /** Largest record body that fits in an empty segment of {@code size} bytes. */
+    static int maxBodySize(int size) {
+        return size - RECORD_OVERHEAD;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close journal segment " + path, e);
+        } finally {
+            unmap(map);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAP == null) return;
+        try {
+            UNMAP.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // The mapping is then released when the buffer is collected, as without UNMAP.
+        }
+    }
+
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecurityType;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves decoded references against the live repositories. Portfolios and securities
+ * they do not know yet are registered from the decoded fields; a portfolio seen only
+ * through an action comes back with its uuid alone, since the journal does not record
+ * portfolios. Such stubs are counted so recovery can report them.
+ */
+@RequiredArgsConstructor
+final class RepositoryResolver implements ActionCodec.Resolver {
+
+    private final PortfolioRepository portfolioRepository;
+    private final SecurityRepository securityRepository;
+
+    private int stubPortfolios;
+
+    @Override
+    public Portfolio portfolio(String uuid) {
+        return portfolioRepository.findById(uuid).orElseGet(() -> {
+            stubPortfolios++;
+            return portfolioRepository.save(new Portfolio(uuid, null, null));
+        });
+    }
+
+    /** Portfolios registered with their uuid alone so far. */
+    int stubPortfolios() {
+        return stubPortfolios;
+    }
+
+    @Override
+    public Security security(String isin, String symbol, String name, SecurityType type) {
+        Security known = isin != null
+                ? securityRepository.findSecurityByIsin(isin)
+                : securityRepository.findSecurityBySymbol(symbol);
+        if (known != null) return known;
+        Security security = Security.builder().isin(isin).symbol(symbol).name(name).securityType(type).build();
+        securityRepository.addSecurity(security);
+        return security;
+    }
+}
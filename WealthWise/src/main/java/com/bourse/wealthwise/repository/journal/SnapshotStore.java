@@ -0,0 +1,333 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.portfolio.PortfolioStatus;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.PriceHistory;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Checkpoints of the whole book, so startup replays only the journal written after the
+ * latest one.
+ * <p>
+ * A snapshot holds securities, portfolios, prices and actions, followed by a CRC32C of
+ * everything before it. Its file is named after the last journal sequence number it covers.
+ * The position and balance ledgers are not stored: loading feeds the actions through
+ * {@code saveAll}, which rebuilds them in the same pass.
+ * <p>
+ * Writers are never paused for the whole book. The sequence number is read first, then
+ * {@link ActionRepository#findAll} copies one portfolio at a time, so writes made during
+ * the copy may or may not be in it. Each of them has a journal record after that number,
+ * and replaying a save, delete or clear over a state that already contains it leaves the
+ * same state, so the snapshot plus the journal after it is exact. Securities, portfolios
+ * and prices are read after the actions, so whatever those actions refer to is included.
+ * <p>
+ * Only action changes are journaled. Securities, portfolios and prices registered or
+ * changed after the latest snapshot are lost on restart: a security is rebuilt from the
+ * fields its actions carry, a portfolio comes back as a uuid-only stub (see
+ * {@link RepositoryResolver}) and prices stay missing until they are published again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.journal.enabled", havingValue = "true")
+public class SnapshotStore {
+
+    static final String PREFIX = "snapshot-";
+    static final String SUFFIX = ".snap";
+
+    private static final int MAGIC = 0x57575331;
+    private static final byte VERSION = 1;
+    private static final int FLUSH_AT = 1 << 20;
+    private static final int LOAD_BATCH = 4096;
+    private static final PortfolioStatus[] STATUSES = PortfolioStatus.values();
+
+    private final Path dir;
+    private final int retain;
+    private final boolean compactJournal;
+    private final ActionJournal journal;
+    private final ActionRepository actionRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final SecurityRepository securityRepository;
+    private final SecurityPriceRepository securityPriceRepository;
+    private final ActionStoreLock lock;
+
+    public SnapshotStore(@Value("${app.snapshot.dir:data/snapshots}") String dir,
+                         @Value("${app.snapshot.retain:2}") int retain,
+                         @Value("${app.snapshot.compact-journal:true}") boolean compactJournal,
+                         ActionJournal journal,
+                         ActionRepository actionRepository,
+                         PortfolioRepository portfolioRepository,
+                         SecurityRepository securityRepository,
+                         SecurityPriceRepository securityPriceRepository,
+                         ActionStoreLock lock) {
+        this.dir = Path.of(dir);
+        this.retain = Math.max(1, retain);
+        this.compactJournal = compactJournal;
+        this.journal = journal;
+        this.actionRepository = actionRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.securityRepository = securityRepository;
+        this.securityPriceRepository = securityPriceRepository;
+        this.lock = lock;
+    }
+
+    @Scheduled(cron = "${app.snapshot.cron:-}")
+    public void scheduledSnapshot() {
+        snapshot();
+    }
+
+    /** Writes a snapshot of the current book and returns the journal sequence number it covers. */
+    public synchronized long snapshot() {
+        long started = System.nanoTime();
+        long seq;
+        var read = lock.readLock();
+        read.lock();
+        try {
+            seq = journal.lastSequence();
+        } finally {
+            read.unlock();
+        }
+        List<BaseAction> actions = actionRepository.findAll();
+        long captured = System.nanoTime();
+
+        Path target = pathFor(seq);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                write(channel, seq, actions);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + target, e);
+        }
+        prune();
+
+        log.info("Snapshot at seq {}: {} actions, capture {} ms, write {} ms",
+                seq, actions.size(), (captured - started) / 1_000_000.0, (System.nanoTime() - captured) / 1_000_000.0);
+        return seq;
+    }
+
+    /**
+     * Loads the newest readable snapshot into the repositories and returns the journal
+     * sequence number it covers, or 0 when there is none.
+     */
+    public long loadLatest() {
+        List<Path> snapshots = snapshotFiles();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path file = snapshots.get(i);
+            long started = System.nanoTime();
+            try {
+                long seq = load(file);
+                journal.advancePast(seq);
+                log.info("Loaded snapshot {} in {} ms", file.getFileName(), (System.nanoTime() - started) / 1_000_000);
+                return seq;
+            } catch (IllegalStateException e) {
+                log.warn("Skipping unreadable snapshot {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    private void write(FileChannel channel, long seq, List<BaseAction> actions) throws IOException {
+        CRC32C crc = new CRC32C();
+        BinaryWriter out = new BinaryWriter(FLUSH_AT + 4096);
+        out.writeInt(MAGIC).writeByte(VERSION).writeLong(seq);
+
+        List<Security> securities = new ArrayList<>();
+        securityRepository.allSecurities().forEach(securities::add);
+        out.writeVarLong(securities.size());
+        for (Security security : securities) {
+            ActionCodec.writeSecurity(security, out);
+            flushIfFull(out, channel, crc);
+        }
+
+        List<Portfolio> portfolios = portfolioRepository.findAll();
+        out.writeVarLong(portfolios.size());
+        for (Portfolio portfolio : portfolios) {
+            writePortfolio(portfolio, out);
+            flushIfFull(out, channel, crc);
+        }
+
+        List<String> isins = new ArrayList<>(securityPriceRepository.isins());
+        out.writeVarLong(isins.size());
+        for (String isin : isins) {
+            PriceHistory history = securityPriceRepository.historyOf(isin);
+            out.writeString(isin).writeVarLong(history.size());
+            for (int i = 0; i < history.size(); i++) {
+                out.writeVarLong(history.epochDayAt(i)).writeDouble(history.priceAt(i));
+                flushIfFull(out, channel, crc);
+            }
+        }
+
+        out.writeVarLong(actions.size());
+        for (BaseAction action : actions) {
+            ActionCodec.encode(action, out);
+            flushIfFull(out, channel, crc);
+        }
+
+        flush(out, channel, crc);
+        out.writeInt((int) crc.getValue());
+        flush(out, channel, null);
+    }
+
+    private long load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IllegalStateException("snapshot larger than 2 GB");
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 17) throw new IllegalStateException("truncated");
+            CRC32C crc = new CRC32C();
+            crc.update(map.slice(0, (int) size - 4));
+            if ((int) crc.getValue() != map.getInt((int) size - 4)) throw new IllegalStateException("checksum mismatch");
+
+            BinaryReader in = new BinaryReader(map.slice(0, (int) size - 4));
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) throw new IllegalStateException("not a snapshot");
+            long seq = in.readLong();
+            ActionCodec.Resolver resolver = new RepositoryResolver(portfolioRepository, securityRepository);
+
+            long securities = in.readVarLong();
+            for (long i = 0; i < securities; i++) ActionCodec.readSecurity(in, resolver);
+
+            long portfolios = in.readVarLong();
+            for (long i = 0; i < portfolios; i++) {
+                Portfolio portfolio = readPortfolio(in);
+                if (portfolioRepository.findById(portfolio.getUuid()).isEmpty()) portfolioRepository.save(portfolio);
+            }
+
+            long isins = in.readVarLong();
+            for (long i = 0; i < isins; i++) {
+                String isin = in.readString();
+                long count = in.readVarLong();
+                for (long j = 0; j < count; j++) {
+                    LocalDate date = LocalDate.ofEpochDay(in.readVarLong());
+                    securityPriceRepository.addPrice(isin, date, in.readDouble());
+                }
+            }
+
+            long actions = in.readVarLong();
+            var write = lock.writeLock();
+            write.lock();
+            try {
+                journal.withoutAppending(() -> {
+                    List<BaseAction> batch = new ArrayList<>(LOAD_BATCH);
+                    for (long i = 0; i < actions; i++) {
+                        batch.add(ActionCodec.decode(in, resolver));
+                        if (batch.size() == LOAD_BATCH) {
+                            actionRepository.saveAll(batch);
+                            batch.clear();
+                        }
+                    }
+                    actionRepository.saveAll(batch);
+                });
+            } finally {
+                write.unlock();
+            }
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read snapshot " + file, e);
+        }
+    }
+
+    /** Keeps the newest {@code retain} snapshots and, optionally, drops the journal they all cover. */
+    private void prune() {
+        List<Path> snapshots = snapshotFiles();
+        int excess = snapshots.size() - retain;
+        try {
+            for (int i = 0; i < excess; i++) Files.delete(snapshots.get(i));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prune snapshots in " + dir, e);
+        }
+        if (compactJournal && excess >= 0) {
+            journal.deleteSegmentsUpTo(seqOf(snapshots.get(Math.max(0, excess))));
+        }
+    }
+
+    private static void writePortfolio(Portfolio portfolio, BinaryWriter out) {
+        out.writeString(portfolio.getUuid());
+        out.writeString(portfolio.getName());
+        out.writeEnum(portfolio.getStatus());
+        User manager = portfolio.getPortfolioManager();
+        out.writeBoolean(manager != null);
+        if (manager != null) {
+            out.writeString(manager.getUuid());
+            out.writeString(manager.getFirstName());
+            out.writeString(manager.getLastName());
+        }
+    }
+
+    private static Portfolio readPortfolio(BinaryReader in) {
+        String uuid = in.readString();
+        String name = in.readString();
+        PortfolioStatus status = in.readEnum(STATUSES);
+        User manager = in.readBoolean()
+                ? User.builder().uuid(in.readString()).firstName(in.readString()).lastName(in.readString()).build()
+                : null;
+        Portfolio portfolio = new Portfolio(uuid, manager, name);
+        portfolio.setStatus(status);
+        return portfolio;
+    }
+
+    private static void flushIfFull(BinaryWriter out, FileChannel channel, CRC32C crc) throws IOException {
+        if (out.size() >= FLUSH_AT) flush(out, channel, crc);
+    }
+
+    private static void flush(BinaryWriter out, FileChannel channel, CRC32C crc) throws IOException {
+        if (crc != null) crc.update(out.array(), 0, out.size());
+        ByteBuffer buffer = ByteBuffer.wrap(out.array(), 0, out.size());
+        while (buffer.hasRemaining()) channel.write(buffer);
+        out.reset();
+    }
+
+    private Path pathFor(long seq) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, seq, SUFFIX));
+    }
+
+    private static long seqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private List<Path> snapshotFiles() {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list snapshot directory " + dir, e);
+        }
+    }
+}
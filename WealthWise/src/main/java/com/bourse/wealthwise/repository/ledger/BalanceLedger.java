@@ -0,0 +1,94 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Per-portfolio cash balance kept as a {@link PrefixSumTree} over action times,
+ * so "balance before T" is O(log n) however old the account is and in whatever
+ * order its actions arrive. Undated actions never count towards a balance.
+ * <p>
+ * An action's cash change must fit a {@code long}, and one that does not is rejected
+ * before it is stored; balances themselves are summed exactly, however large.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceLedger implements ActionRepositoryListener {
+
+    private final ActionStoreLock lock;
+
+    private final Map<String, PrefixSumTree> balances = new ConcurrentHashMap<>();
+
+    /** Rejects cash changes outside the {@code long} range, either sign. */
+    @Override
+    public void validate(BaseAction action) {
+        BigInteger amount = action.getBalanceChangeAmount();
+        if (amount != null && amount.abs().bitLength() > 63) {
+            throw new IllegalArgumentException("Cash change out of range: " + amount);
+        }
+    }
+
+    @Override
+    public void onSave(BaseAction action) {
+        apply(action, false);
+    }
+
+    @Override
+    public void onDelete(BaseAction action) {
+        apply(action, true);
+    }
+
+    @Override
+    public void onClear() {
+        balances.clear();
+    }
+
+    /**
+     * Sum of the cash changes of actions strictly before {@code before}.
+     *
+     * @throws ArithmeticException if the balance does not fit {@link Money}; see {@link #exactBalanceBefore}
+     */
+    public Money balanceBefore(String portfolioId, LocalDateTime before) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            PrefixSumTree tree = balances.get(portfolioId);
+            return tree == null ? Money.ZERO : Money.of(tree.sumBefore(TimeKeys.of(before)));
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** As {@link #balanceBefore} in whole currency units, exact whatever its size. */
+    public BigInteger exactBalanceBefore(String portfolioId, LocalDateTime before) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            PrefixSumTree tree = balances.get(portfolioId);
+            return tree == null ? BigInteger.ZERO : tree.exactSumBefore(TimeKeys.of(before));
+        } finally {
+            read.unlock();
+        }
+    }
+
+    private void apply(BaseAction action, boolean reverse) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) return;
+        if (action.getDatetime() == null) return;
+        BigInteger amount = action.getBalanceChangeAmount();
+        if (amount == null || amount.signum() == 0) return;
+
+        long delta = reverse ? Math.negateExact(amount.longValueExact()) : amount.longValueExact();
+        balances.computeIfAbsent(action.getPortfolio().getUuid(), k -> new PrefixSumTree())
+                .add(TimeKeys.of(action.getDatetime()), delta);
+    }
+}
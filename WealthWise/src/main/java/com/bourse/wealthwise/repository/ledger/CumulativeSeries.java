@@ -0,0 +1,87 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import java.util.Arrays;
+
+/**
+ * Sorted (time, cumulative value) points for one position.
+ * <p>
+ * Single writer, lock-free readers: the arrays and their length are published
+ * together through a volatile snapshot. Appending a point at or after the last
+ * one writes past the published length and is amortized O(1); a backdated point
+ * copies the arrays, inserts it and patches the cumulative suffix.
+ */
+final class CumulativeSeries {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private record Points(long[] times, long[] values, int size) {
+    }
+
+    private volatile Points points = new Points(new long[0], new long[0], 0);
+
+    void add(long time, long delta) {
+        Points current = points;
+        int size = current.size();
+        if (size == 0 || time >= current.times()[size - 1]) {
+            append(current, time, size == 0 ? delta : current.values()[size - 1] + delta);
+            return;
+        }
+        // Backdated: new point goes after every point with the same or an earlier time.
+        int at = upperBound(current.times(), size, time);
+        long[] times = new long[Math.max(INITIAL_CAPACITY, size + 1 + (size >> 1))];
+        long[] values = new long[times.length];
+        System.arraycopy(current.times(), 0, times, 0, at);
+        System.arraycopy(current.values(), 0, values, 0, at);
+        times[at] = time;
+        values[at] = (at == 0 ? 0L : current.values()[at - 1]) + delta;
+        for (int i = at; i < size; i++) {
+            times[i + 1] = current.times()[i];
+            values[i + 1] = current.values()[i] + delta;
+        }
+        points = new Points(times, values, size + 1);
+    }
+
+    /** Cumulative value of all points at or before {@code time}; 0 when there are none. */
+    long valueAt(long time) {
+        Points current = points;
+        int at = upperBound(current.times(), current.size(), time);
+        return at == 0 ? 0L : current.values()[at - 1];
+    }
+
+    PositionHistory history() {
+        Points current = points;
+        return new PositionHistory(current.times(), current.values(), current.size());
+    }
+
+    /** True when at least one point lies at or before {@code time}. */
+    boolean hasPointAtOrBefore(long time) {
+        Points current = points;
+        return current.size() > 0 && current.times()[0] <= time;
+    }
+
+    private void append(Points current, long time, long value) {
+        int size = current.size();
+        long[] times = current.times();
+        long[] values = current.values();
+        if (size == times.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            times = Arrays.copyOf(times, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        times[size] = time;
+        values[size] = value;
+        points = new Points(times, values, size + 1);
+    }
+
+    /** Index of the first point strictly after {@code time}. */
+    private static int upperBound(long[] times, int size, long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,278 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Materialized FIFO tax lots per (portfolio, security), fed from buys, sales, capital
+ * raises and rights usages on every repository write, so profit and loss is read rather
+ * than replayed.
+ * <p>
+ * A buy opens a lot at its total value; a capital raise opens a zero-cost lot of rights.
+ * A sale closes the oldest lots first and realizes its proceeds minus their cost. A rights
+ * usage closes rights lots the same way and opens a stock lot costing their basis plus the
+ * subscription paid, so it moves cost rather than realizing any. Amounts are in
+ * {@link Money} units.
+ * <p>
+ * Each portfolio's actions are applied in time order, ties in arrival order; undated
+ * actions go before every dated one. An action dated before the latest one already
+ * applied, or a delete, rebuilds that portfolio's lots from its own actions, which the
+ * ledger keeps in that order. Lots as of an earlier instant are rebuilt the same way from
+ * the actions up to it; as of the latest action or later they are read as they stand.
+ */
+@Component
+@RequiredArgsConstructor
+public class LotLedger implements ActionRepositoryListener {
+
+    /** Receives one position: open volume, cost of the open lots and profit realized so far. */
+    @FunctionalInterface
+    public interface PositionVisitor {
+        void accept(Security security, long volume, long cost, long realized);
+    }
+
+    /** One open lot, oldest first. */
+    public record Lot(long volume, Money cost) {
+    }
+
+    private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::datetime, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparingLong(Key::sequence);
+
+    private final ActionStoreLock lock;
+
+    private final Map<String, Book> books = new ConcurrentHashMap<>();
+
+    /** Rejects volumes and amounts that do not fit the ledger's {@code long} lots. */
+    @Override
+    public void validate(BaseAction action) {
+        try {
+            switch (action) {
+                case Buy buy -> amount(buy.getTotalValue(), buy.getPrice(), volume(buy.getVolume()));
+                case Sale sale -> amount(sale.getTotalValue(), sale.getPrice(), volume(sale.getVolume()));
+                case CapitalRaise raise -> volume(raise.getVolume());
+                case StockRightUsage usage -> {
+                    volume(usage.getRightsUsed());
+                    paid(usage);
+                }
+                default -> {
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Volume or amount out of range for action " + action.getUuid(), e);
+        }
+    }
+
+    @Override
+    public void onSave(BaseAction action) {
+        onSaveAll(List.of(action));
+    }
+
+    /** In-order actions are applied as they come; portfolios that received a backdated one are rebuilt once at the end. */
+    @Override
+    public void onSaveAll(List<BaseAction> actions) {
+        Set<Book> stale = null;
+        for (BaseAction action : actions) {
+            Book book = bookOf(action);
+            if (book == null) continue;
+            boolean inOrder = book.record(action);
+            if (stale != null && stale.contains(book)) continue;
+            if (inOrder) {
+                book.apply(action);
+            } else {
+                if (stale == null) stale = Collections.newSetFromMap(new IdentityHashMap<>());
+                stale.add(book);
+            }
+        }
+        if (stale != null) stale.forEach(Book::rebuild);
+    }
+
+    @Override
+    public void onDelete(BaseAction action) {
+        if (!isLotAction(action) || action.getPortfolio() == null) return;
+        Book book = books.get(action.getPortfolio().getUuid());
+        if (book != null && book.forget(action)) book.rebuild();
+    }
+
+    @Override
+    public void onClear() {
+        books.clear();
+    }
+
+    /** Visits each position of {@code portfolioId} that is open or has realized profit or loss. */
+    public void forEachPosition(String portfolioId, PositionVisitor visitor) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Book book = books.get(portfolioId);
+            if (book != null) book.visit(visitor);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** As {@link #forEachPosition}, counting only the actions at or before {@code until}. */
+    public void forEachPositionAsOf(String portfolioId, LocalDateTime until, PositionVisitor visitor) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Book book = books.get(portfolioId);
+            if (book == null) return;
+            LocalDateTime latest = book.actions.isEmpty() ? null : book.actions.lastKey().datetime();
+            if (latest == null || !latest.isAfter(until)) {
+                book.visit(visitor);
+                return;
+            }
+            Book past = new Book();
+            book.actions.headMap(new Key(until, Long.MAX_VALUE), true).values().forEach(past::apply);
+            past.visit(visitor);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    public List<Lot> openLots(String portfolioId, Security security) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Book book = books.get(portfolioId);
+            LotQueue lots = book == null ? null : book.bySecurity.get(security);
+            if (lots == null) return List.of();
+            List<Lot> open = new ArrayList<>(lots.lotCount());
+            for (int i = 0; i < lots.lotCount(); i++) open.add(new Lot(lots.lotVolume(i), Money.ofUnits(lots.lotCost(i))));
+            return open;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** Rebuilds lots from scratch the same way the ledger accumulates them, applying {@code actions} in list order. */
+    public static void replay(List<BaseAction> actions, PositionVisitor visitor) {
+        Book book = new Book();
+        actions.forEach(book::apply);
+        book.visit(visitor);
+    }
+
+    private Book bookOf(BaseAction action) {
+        if (!isLotAction(action) || action.getPortfolio() == null || action.getPortfolio().getUuid() == null) return null;
+        return books.computeIfAbsent(action.getPortfolio().getUuid(), k -> new Book());
+    }
+
+    private static boolean isLotAction(BaseAction action) {
+        return action instanceof Buy || action instanceof Sale
+                || action instanceof CapitalRaise || action instanceof StockRightUsage;
+    }
+
+    /** Cash amount in {@link Money} units: {@code total} when set, else {@code price * volume}, else nothing. */
+    private static long amount(BigInteger total, Integer price, long volume) {
+        if (total != null) return Money.of(total).units();
+        if (price != null) return Math.multiplyExact(Money.of(price.longValue()).units(), volume);
+        return 0L;
+    }
+
+    private static long volume(BigInteger volume) {
+        return volume == null ? 0L : volume.longValueExact();
+    }
+
+    /** Subscription paid for a rights usage in {@link Money} units. */
+    private static long paid(StockRightUsage usage) {
+        if (usage.getPricePerRight() == null || usage.getRightsUsed() == null) return 0L;
+        return Money.of(usage.getRightsUsed().multiply(usage.getPricePerRight())).units();
+    }
+
+    private record Key(LocalDateTime datetime, long sequence) {
+    }
+
+    /** Lots of one portfolio and the actions they were built from, in application order. */
+    private static final class Book {
+        private final NavigableMap<Key, BaseAction> actions = new TreeMap<>(KEY_ORDER);
+        private final Map<String, Key> keys = new HashMap<>();
+        private final Map<Security, LotQueue> bySecurity = new HashMap<>();
+        private long sequence;
+
+        /** Keeps {@code action} in order; true when it goes after every action already kept. */
+        private boolean record(BaseAction action) {
+            Key key = new Key(action.getDatetime(), sequence++);
+            boolean last = actions.isEmpty() || KEY_ORDER.compare(key, actions.lastKey()) > 0;
+            actions.put(key, action);
+            if (action.getUuid() != null) keys.put(action.getUuid(), key);
+            return last;
+        }
+
+        private boolean forget(BaseAction action) {
+            Key key = action.getUuid() == null ? null : keys.remove(action.getUuid());
+            return key != null && actions.remove(key) != null;
+        }
+
+        private void visit(PositionVisitor visitor) {
+            bySecurity.forEach((security, lots) -> {
+                if (lots.volume() != 0 || lots.realized() != 0) {
+                    visitor.accept(security, lots.volume(), lots.cost(), lots.realized());
+                }
+            });
+        }
+
+        private void rebuild() {
+            bySecurity.clear();
+            actions.values().forEach(this::apply);
+        }
+
+        private void apply(BaseAction action) {
+            switch (action) {
+                case Buy buy -> {
+                    if (buy.getSecurity() == null) return;
+                    long volume = volume(buy.getVolume());
+                    lots(buy.getSecurity()).open(volume, amount(buy.getTotalValue(), buy.getPrice(), volume));
+                }
+                case Sale sale -> {
+                    if (sale.getSecurity() == null) return;
+                    long volume = volume(sale.getVolume());
+                    if (volume <= 0) return;
+                    LotQueue lots = lots(sale.getSecurity());
+                    long cost = lots.close(volume);
+                    lots.realize(Math.subtractExact(amount(sale.getTotalValue(), sale.getPrice(), volume), cost));
+                }
+                case CapitalRaise raise -> {
+                    if (raise.getSecurity() == null) return;
+                    lots(raise.getSecurity()).open(volume(raise.getVolume()), 0L);
+                }
+                case StockRightUsage usage -> {
+                    if (usage.getRightSecurity() == null || usage.getStockSecurity() == null) return;
+                    long used = volume(usage.getRightsUsed());
+                    if (used <= 0) return;
+                    long basis = lots(usage.getRightSecurity()).close(used);
+                    lots(usage.getStockSecurity()).open(used, Math.addExact(basis, paid(usage)));
+                }
+                default -> {
+                }
+            }
+        }
+
+        private LotQueue lots(Security security) {
+            return bySecurity.computeIfAbsent(security, k -> new LotQueue());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import java.math.BigInteger;
+
+/**
+ * Open FIFO lots of one position and the profit realized on it, costs in
+ * {@link com.bourse.wealthwise.domain.entity.money.Money} units.
+ * <p>
+ * Lots are two parallel {@code long} ring buffers (volume, cost), oldest at the head,
+ * so opening and closing lots allocates nothing once the buffers have grown. A lot
+ * closed in part gives up its cost pro rata, rounded down; the rest stays with the lot,
+ * so the open cost is always the sum of what was paid for the shares still held.
+ */
+final class LotQueue {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] volumes = new long[INITIAL_CAPACITY];
+    private long[] costs = new long[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private long volume;
+    private long cost;
+    private long realized;
+
+    void open(long volume, long cost) {
+        if (volume <= 0) return;
+        if (size == volumes.length) grow();
+        int tail = (head + size) & (volumes.length - 1);
+        volumes[tail] = volume;
+        costs[tail] = cost;
+        size++;
+        this.volume = Math.addExact(this.volume, volume);
+        this.cost = Math.addExact(this.cost, cost);
+    }
+
+    /** Closes the oldest {@code volume} shares and returns their cost; shares beyond the open lots cost nothing. */
+    long close(long volume) {
+        long remaining = volume;
+        long closedCost = 0;
+        int mask = volumes.length - 1;
+        while (remaining > 0 && size > 0) {
+            long lotVolume = volumes[head];
+            if (lotVolume <= remaining) {
+                closedCost = Math.addExact(closedCost, costs[head]);
+                remaining -= lotVolume;
+                head = (head + 1) & mask;
+                size--;
+            } else {
+                long part = share(costs[head], remaining, lotVolume);
+                volumes[head] = lotVolume - remaining;
+                costs[head] -= part;
+                closedCost = Math.addExact(closedCost, part);
+                remaining = 0;
+            }
+        }
+        this.volume -= volume - remaining;
+        this.cost -= closedCost;
+        return closedCost;
+    }
+
+    void realize(long profit) {
+        realized = Math.addExact(realized, profit);
+    }
+
+    long volume() {
+        return volume;
+    }
+
+    long cost() {
+        return cost;
+    }
+
+    long realized() {
+        return realized;
+    }
+
+    int lotCount() {
+        return size;
+    }
+
+    long lotVolume(int i) {
+        return volumes[(head + i) & (volumes.length - 1)];
+    }
+
+    long lotCost(int i) {
+        return costs[(head + i) & (volumes.length - 1)];
+    }
+
+    private void grow() {
+        long[] grownVolumes = new long[volumes.length * 2];
+        long[] grownCosts = new long[grownVolumes.length];
+        for (int i = 0; i < size; i++) {
+            grownVolumes[i] = lotVolume(i);
+            grownCosts[i] = lotCost(i);
+        }
+        volumes = grownVolumes;
+        costs = grownCosts;
+        head = 0;
+    }
+
+    /** {@code cost * part / whole} rounded down, without overflowing the intermediate product. */
+    private static long share(long cost, long part, long whole) {
+        long high = Math.multiplyHigh(cost, part);
+        long low = cost * part;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) return Math.floorDiv(low, whole);
+        return BigInteger.valueOf(cost).multiply(BigInteger.valueOf(part))
+                .divide(BigInteger.valueOf(whole)).longValueExact();
+    }
+}
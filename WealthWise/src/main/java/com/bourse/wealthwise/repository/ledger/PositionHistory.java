@@ -0,0 +1,42 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point-in-time view of one position's dated changes: the volume held after each change,
+ * in time order. Obtained from {@link PositionLedger#historiesOf}; later writes to the
+ * position never alter a view already handed out.
+ */
+public final class PositionHistory {
+
+    private final long[] times;
+    private final long[] volumes;
+    private final int size;
+
+    PositionHistory(long[] times, long[] volumes, int size) {
+        this.times = times;
+        this.volumes = volumes;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Volume held after the change at {@code index}. */
+    public long volumeAt(int index) {
+        return volumes[index];
+    }
+
+    /**
+     * Index of the last change at or before {@code until}, or -1 when every change is
+     * later. The search walks forward from {@code from}, a result for an earlier or equal
+     * instant, so a caller sweeping forward in time pays for each change once.
+     */
+    public int floorIndex(LocalDateTime until, int from) {
+        long key = TimeKeys.of(until);
+        int at = Math.max(from, -1);
+        while (at + 1 < size && times[at + 1] <= key) at++;
+        return at;
+    }
+}
@@ -0,0 +1,246 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecurityChange;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Materialized (portfolio, security) -> volume view, fed from
+ * {@link BaseAction#getSecurityChanges()} on every repository write.
+ * Holdings list only nonzero positions: one that returns to zero, for
+ * instance because the actions that opened it were deleted, drops out.
+ * Each position also keeps a cumulative time series of its dated changes,
+ * so holdings as of an instant are a binary search rather than a replay.
+ * A reverse index lists, per security, the portfolios currently holding a
+ * nonzero volume of it. Volumes are read as {@link Quantity}s; the visitor of
+ * {@link #forEachHoldingAsOf} gets the raw {@code long} so bulk valuation allocates nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class PositionLedger implements ActionRepositoryListener {
+
+    /** Receives one position of one portfolio, its volume as a raw {@link Quantity#value()}. */
+    @FunctionalInterface
+    public interface HoldingVisitor {
+        void accept(String portfolioId, Security security, long volume);
+    }
+
+    private final ActionStoreLock lock;
+
+    private final Map<String, PortfolioPositions> portfolios = new ConcurrentHashMap<>();
+
+    private final Map<Security, Set<String>> holders = new ConcurrentHashMap<>();
+
+    @Override
+    public void onSave(BaseAction action) {
+        apply(action, 1);
+    }
+
+    @Override
+    public void onDelete(BaseAction action) {
+        apply(action, -1);
+    }
+
+    @Override
+    public void onClear() {
+        portfolios.clear();
+        holders.clear();
+    }
+
+    /**
+     * Rejects volume changes that do not fit the ledger's {@code long} volumes either way
+     * round, so {@code Long.MIN_VALUE}, which has no negation, is rejected too.
+     */
+    @Override
+    public void validate(BaseAction action) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) return;
+        for (SecurityChange change : action.getSecurityChanges()) {
+            if (change.getVolumeChange() != null && change.getVolumeChange().abs().bitLength() > 63) {
+                throw new IllegalArgumentException("Volume change out of range: " + change.getVolumeChange());
+            }
+        }
+    }
+
+    public Quantity volumeOf(String portfolioId, Security security) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Position position = positionOf(portfolioId, security);
+            return position == null ? Quantity.ZERO : Quantity.of(position.volume);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    public Map<Security, Quantity> holdingsOf(String portfolioId) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            PortfolioPositions positions = portfolios.get(portfolioId);
+            if (positions == null) return Map.of();
+            Map<Security, Quantity> holdings = new HashMap<>();
+            positions.bySecurity.forEach((security, position) -> {
+                if (position.volume != 0) holdings.put(security, Quantity.of(position.volume));
+            });
+            return holdings;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** Volume from dated actions at or before {@code until}; undated actions are not counted. */
+    public Quantity volumeAsOf(String portfolioId, Security security, LocalDateTime until) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Position position = positionOf(portfolioId, security);
+            return position == null ? Quantity.ZERO : Quantity.of(position.series.valueAt(TimeKeys.of(until)));
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** Positions with a nonzero volume from dated actions at or before {@code until}, with that volume. */
+    public Map<Security, Quantity> holdingsAsOf(String portfolioId, LocalDateTime until) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            PortfolioPositions positions = portfolios.get(portfolioId);
+            if (positions == null) return Map.of();
+            long key = TimeKeys.of(until);
+            Map<Security, Quantity> holdings = new HashMap<>();
+            positions.bySecurity.forEach((security, position) -> {
+                long volume = position.series.valueAt(key);
+                if (volume != 0) holdings.put(security, Quantity.of(volume));
+            });
+            return holdings;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** Dated changes of each position of {@code portfolioId}, all read at the same point in the write history. */
+    public Map<Security, PositionHistory> historiesOf(String portfolioId) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            PortfolioPositions positions = portfolios.get(portfolioId);
+            if (positions == null) return Map.of();
+            Map<Security, PositionHistory> histories = new HashMap<>();
+            positions.bySecurity.forEach((security, position) -> histories.put(security, position.series.history()));
+            return histories;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Visits the positions {@link #holdingsAsOf} would list for each of {@code portfolioIds},
+     * without building maps. The read lock is taken once for the whole call, so every
+     * portfolio is seen at the same point in the write history.
+     */
+    public void forEachHoldingAsOf(Collection<String> portfolioIds, LocalDateTime until, HoldingVisitor visitor) {
+        long key = TimeKeys.of(until);
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            for (String portfolioId : portfolioIds) {
+                PortfolioPositions positions = portfolios.get(portfolioId);
+                if (positions == null) continue;
+                positions.bySecurity.forEach((security, position) -> {
+                    long volume = position.series.valueAt(key);
+                    if (volume != 0) visitor.accept(portfolioId, security, volume);
+                });
+            }
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** Portfolios whose current volume of {@code security} is nonzero. */
+    public Set<String> holdersOf(Security security) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            Set<String> portfolioIds = holders.get(security);
+            return portfolioIds == null ? Set.of() : Set.copyOf(portfolioIds);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    public Set<String> portfolioIds() {
+        return Set.copyOf(portfolios.keySet());
+    }
+
+    /** Rebuilds holdings from scratch the same way the ledger accumulates them. */
+    public static Map<Security, Quantity> replay(List<BaseAction> actions) {
+        Map<Security, Quantity> holdings = new HashMap<>();
+        for (BaseAction action : actions) {
+            for (SecurityChange change : action.getSecurityChanges()) {
+                if (change.getSecurity() == null || change.getVolumeChange() == null) continue;
+                holdings.merge(change.getSecurity(), Quantity.of(change.getVolumeChange()), Quantity::plus);
+            }
+        }
+        return holdings;
+    }
+
+    private Position positionOf(String portfolioId, Security security) {
+        PortfolioPositions positions = portfolios.get(portfolioId);
+        return positions == null ? null : positions.bySecurity.get(security);
+    }
+
+    private void apply(BaseAction action, int sign) {
+        if (action.getPortfolio() == null || action.getPortfolio().getUuid() == null) return;
+        List<SecurityChange> changes = action.getSecurityChanges();
+        if (changes.isEmpty()) return;
+
+        String portfolioId = action.getPortfolio().getUuid();
+        PortfolioPositions positions = portfolios.computeIfAbsent(portfolioId, k -> new PortfolioPositions());
+        LocalDateTime when = action.getDatetime();
+        for (SecurityChange change : changes) {
+            if (change.getSecurity() == null || change.getVolumeChange() == null) continue;
+            Position position = positions.bySecurity.computeIfAbsent(change.getSecurity(), k -> new Position());
+            long volume = change.getVolumeChange().longValueExact();
+            long delta = sign < 0 ? Math.negateExact(volume) : volume;
+            long before = position.volume;
+            position.volume = before + delta;
+            if (when != null) position.series.add(TimeKeys.of(when), delta);
+            if ((before == 0) != (position.volume == 0)) updateHolders(change.getSecurity(), portfolioId, position.volume != 0);
+        }
+    }
+
+    private void updateHolders(Security security, String portfolioId, boolean holds) {
+        if (holds) {
+            holders.computeIfAbsent(security, k -> ConcurrentHashMap.newKeySet()).add(portfolioId);
+        } else {
+            holders.computeIfPresent(security, (k, portfolioIds) -> {
+                portfolioIds.remove(portfolioId);
+                return portfolioIds.isEmpty() ? null : portfolioIds;
+            });
+        }
+    }
+
+    private static final class PortfolioPositions {
+        private final Map<Security, Position> bySecurity = new ConcurrentHashMap<>();
+    }
+
+    private static final class Position {
+        private volatile long volume;
+        private final CumulativeSeries series = new CumulativeSeries();
+    }
+}
@@ -0,0 +1,76 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Consistency check for {@link PositionLedger}: replays every portfolio's full
+ * history and reports each position whose replayed volume differs from the ledger,
+ * both for the current volume and for the end of the dated time series.
+ */
+@Component
+@RequiredArgsConstructor
+public class PositionLedgerVerifier {
+
+    private final ActionRepository actionRepository;
+    private final PositionLedger positionLedger;
+    private final ActionStoreLock lock;
+
+    public record Mismatch(String portfolioId, Security security, boolean asOf,
+                           Quantity ledgerVolume, Quantity replayedVolume) {
+    }
+
+    public List<Mismatch> verify() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return verifyLocked();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    private List<Mismatch> verifyLocked() {
+        Set<String> portfolioIds = new HashSet<>(actionRepository.portfolioIds());
+        portfolioIds.addAll(positionLedger.portfolioIds());
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (String portfolioId : portfolioIds) {
+            compare(portfolioId, false,
+                    positionLedger.holdingsOf(portfolioId),
+                    PositionLedger.replay(actionRepository.findAllActionsOf(portfolioId)),
+                    mismatches);
+            compare(portfolioId, true,
+                    positionLedger.holdingsAsOf(portfolioId, LocalDateTime.MAX),
+                    PositionLedger.replay(actionRepository.findAllActionsOfUntilDate(portfolioId, LocalDateTime.MAX)),
+                    mismatches);
+        }
+        return mismatches;
+    }
+
+    private static void compare(String portfolioId, boolean asOf, Map<Security, Quantity> ledger,
+                                Map<Security, Quantity> replayed, List<Mismatch> mismatches) {
+        Map<Security, Quantity> all = new HashMap<>(replayed);
+        ledger.forEach(all::putIfAbsent);
+        for (Security security : all.keySet()) {
+            Quantity expected = replayed.getOrDefault(security, Quantity.ZERO);
+            Quantity actual = ledger.getOrDefault(security, Quantity.ZERO);
+            if (!expected.equals(actual)) {
+                mismatches.add(new Mismatch(portfolioId, security, asOf, actual, expected));
+            }
+        }
+    }
+}
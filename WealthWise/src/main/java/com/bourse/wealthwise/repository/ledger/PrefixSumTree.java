@@ -0,0 +1,136 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import java.math.BigInteger;
+
+/**
+ * Time-keyed amounts with O(log n) "sum of everything strictly before T".
+ * <p>
+ * A persistent treap: every node carries its subtree sum, and an insert copies
+ * only the O(log n) nodes on its path, so a backdated amount is absorbed without
+ * shifting or rebuilding anything. Priorities are derived from the key, which keeps
+ * the shape deterministic and lets an insert stop early once it cannot meet an
+ * existing node with the same key. Single writer; readers work on whatever root
+ * was last published and never block.
+ * <p>
+ * Each key's amount and every subtree sum are kept in 128 bits ({@code valueHigh:value},
+ * {@code sumHigh:sum}), so an insert never fails because amounts added at the same key,
+ * or some subtree, happen to add up past a {@code long}; only reading a sum back as a
+ * {@code long} can.
+ */
+final class PrefixSumTree {
+
+    private record Node(long key, int priority, long value, long valueHigh, long sum, long sumHigh,
+                        Node left, Node right) {
+
+        static Node of(long key, int priority, long value, long valueHigh, Node left, Node right) {
+            long low = value;
+            long high = valueHigh;
+            if (left != null) {
+                long sum = low + left.sum;
+                high += left.sumHigh + carry(low, sum);
+                low = sum;
+            }
+            if (right != null) {
+                long sum = low + right.sum;
+                high += right.sumHigh + carry(low, sum);
+                low = sum;
+            }
+            return new Node(key, priority, value, valueHigh, low, high, left, right);
+        }
+    }
+
+    private record Wide(long high, long low) {
+    }
+
+    private volatile Node root;
+
+    void add(long key, long amount) {
+        root = insert(root, key, priorityOf(key), amount);
+    }
+
+    /**
+     * Sum of the amounts whose key is strictly less than {@code key}.
+     *
+     * @throws ArithmeticException if the sum does not fit a {@code long}
+     */
+    long sumBefore(long key) {
+        Wide sum = wideSumBefore(key);
+        if (sum.high() != sum.low() >> 63) throw new ArithmeticException("Sum out of long range");
+        return sum.low();
+    }
+
+    /** As {@link #sumBefore}, exact whatever its size. */
+    BigInteger exactSumBefore(long key) {
+        Wide sum = wideSumBefore(key);
+        BigInteger low = BigInteger.valueOf(sum.low() >>> 1).shiftLeft(1).or(BigInteger.valueOf(sum.low() & 1));
+        return BigInteger.valueOf(sum.high()).shiftLeft(64).add(low);
+    }
+
+    private Wide wideSumBefore(long key) {
+        long low = 0L;
+        long high = 0L;
+        Node node = root;
+        while (node != null) {
+            if (node.key() < key) {
+                Node left = node.left();
+                if (left != null) {
+                    long sum = low + left.sum();
+                    high += left.sumHigh() + carry(low, sum);
+                    low = sum;
+                }
+                long sum = low + node.value();
+                high += node.valueHigh() + carry(low, sum);
+                low = sum;
+                node = node.right();
+            } else {
+                node = node.left();
+            }
+        }
+        return new Wide(high, low);
+    }
+
+    private static Node insert(Node node, long key, int priority, long amount) {
+        if (node == null) return Node.of(key, priority, amount, amount >> 63, null, null);
+        if (node.key() == key) {
+            long value = node.value() + amount;
+            long valueHigh = node.valueHigh() + (amount >> 63) + carry(node.value(), value);
+            return Node.of(key, node.priority(), value, valueHigh, node.left(), node.right());
+        }
+        if (priority > node.priority()) {
+            // The key cannot already be below this node: it would share our priority.
+            Node[] halves = split(node, key);
+            return Node.of(key, priority, amount, amount >> 63, halves[0], halves[1]);
+        }
+        if (key < node.key()) {
+            return Node.of(node.key(), node.priority(), node.value(), node.valueHigh(),
+                    insert(node.left(), key, priority, amount), node.right());
+        }
+        return Node.of(node.key(), node.priority(), node.value(), node.valueHigh(),
+                node.left(), insert(node.right(), key, priority, amount));
+    }
+
+    /** Splits into keys below and above {@code key}, which must not be present. */
+    private static Node[] split(Node node, long key) {
+        if (node == null) return new Node[]{null, null};
+        if (node.key() < key) {
+            Node[] halves = split(node.right(), key);
+            return new Node[]{Node.of(node.key(), node.priority(), node.value(), node.valueHigh(),
+                    node.left(), halves[0]), halves[1]};
+        }
+        Node[] halves = split(node.left(), key);
+        return new Node[]{halves[0], Node.of(node.key(), node.priority(), node.value(), node.valueHigh(),
+                halves[1], node.right())};
+    }
+
+    /** Carry out of the unsigned addition {@code before + x} that produced {@code after}. */
+    private static long carry(long before, long after) {
+        return Long.compareUnsigned(after, before) < 0 ? 1L : 0L;
+    }
+
+    private static int priorityOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
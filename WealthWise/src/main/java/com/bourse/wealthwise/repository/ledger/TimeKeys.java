@@ -0,0 +1,26 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Encodes a {@link LocalDateTime} as epoch nanoseconds (UTC) so ledgers can keep
+ * timestamps in primitive arrays. Exact for roughly 1678-2262; instants outside
+ * that range saturate to {@link Long#MIN_VALUE} / {@link Long#MAX_VALUE}.
+ */
+final class TimeKeys {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MAX_SECONDS = Long.MAX_VALUE / NANOS_PER_SECOND;
+    private static final long MIN_SECONDS = Long.MIN_VALUE / NANOS_PER_SECOND;
+
+    private TimeKeys() {
+    }
+
+    static long of(LocalDateTime datetime) {
+        long seconds = datetime.toEpochSecond(ZoneOffset.UTC);
+        if (seconds >= MAX_SECONDS) return Long.MAX_VALUE;
+        if (seconds <= MIN_SECONDS) return Long.MIN_VALUE;
+        return seconds * NANOS_PER_SECOND + datetime.getNano();
+    }
+}
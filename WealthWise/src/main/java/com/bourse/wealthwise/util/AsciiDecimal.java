@@ -0,0 +1,204 @@
+package com.bourse.wealthwise.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free parsing of ASCII numbers straight out of a buffer or a {@link CharSequence}.
+ * <p>
+ * Decimals with at most 15 significant digits and a small decimal exponent are
+ * converted exactly with one multiplication or division by a power of ten, the same
+ * fast path the JDK takes; anything else falls back to {@link Double#parseDouble}.
+ * Malformed input raises {@link NumberFormatException}.
+ */
+public final class AsciiDecimal {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private AsciiDecimal() {
+    }
+
+    /** Parses {@code [-+]digits[.digits][(e|E)[-+]digits]} from bytes {@code from} (inclusive) to {@code to}. */
+    public static double parseDouble(ByteBuffer buffer, int from, int to) {
+        return parseDouble(buffer, null, from, to);
+    }
+
+    /** Same as {@link #parseDouble(ByteBuffer, int, int)} over chars {@code from} (inclusive) to {@code to}. */
+    public static double parseDouble(CharSequence text, int from, int to) {
+        return parseDouble(null, text, from, to);
+    }
+
+    /** Parses an optionally signed decimal integer from bytes {@code from} (inclusive) to {@code to}. */
+    public static long parseLong(ByteBuffer buffer, int from, int to) {
+        return parseLong(buffer, null, from, to);
+    }
+
+    /** Same as {@link #parseLong(ByteBuffer, int, int)} over chars {@code from} (inclusive) to {@code to}. */
+    public static long parseLong(CharSequence text, int from, int to) {
+        return parseLong(null, text, from, to);
+    }
+
+    /**
+     * Days since 1970-01-01 of an ISO {@code yyyy-MM-dd} date, the same value as
+     * {@link java.time.LocalDate#toEpochDay()} without building a {@code LocalDate}.
+     */
+    public static int parseEpochDay(ByteBuffer buffer, int from, int to) {
+        return parseEpochDay(buffer, null, from, to);
+    }
+
+    /** Same as {@link #parseEpochDay(ByteBuffer, int, int)} over chars {@code from} (inclusive) to {@code to}. */
+    public static int parseEpochDay(CharSequence text, int from, int to) {
+        return parseEpochDay(null, text, from, to);
+    }
+
+    /** Same arithmetic as {@link java.time.LocalDate#toEpochDay()}. */
+    public static int epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            if (!leap) total--;
+        }
+        return (int) (total - 719_528L);
+    }
+
+    private static int parseEpochDay(ByteBuffer buffer, CharSequence text, int from, int to) {
+        if (to - from != 10 || at(buffer, text, from + 4) != '-' || at(buffer, text, from + 7) != '-') {
+            throw malformed(buffer, text, from, to);
+        }
+        int year = (int) parseLong(buffer, text, from, from + 4);
+        int month = (int) parseLong(buffer, text, from + 5, from + 7);
+        int day = (int) parseLong(buffer, text, from + 8, from + 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw malformed(buffer, text, from, to);
+        }
+        return epochDay(year, month, day);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static double parseDouble(ByteBuffer buffer, CharSequence text, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (at(buffer, text, i) == '-' || at(buffer, text, i) == '+')) {
+            negative = at(buffer, text, i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        for (; i < to; i++) {
+            int d = at(buffer, text, i) - '0';
+            if (d < 0 || d > 9) break;
+            sawDigit = true;
+            if (mantissa == 0 && d == 0) continue;
+            if (digits < MAX_EXACT_DIGITS + 3) mantissa = mantissa * 10 + d;
+            else exponent++;
+            digits++;
+        }
+        if (i < to && at(buffer, text, i) == '.') {
+            for (i++; i < to; i++) {
+                int d = at(buffer, text, i) - '0';
+                if (d < 0 || d > 9) break;
+                sawDigit = true;
+                if (mantissa == 0 && d == 0) {
+                    exponent--;
+                    continue;
+                }
+                if (digits < MAX_EXACT_DIGITS + 3) {
+                    mantissa = mantissa * 10 + d;
+                    exponent--;
+                }
+                digits++;
+            }
+        }
+        if (!sawDigit) throw malformed(buffer, text, from, to);
+        if (i < to && (at(buffer, text, i) == 'e' || at(buffer, text, i) == 'E')) {
+            int start = ++i;
+            boolean negativeExponent = false;
+            if (i < to && (at(buffer, text, i) == '-' || at(buffer, text, i) == '+')) {
+                negativeExponent = at(buffer, text, i) == '-';
+                i++;
+            }
+            if (i == to) throw malformed(buffer, text, from, to);
+            int explicit = 0;
+            for (; i < to; i++) {
+                int d = at(buffer, text, i) - '0';
+                if (d < 0 || d > 9) throw malformed(buffer, text, from, to);
+                if (explicit < 100_000) explicit = explicit * 10 + d;
+            }
+            if (i == start) throw malformed(buffer, text, from, to);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (i != to) throw malformed(buffer, text, from, to);
+
+        double value = exact(mantissa, digits, exponent);
+        if (value < 0) return Double.parseDouble(text(buffer, text, from, to));
+        return negative ? -value : value;
+    }
+
+    private static long parseLong(ByteBuffer buffer, CharSequence text, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (at(buffer, text, i) == '-' || at(buffer, text, i) == '+')) {
+            negative = at(buffer, text, i) == '-';
+            i++;
+        }
+        if (i == to) throw malformed(buffer, text, from, to);
+        long value = 0;
+        for (; i < to; i++) {
+            int d = at(buffer, text, i) - '0';
+            if (d < 0 || d > 9) throw malformed(buffer, text, from, to);
+            value = Math.addExact(Math.multiplyExact(value, 10), negative ? -d : d);
+        }
+        return value;
+    }
+
+    /**
+     * Character {@code i} of whichever input is non-null. The parsers take both inputs so
+     * bytes and chars share one body without wrapping either in an object per call.
+     */
+    private static int at(ByteBuffer buffer, CharSequence text, int i) {
+        return buffer != null ? buffer.get(i) : text.charAt(i);
+    }
+
+    /**
+     * The magnitude {@code mantissa * 10^exponent} when it can be computed exactly with one
+     * floating-point operation, otherwise -1 so the caller takes the JDK's slow path.
+     */
+    private static double exact(long mantissa, int digits, int exponent) {
+        if (mantissa == 0) return 0.0;
+        if (digits > MAX_EXACT_DIGITS || exponent < -22 || exponent > 22) return -1;
+        return exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+    }
+
+    private static String text(ByteBuffer buffer, CharSequence text, int from, int to) {
+        if (buffer == null) return text.subSequence(from, to).toString();
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static NumberFormatException malformed(ByteBuffer buffer, CharSequence text, int from, int to) {
+        return new NumberFormatException("Not a number: \"" + text(buffer, text, from, to) + "\"");
+    }
+}
@@ -0,0 +1,167 @@
+package com.bourse.wealthwise.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hand-off between a producer (typically a JMS listener thread) and a pool of
+ * workers, partitioned by key.
+ * <p>
+ * Every key maps to one lane, and each lane is a bounded queue drained by a single
+ * worker, so items with the same key are handled one at a time in submission order while
+ * different keys proceed in parallel. A worker hands the handler everything waiting in
+ * its lane, up to {@code maxBatch} items, in one call. When a lane is full {@link #put}
+ * blocks, which stalls the producer and so pushes back on whatever feeds it.
+ */
+@Slf4j
+public final class PartitionedWorkQueue<K, T> implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Counters since creation. Put wait is the time producers spent blocked on a full lane,
+     * queue wait the time from {@link #put} to the start of handling, and processing the
+     * handler time per batch.
+     */
+    public record Stats(int depth, int capacity, long submitted, long processed, long failed, long batches,
+                        long blockedPuts, double avgPutWaitMillis, double maxPutWaitMillis,
+                        double avgQueueWaitMillis, double avgProcessingMillis) {
+    }
+
+    private record Entry<T>(T item, long enqueuedNanos) {
+    }
+
+    private final String name;
+    private final List<ArrayBlockingQueue<Entry<T>>> lanes;
+    private final List<Thread> workers;
+    private final Consumer<List<T>> handler;
+    private final int capacityPerLane;
+    private final int maxBatch;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder blockedPuts = new LongAdder();
+    private final LongAdder putWaitNanos = new LongAdder();
+    private final AtomicLong maxPutWaitNanos = new AtomicLong();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+
+    /**
+     * Starts {@code lanes} worker threads named {@code name-<lane>}; {@code handler} is called
+     * with batches of one lane's items and must not retain the list.
+     */
+    public PartitionedWorkQueue(String name, int lanes, int capacityPerLane, int maxBatch, Consumer<List<T>> handler) {
+        if (lanes < 1 || capacityPerLane < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("Lanes, capacity and batch size must be positive");
+        }
+        this.name = name;
+        this.handler = handler;
+        this.capacityPerLane = capacityPerLane;
+        this.maxBatch = maxBatch;
+        this.lanes = new ArrayList<>(lanes);
+        this.workers = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            ArrayBlockingQueue<Entry<T>> lane = new ArrayBlockingQueue<>(capacityPerLane);
+            this.lanes.add(lane);
+            workers.add(Thread.ofPlatform().name(name + "-" + i).daemon().start(() -> drain(lane)));
+        }
+    }
+
+    /** Queues {@code item} on the lane of {@code key}, waiting while that lane is full. */
+    public void put(K key, T item) throws InterruptedException {
+        if (closed) throw new IllegalStateException(name + " is closed");
+        ArrayBlockingQueue<Entry<T>> lane = lanes.get(laneOf(key));
+        Entry<T> entry = new Entry<>(item, System.nanoTime());
+        if (!lane.offer(entry)) {
+            lane.put(entry);
+            long waited = System.nanoTime() - entry.enqueuedNanos();
+            blockedPuts.increment();
+            putWaitNanos.add(waited);
+            maxPutWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        submitted.increment();
+    }
+
+    public int depth() {
+        int depth = 0;
+        for (ArrayBlockingQueue<Entry<T>> lane : lanes) depth += lane.size();
+        return depth;
+    }
+
+    public Stats stats() {
+        long batchCount = batches.sum();
+        long done = processed.sum() + failed.sum();
+        long blocked = blockedPuts.sum();
+        return new Stats(depth(), capacityPerLane * lanes.size(), submitted.sum(), processed.sum(), failed.sum(),
+                batchCount, blocked,
+                blocked == 0 ? 0 : putWaitNanos.sum() / 1e6 / blocked,
+                maxPutWaitNanos.get() / 1e6,
+                done == 0 ? 0 : queueWaitNanos.sum() / 1e6 / done,
+                batchCount == 0 ? 0 : processingNanos.sum() / 1e6 / batchCount);
+    }
+
+    /** Stops accepting items, lets the workers finish what is queued and waits for them. */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int laneOf(K key) {
+        int h = key == null ? 0 : key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.size());
+    }
+
+    private void drain(ArrayBlockingQueue<Entry<T>> lane) {
+        List<Entry<T>> entries = new ArrayList<>(maxBatch);
+        List<T> items = new ArrayList<>(maxBatch);
+        while (true) {
+            Entry<T> first;
+            try {
+                first = closed ? lane.poll() : lane.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (closed) return;
+                continue;
+            }
+            entries.add(first);
+            lane.drainTo(entries, maxBatch - 1);
+
+            long started = System.nanoTime();
+            for (Entry<T> entry : entries) {
+                queueWaitNanos.add(started - entry.enqueuedNanos());
+                items.add(entry.item());
+            }
+            try {
+                handler.accept(items);
+                processed.add(items.size());
+            } catch (RuntimeException e) {
+                log.error("{}: batch of {} items failed", name, items.size(), e);
+                failed.add(items.size());
+            }
+            processingNanos.add(System.nanoTime() - started);
+            batches.increment();
+            entries.clear();
+            items.clear();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bourse.wealthwise.domain.entity.money;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH comparison of a valuation loop (price x volume summed over 4,096 positions) and a
+ * cash-balance loop (4,096 signed amounts summed) in BigDecimal / BigInteger against
+ * {@link Price} / {@link Money}, with the GC profiler reporting bytes allocated per loop; run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoneyBenchmark {
+
+    private static final int POSITIONS = 4_096;
+
+    private BigDecimal[] decimalPrices;
+    private Price[] prices;
+    private long[] volumes;
+    private BigInteger[] bigAmounts;
+    private long[] amounts;
+
+    @Setup
+    public void setUp() {
+        decimalPrices = new BigDecimal[POSITIONS];
+        prices = new Price[POSITIONS];
+        volumes = new long[POSITIONS];
+        bigAmounts = new BigInteger[POSITIONS];
+        amounts = new long[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            double price = 1_000 + (i * 37 % 5_000) + (i % 4) * 0.25;
+            decimalPrices[i] = BigDecimal.valueOf(price);
+            prices[i] = Price.of(price);
+            volumes[i] = 100 + i * 13L % 100_000;
+            amounts[i] = (i % 3 == 0 ? -1 : 1) * (10_000L + i);
+            bigAmounts[i] = BigInteger.valueOf(amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal valuationBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < POSITIONS; i++) total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(volumes[i])));
+        return total;
+    }
+
+    @Benchmark
+    public Money valuationMoney() {
+        long units = 0;
+        for (int i = 0; i < POSITIONS; i++) units = Math.addExact(units, prices[i].unitsTimes(volumes[i]));
+        return Money.ofUnits(units);
+    }
+
+    @Benchmark
+    public BigInteger balanceBigInteger() {
+        BigInteger total = BigInteger.ZERO;
+        for (int i = 0; i < POSITIONS; i++) total = total.add(bigAmounts[i]);
+        return total;
+    }
+
+    @Benchmark
+    public Money balanceMoney() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < POSITIONS; i++) total = total.plus(Money.ofUnits(amounts[i]));
+        return total;
+    }
+
+    @Test
+    void compareArithmetic() throws Exception {
+        assertThat(valuationMoneyResultMatches()).isTrue();
+        // In-process (forks 0): surefire's manifest-only classpath is not visible to a forked JVM.
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build()).run();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            System.out.printf("%s: %,.0f loops/s, %.1f B/loop%n", name.substring(name.lastIndexOf('.') + 1),
+                    result.getPrimaryResult().getScore(),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore());
+        }
+        assertThat(results).hasSize(4);
+    }
+
+    private boolean valuationMoneyResultMatches() {
+        setUp();
+        return valuationMoney().toBigDecimal().compareTo(valuationBigDecimal()) == 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bourse.wealthwise.domain.entity.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MoneyTest {
+
+    @Test
+    void amounts_areHundredthsRoundedHalfEven() {
+        assertThat(Money.of(12).units()).isEqualTo(1_200);
+        assertThat(Money.of(BigInteger.valueOf(-5)).units()).isEqualTo(-500);
+        assertThat(Money.of(100.25).times(3)).isEqualTo(Money.ofUnits(30_075));
+        assertThat(Money.of(new BigDecimal("0.125")).units()).isEqualTo(12);
+        assertThat(Money.of(new BigDecimal("0.135")).units()).isEqualTo(14);
+        assertThat(Money.of(7.5).plus(Money.of(2)).minus(Money.of(0.25)).toBigDecimal()).isEqualByComparingTo("9.25");
+        assertThat(Money.of(-3).negate().toString()).isEqualTo("3.00");
+        assertThat(Money.of(1).times(Quantity.of(5).minus(Quantity.of(7)))).isEqualTo(Money.of(-2));
+    }
+
+    @Test
+    void priceTimesVolume_isRoundedOnceHalfEven() {
+        Price price = Price.of(12.345);
+        assertThat(price.micros()).isEqualTo(12_345_000);
+        assertThat(price.times(1_000_000)).isEqualTo(Money.of(12_345_000));
+        assertThat(price.times(7)).isEqualTo(Money.ofUnits(8_642));
+        assertThat(price.times(Quantity.of(-7))).isEqualTo(Money.ofUnits(-8_642));
+        assertThat(Price.of(0.125).times(1)).isEqualTo(Money.ofUnits(12));
+        // Product beyond a long of millionths still matches the exact BigDecimal product.
+        assertThat(Price.of(123_456.789).times(1_000_000_001L))
+                .isEqualTo(Money.of(new BigDecimal("123456789123456.789")));
+    }
+
+    @Test
+    void overflow_throwsInsteadOfWrapping() {
+        Money big = Money.ofUnits(Long.MAX_VALUE / 2 + 1);
+        assertThatThrownBy(() -> big.plus(big)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> big.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(Long.MAX_VALUE / 10)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofUnits(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Quantity.of(BigInteger.ONE.shiftLeft(63))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Quantity.of(Long.MAX_VALUE).plus(Quantity.of(1))).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -8,6 +8,8 @@ import com.bourse.wealthwise.repository.ActionRepository;
 import com.bourse.wealthwise.repository.PortfolioRepository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -149,4 +151,67 @@ public class BalanceActionServiceTest {
         actionRepository.deleteById(withdrawal.getUuid());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void backdatedDepositEnters_getBalanceAtDifferentTimes_onlyLaterQueriesIncludeIt(){
+        LocalDateTime now = LocalDateTime.now();
+        Deposit recent = Deposit.builder()
+                .uuid(UUID.randomUUID().toString())
+                .portfolio(portfolio)
+                .datetime(now.minusDays(1))
+                .amount(BigInteger.valueOf(1000))
+                .build();
+        Deposit backdated = Deposit.builder()
+                .uuid(UUID.randomUUID().toString())
+                .portfolio(portfolio)
+                .datetime(now.minusDays(10))
+                .amount(BigInteger.valueOf(500))
+                .build();
+        actionRepository.save(recent);
+        actionRepository.save(backdated);
+
+        String portfolioId = "21e42b92-cef6-453f-9e52-fa76b1d830f6";
+        assertEquals(BigInteger.ZERO, balanceActionService.getBalanceForPortfolio(portfolioId, now.minusDays(10)));
+        assertEquals(BigInteger.valueOf(500), balanceActionService.getBalanceForPortfolio(portfolioId, now.minusDays(5)));
+        assertEquals(BigInteger.valueOf(1500), balanceActionService.getBalanceForPortfolio(portfolioId, now));
+        actionRepository.deleteById(recent.getUuid());
+        actionRepository.deleteById(backdated.getUuid());
+    }
+
+
+    @Test
+    public void depositsAddingUpPastLongRange_balanceIsExact_andOutOfRangeDepositRejected() {
+        Portfolio rich = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "rich");
+        portfolioRepository.save(rich);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        LocalDateTime when = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 3; i++) {
+            actionRepository.save(Deposit.builder()
+                    .portfolio(rich)
+                    .datetime(when.plusMinutes(i))
+                    .amount(max)
+                    .actionType(ActionType.DEPOSIT)
+                    .build());
+        }
+        Deposit tooLarge = Deposit.builder()
+                .uuid("too-large")
+                .portfolio(rich)
+                .datetime(when)
+                .amount(max.add(BigInteger.ONE))
+                .actionType(ActionType.DEPOSIT)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> actionRepository.save(tooLarge));
+        assertTrue(actionRepository.findById("too-large").isEmpty());
+        assertEquals(max.multiply(BigInteger.valueOf(3)),
+                balanceActionService.getBalanceForPortfolio(rich.getUuid(), LocalDateTime.now()));
+    }
+
+    @Test
+    public void actionsMissingTheirAmounts_changeNoCash() {
+        assertEquals(BigInteger.ZERO, Deposit.builder().build().getBalanceChangeAmount());
+        assertEquals(BigInteger.ZERO, Withdrawal.builder().build().getBalanceChangeAmount());
+        assertEquals(BigInteger.ZERO, StockRightUsage.builder().build().getBalanceChangeAmount());
+        assertEquals(BigInteger.ZERO, Buy.builder().build().getBalanceChangeAmount());
+        assertEquals(BigInteger.ZERO, Sale.builder().build().getBalanceChangeAmount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-of-day valuation of a 100k-portfolio book, one summary per portfolio against one
+ * {@link BookValuationService#valueAll} call; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "logging.level.com.bourse.wealthwise.domain.services.BookValuationService=WARN",
+        "app.result-cache.max-entries=0"
+})
+class BookValuationBenchmark {
+
+    private static final int PORTFOLIOS = 100_000;
+    private static final int SECURITIES = 500;
+    private static final int HOLDINGS = 8;
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 16);
+
+    @Autowired BookValuationService bookValuationService;
+    @Autowired PortfolioStockSummaryService summaryService;
+    @Autowired ActionRepository actionRepository;
+    @Autowired SecurityPriceRepository securityPriceRepository;
+    @Autowired PositionLedger positionLedger;
+
+    @Test
+    void wholeBook() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        Security[] securities = new Security[SECURITIES];
+        for (int s = 0; s < SECURITIES; s++) {
+            securities[s] = Security.builder().name("Sec " + s).symbol("SEC" + s).isin("IRO1SEC" + s).build();
+            for (int d = 0; d < 250; d++) securityPriceRepository.addPrice(securities[s].getIsin(), DATE.minusDays(d), 1000 + s + d);
+        }
+        List<BaseAction> actions = new ArrayList<>(PORTFOLIOS * HOLDINGS);
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            Portfolio portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "P" + p);
+            for (int h = 0; h < HOLDINGS; h++) {
+                actions.add(Buy.builder().portfolio(portfolio).security(securities[(p * 31 + h * 7) % SECURITIES])
+                        .volume(BigInteger.valueOf(100 + h)).price(1).totalValue(BigInteger.ONE)
+                        .datetime(DATE.minusDays(h).atTime(10, 0)).build());
+            }
+        }
+        actionRepository.saveAll(actions);
+        List<String> portfolioIds = List.copyOf(positionLedger.portfolioIds());
+
+        BigDecimal perPortfolio = BigDecimal.ZERO;
+        BookValuationService.BookValuation book = null;
+        long loopNanos = Long.MAX_VALUE;
+        long bookNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long started = System.nanoTime();
+            perPortfolio = BigDecimal.ZERO;
+            for (String portfolioId : portfolioIds) {
+                for (SecuritySummary summary : summaryService.getSecuritiesSummary(UUID.fromString(portfolioId), DATE)) {
+                    perPortfolio = perPortfolio.add(summary.getValue().toBigDecimal());
+                }
+            }
+            loopNanos = Math.min(loopNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            book = bookValuationService.valueAll(DATE);
+            bookNanos = Math.min(bookNanos, System.nanoTime() - started);
+        }
+
+        System.out.printf("valuation of %,d portfolios x %d holdings (%d cores): per-portfolio summaries %,d ms, valueAll %,d ms (%.1fx)%n",
+                PORTFOLIOS, HOLDINGS, Runtime.getRuntime().availableProcessors(),
+                loopNanos / 1_000_000, bookNanos / 1_000_000, (double) loopNanos / bookNanos);
+        assertThat(book.total().toBigDecimal()).isEqualByComparingTo(perPortfolio);
+    }
+}
@@ -0,0 +1,146 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import com.bourse.wealthwise.domain.services.BookValuationService.BookValuation;
+import com.bourse.wealthwise.domain.services.BookValuationService.SecurityExposure;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = "app.valuation.chunk-size=2")
+public class BookValuationServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 16);
+
+    @Autowired private BookValuationService bookValuationService;
+    @Autowired private PortfolioStockSummaryService summaryService;
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private SecurityPriceRepository securityPriceRepository;
+
+    private final Security priced = Security.builder().name("Alpha").symbol("ALPHA").isin("ISIN-ALPHA").build();
+    private final Security stale = Security.builder().name("Beta").symbol("BETA").isin("ISIN-BETA").build();
+    private final Security unpriced = Security.builder().name("Gamma").symbol("GAMMA").isin("ISIN-GAMMA").build();
+
+    @BeforeEach
+    void setup() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        securityPriceRepository.addPrice(priced.getIsin(), DATE, 12.5);
+        securityPriceRepository.addPrice(priced.getIsin(), DATE.plusDays(1), 99.0);
+        securityPriceRepository.addPrice(stale.getIsin(), DATE.minusDays(3), 4.0);
+    }
+
+    @Test
+    void everyPortfolio_matchesItsSecuritiesSummary() {
+        List<Portfolio> portfolios = new ArrayList<>();
+        List<BaseAction> actions = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Portfolio portfolio = portfolio();
+            portfolios.add(portfolio);
+            actions.add(buy(portfolio, priced, 10 + i, DATE.atTime(9, 0)));
+            if (i % 2 == 0) actions.add(buy(portfolio, stale, 100, DATE.minusDays(5).atStartOfDay()));
+            if (i % 3 == 0) actions.add(buy(portfolio, unpriced, 7, DATE.atTime(10, 0)));
+            actions.add(buy(portfolio, priced, 1_000, DATE.plusDays(1).atTime(9, 0)));
+        }
+        actions.add(sale(portfolios.get(0), stale, 100, DATE.atTime(11, 0)));
+        actionRepository.saveAll(actions);
+
+        BookValuation valuation = bookValuationService.valueAll(DATE);
+
+        assertThat(valuation.portfolioValues()).hasSize(7);
+        Money total = Money.ZERO;
+        for (Portfolio portfolio : portfolios) {
+            Money expected = summaryValue(portfolio);
+            assertThat(valuation.portfolioValues().get(portfolio.getUuid())).isEqualTo(expected);
+            total = total.plus(expected);
+        }
+        assertThat(valuation.total()).isEqualTo(total);
+
+        assertThat(valuation.exposures()).extracting(SecurityExposure::security).containsExactly(priced, stale, unpriced);
+        SecurityExposure alpha = valuation.exposures().get(0);
+        assertThat(alpha.volume()).isEqualTo(Quantity.of(7 * 10 + 21));
+        assertThat(alpha.holders()).isEqualTo(7);
+        assertThat(alpha.value()).isEqualTo(Money.of(91 * 12.5));
+        assertThat(valuation.exposures().get(1).holders()).isEqualTo(3);
+        assertThat(valuation.exposures().get(1).value()).isEqualTo(Money.of(1_200));
+        assertThat(valuation.exposures().get(2).volume()).isEqualTo(Quantity.of(21));
+        assertThat(valuation.exposures().get(2).value()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void pricesWithMoreDecimalsThanMoney_areNotRoundedBeforeMultiplying() {
+        Security fine = Security.builder().name("Delta").symbol("DELTA").isin("ISIN-DELTA").build();
+        securityPriceRepository.addPrice(fine.getIsin(), DATE, 12.345);
+        Portfolio large = portfolio();
+        Portfolio small = portfolio();
+        actionRepository.saveAll(List.of(
+                buy(large, fine, 1_000_000, DATE.atTime(9, 0)),
+                buy(small, fine, 7, DATE.atTime(9, 0)),
+                buy(small, priced, 3, DATE.atTime(9, 0))));
+
+        BookValuation valuation = bookValuationService.valueAll(DATE);
+
+        assertThat(valuation.portfolioValues().get(large.getUuid())).isEqualTo(Money.of(12_345_000));
+        // 7 x 12.345 = 86.415, rounded half-even once.
+        assertThat(valuation.portfolioValues().get(small.getUuid())).isEqualTo(Money.ofUnits(8_642 + 3_750));
+        assertThat(valuation.portfolioValues().get(large.getUuid())).isEqualTo(summaryValue(large));
+        assertThat(valuation.portfolioValues().get(small.getUuid())).isEqualTo(summaryValue(small));
+    }
+
+    @Test
+    void portfolioWithOnlyLaterActions_isValuedAtZero() {
+        Portfolio portfolio = portfolio();
+        actionRepository.save(buy(portfolio, priced, 5, DATE.plusDays(2).atStartOfDay()));
+
+        BookValuation valuation = bookValuationService.valueAll(DATE);
+
+        assertThat(valuation.portfolioValues()).containsOnlyKeys(portfolio.getUuid());
+        assertThat(valuation.portfolioValues().get(portfolio.getUuid())).isEqualTo(Money.ZERO);
+        assertThat(valuation.exposures()).isEmpty();
+    }
+
+    /** The portfolio's securities summary, each line rounded to cents. */
+    private Money summaryValue(Portfolio portfolio) {
+        Money value = Money.ZERO;
+        for (SecuritySummary summary : summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), DATE)) {
+            value = value.plus(summary.getValue());
+        }
+        return value;
+    }
+
+    private static Portfolio portfolio() {
+        return new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "Book");
+    }
+
+    private static Buy buy(Portfolio portfolio, Security security, long volume, LocalDateTime at) {
+        return Buy.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(volume))
+                .price(1).totalValue(BigInteger.valueOf(volume)).datetime(at).build();
+    }
+
+    private static Sale sale(Portfolio portfolio, Security security, long volume, LocalDateTime at) {
+        return Sale.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(volume))
+                .price(1).totalValue(BigInteger.valueOf(volume)).datetime(at).build();
+    }
+}
@@ -6,6 +6,7 @@ import com.bourse.wealthwise.domain.entity.account.User;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.AnnouncementDedupCache;
 import com.bourse.wealthwise.repository.PortfolioRepository;
 import com.bourse.wealthwise.repository.SecurityRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,11 +15,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 public class CapitalRaiseServiceTest {
@@ -27,6 +30,7 @@ public class CapitalRaiseServiceTest {
     @Autowired private SecurityRepository securityRepository;
     @Autowired private PortfolioRepository portfolioRepository;
     @Autowired private ActionRepository actionRepository;
+    @Autowired private AnnouncementDedupCache dedupCache;
 
     @BeforeEach
     void setup() {
@@ -67,4 +71,137 @@ public class CapitalRaiseServiceTest {
         assertThat(cr.getSecurity().getSymbol()).isEqualTo("FOO_X");
         assertThat(cr.getVolume()).isEqualTo(BigInteger.valueOf(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void manyHolders_grantedThroughParallelFanOut() {
+        Security stock = stockWithRight("BAR");
+        int holders = 3_000;
+        for (int i = 0; i < holders; i++) holder("BAR-" + i, stock, 10 + i % 5);
+
+        capitalRaiseService.processAnnouncement("BAR", 0.5, LocalDateTime.now());
+
+        for (int i = 0; i < holders; i++) {
+            List<CapitalRaise> crs = actionRepository.findAllActionsOf("BAR-" + i).stream()
+                    .filter(a -> a instanceof CapitalRaise)
+                    .map(a -> (CapitalRaise) a)
+                    .toList();
+            assertThat(crs).hasSize(1);
+            assertThat(crs.get(0).getVolume()).isEqualTo(BigInteger.valueOf((10 + i % 5) / 2));
+        }
+    }
+
+    @Test
+    void batch_skipsUnknownSymbols_andSeesRightsGrantedEarlierInTheBatch() {
+        Security stock = stockWithRight("BAZ");
+        securityRepository.addSecurity(Security.builder().name("BAZ Right Right").symbol("BAZ_X_X").isin("ISIN-BAZ-X-X").build());
+        Portfolio p = holder("BAZ-P", stock, 10);
+
+        int rejected = capitalRaiseService.processAnnouncements(List.of(
+                new CapitalRaiseService.Announcement("BAZ", 0.5),
+                new CapitalRaiseService.Announcement("NOPE", 0.5),
+                new CapitalRaiseService.Announcement("BAZ_X", 0.4)), LocalDateTime.now());
+
+        assertThat(rejected).isEqualTo(1);
+        List<CapitalRaise> crs = actionRepository.findAllActionsOf(p.getUuid()).stream()
+                .filter(a -> a instanceof CapitalRaise)
+                .map(a -> (CapitalRaise) a)
+                .toList();
+        assertThat(crs).extracting(cr -> cr.getSecurity().getSymbol()).containsExactlyInAnyOrder("BAZ_X", "BAZ_X_X");
+        assertThat(crs).extracting(CapitalRaise::getVolume)
+                .containsExactlyInAnyOrder(BigInteger.valueOf(5), BigInteger.valueOf(2));
+    }
+
+    @Test
+    void batchFailingAfterEarlierGrants_savesNothingAndCanBeRetried() {
+        holder("ZED-P", stockWithRight("ZED"), 10);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Both grants saturate at Long.MAX_VALUE, so staging the second one overflows.
+        List<CapitalRaiseService.Announcement> batch = List.of(
+                new CapitalRaiseService.Announcement("ZED", 0.5),
+                new CapitalRaiseService.Announcement("ZED", 1e30),
+                new CapitalRaiseService.Announcement("ZED", 2e30));
+        assertThatThrownBy(() -> capitalRaiseService.processAnnouncements(batch, now))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(actionRepository.findAllActionsOf("ZED-P")).hasSize(1);
+
+        capitalRaiseService.processAnnouncements(List.of(batch.get(0)), now);
+        assertThat(actionRepository.findAllActionsOf("ZED-P")).hasSize(2);
+    }
+
+    @Test
+    void announcementKey_isItsDateAndRatio_notTheProcessingDayOrDoubleFormatting() {
+        holder("DAT-P", stockWithRight("DAT"), 100);
+        LocalDate announcedOn = LocalDate.now();
+        LocalDateTime beforeMidnight = announcedOn.atTime(23, 59, 59);
+
+        capitalRaiseService.processAnnouncement("DAT", 0.3, announcedOn, beforeMidnight);
+        // Redelivered after midnight with the ratio computed rather than parsed.
+        capitalRaiseService.processAnnouncements(
+                List.of(new CapitalRaiseService.Announcement("DAT", 0.1 + 0.2, announcedOn)), beforeMidnight.plusSeconds(2));
+        assertThat(actionRepository.findAllActionsOf("DAT-P")).filteredOn(a -> a instanceof CapitalRaise).hasSize(1);
+
+        capitalRaiseService.processAnnouncement("DAT", 0.3, announcedOn.plusDays(1), beforeMidnight.plusSeconds(2));
+        assertThat(actionRepository.findAllActionsOf("DAT-P")).filteredOn(a -> a instanceof CapitalRaise).hasSize(2);
+    }
+
+    @Test
+    void duplicateStorm_grantsOnce_evenAcrossSingleAndBatchPaths() {
+        Security stock = stockWithRight("QUX");
+        int holders = 1_000;
+        for (int i = 0; i < holders; i++) holder("QUX-" + i, stock, 10);
+        long duplicatesBefore = dedupCache.duplicates();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate announcedOn = now.toLocalDate();
+
+        for (int i = 0; i < 10_000; i++) capitalRaiseService.processAnnouncement("QUX", 0.5, announcedOn, now);
+        capitalRaiseService.processAnnouncements(
+                List.of(new CapitalRaiseService.Announcement("QUX", 0.5, announcedOn)), now);
+
+        for (int i = 0; i < holders; i++) {
+            List<CapitalRaise> crs = actionRepository.findAllActionsOf("QUX-" + i).stream()
+                    .filter(a -> a instanceof CapitalRaise)
+                    .map(a -> (CapitalRaise) a)
+                    .toList();
+            assertThat(crs).hasSize(1);
+            assertThat(crs.get(0).getTracing_number())
+                    .isEqualTo(CapitalRaiseService.idempotencyKey("QUX", 0.5, announcedOn));
+        }
+        assertThat(dedupCache.duplicates() - duplicatesBefore).isEqualTo(10_000);
+    }
+
+    @Test
+    void undatedRaisesWithTheSameRatio_areBothApplied() {
+        holder("UND-P", stockWithRight("UND"), 10);
+        LocalDateTime now = LocalDateTime.now();
+
+        capitalRaiseService.processAnnouncement("UND", 0.5, now);
+        capitalRaiseService.processAnnouncements(List.of(new CapitalRaiseService.Announcement("UND", 0.5)), now.plusDays(1));
+
+        assertThat(actionRepository.findAllActionsOf("UND-P")).filteredOn(a -> a instanceof CapitalRaise)
+                .extracting(a -> ((CapitalRaise) a).getVolume())
+                .containsExactly(BigInteger.valueOf(5), BigInteger.valueOf(5));
+    }
+
+    /** Registers {@code symbol} and its right {@code symbol_X}; returns the stock. */
+    private Security stockWithRight(String symbol) {
+        Security stock = Security.builder().name(symbol + " Inc").symbol(symbol).isin("ISIN-" + symbol).build();
+        securityRepository.addSecurity(stock);
+        securityRepository.addSecurity(Security.builder().name(symbol + " Right").symbol(symbol + "_X")
+                .isin("ISIN-" + symbol + "-X").build());
+        return stock;
+    }
+
+    /** Saves portfolio {@code portfolioId} holding {@code volume} of {@code stock}, bought yesterday. */
+    private Portfolio holder(String portfolioId, Security stock, long volume) {
+        Portfolio p = new Portfolio(portfolioId, User.builder().build(), "Holder " + portfolioId);
+        portfolioRepository.save(p);
+        actionRepository.save(Buy.builder()
+                .portfolio(p)
+                .security(stock)
+                .volume(BigInteger.valueOf(volume))
+                .datetime(LocalDateTime.now().minusDays(1))
+                .build());
+        return p;
+    }
+}
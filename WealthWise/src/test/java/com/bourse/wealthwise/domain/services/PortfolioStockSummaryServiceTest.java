@@ -2,7 +2,9 @@ package com.bourse.wealthwise.domain.services;
 
 import com.bourse.wealthwise.domain.entity.account.User;
 import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
 import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -77,10 +80,55 @@ public class PortfolioStockSummaryServiceTest {
             assertEquals(1, result.size());
 
             SecuritySummary summary = result.get(0);
-            assertEquals(6, summary.getVolume());
-            assertEquals(6 * 150.0, summary.getValue().doubleValue());
+            assertEquals(6, summary.getVolume().value());
+            assertEquals(6 * 150.0, summary.getValue().toBigDecimal().doubleValue());
 
         }
+
+        @Test
+        void testSummary_countsGrantedRightsAndSharesSubscribedWithThem() {
+            Portfolio portfolio = createTestPortfolio();
+            Security stock = createTestSecurity("Stock", "ISIN-S");
+            Security right = Security.builder().name("Stock Right").symbol("SYM_Stock_X").isin("ISIN-S-X")
+                    .securityType(SecurityType.STOCK_RIGHT).build();
+
+            actionRepository.save(Buy.builder()
+                    .uuid(UUID.randomUUID().toString())
+                    .portfolio(portfolio)
+                    .security(stock)
+                    .volume(BigInteger.valueOf(10))
+                    .price(100)
+                    .totalValue(BigInteger.valueOf(1000))
+                    .datetime(LocalDateTime.of(2025, 6, 14, 10, 0))
+                    .build());
+            actionRepository.save(CapitalRaise.builder()
+                    .uuid(UUID.randomUUID().toString())
+                    .portfolio(portfolio)
+                    .security(right)
+                    .volume(BigInteger.valueOf(3))
+                    .datetime(LocalDateTime.of(2025, 6, 15, 10, 0))
+                    .build());
+            actionRepository.save(StockRightUsage.builder()
+                    .uuid(UUID.randomUUID().toString())
+                    .portfolio(portfolio)
+                    .rightSecurity(right)
+                    .stockSecurity(stock)
+                    .rightsUsed(BigInteger.valueOf(2))
+                    .pricePerRight(BigInteger.valueOf(100))
+                    .datetime(LocalDateTime.of(2025, 6, 15, 14, 0))
+                    .build());
+            securityPriceRepository.addPrice(stock.getIsin(), TEST_DATE, 100.0);
+            securityPriceRepository.addPrice(right.getIsin(), TEST_DATE, 10.0);
+
+            List<SecuritySummary> result = summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), TEST_DATE);
+            assertEquals(2, result.size());
+            assertEquals(stock, result.get(0).getSecurity());
+            assertEquals(12, result.get(0).getVolume().value());
+            assertEquals(1200.0, result.get(0).getValue().toBigDecimal().doubleValue());
+            assertEquals(right, result.get(1).getSecurity());
+            assertEquals(1, result.get(1).getVolume().value());
+            assertEquals(10.0, result.get(1).getValue().toBigDecimal().doubleValue());
+        }
     }
 
     @Nested
@@ -115,8 +163,8 @@ public class PortfolioStockSummaryServiceTest {
 
             List<SecuritySummary> result = summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), TEST_DATE);
             assertEquals(1, result.size());
-            assertEquals(5, result.get(0).getVolume());
-            assertEquals(500.0, result.get(0).getValue().doubleValue());
+            assertEquals(5, result.get(0).getVolume().value());
+            assertEquals(500.0, result.get(0).getValue().toBigDecimal().doubleValue());
         }
 
         @Test
@@ -150,8 +198,56 @@ public class PortfolioStockSummaryServiceTest {
 
             List<SecuritySummary> result = summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), TEST_DATE);
             assertEquals(1, result.size());
-            assertEquals(-2, result.get(0).getVolume());
-            assertEquals(-200.0, result.get(0).getValue().doubleValue());
+            assertEquals(-2, result.get(0).getVolume().value());
+            assertEquals(-200.0, result.get(0).getValue().toBigDecimal().doubleValue());
+        }
+
+        @Test
+        void testSummary_noPriceOnDate_usesLastKnownPrice() {
+            Portfolio portfolio = createTestPortfolio();
+            Security security = createTestSecurity("Weekend", "ISIN3");
+
+            Buy buy = Buy.builder()
+                    .uuid(UUID.randomUUID().toString())
+                    .portfolio(portfolio)
+                    .security(security)
+                    .volume(BigInteger.valueOf(4))
+                    .price(100)
+                    .totalValue(BigInteger.valueOf(400))
+                    .datetime(LocalDateTime.of(2025, 6, 10, 10, 0))
+                    .build();
+
+            actionRepository.save(buy);
+            securityPriceRepository.addPrice(security.getIsin(), TEST_DATE.minusDays(3), 120.0);
+            securityPriceRepository.addPrice(security.getIsin(), TEST_DATE.plusDays(1), 130.0);
+
+            List<SecuritySummary> result = summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), TEST_DATE);
+            assertEquals(1, result.size());
+            assertEquals(4 * 120.0, result.get(0).getValue().toBigDecimal().doubleValue());
+        }
+
+        @Test
+        void testSummary_volumeBeyondIntRange_isNotTruncated() {
+            Portfolio portfolio = createTestPortfolio();
+            Security security = createTestSecurity("Huge", "ISIN4");
+            long volume = 3_000_000_000L;
+
+            Buy buy = Buy.builder()
+                    .uuid(UUID.randomUUID().toString())
+                    .portfolio(portfolio)
+                    .security(security)
+                    .volume(BigInteger.valueOf(volume))
+                    .price(1)
+                    .totalValue(BigInteger.valueOf(volume))
+                    .datetime(LocalDateTime.of(2025, 6, 15, 10, 0))
+                    .build();
+
+            actionRepository.save(buy);
+            securityPriceRepository.addPrice(security.getIsin(), TEST_DATE, 2.0);
+
+            List<SecuritySummary> result = summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), TEST_DATE);
+            assertEquals(volume, result.get(0).getVolume().value());
+            assertEquals(0, BigDecimal.valueOf(2 * volume).compareTo(result.get(0).getValue().toBigDecimal()));
         }
     }
 
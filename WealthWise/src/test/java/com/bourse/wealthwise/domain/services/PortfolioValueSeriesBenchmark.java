@@ -0,0 +1,89 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Five years of daily values for one active portfolio, one securities summary per day
+ * against a single sweep; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = "app.result-cache.max-entries=0")
+class PortfolioValueSeriesBenchmark {
+
+    private static final int SECURITIES = 40;
+    private static final int DAYS = 5 * 365;
+    private static final int ACTIONS = 20_000;
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @Autowired PortfolioValueSeriesService valueSeriesService;
+    @Autowired PortfolioStockSummaryService summaryService;
+    @Autowired ActionRepository actionRepository;
+    @Autowired SecurityPriceRepository securityPriceRepository;
+
+    @Test
+    void dailySeries() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        Security[] securities = new Security[SECURITIES];
+        for (int s = 0; s < SECURITIES; s++) {
+            securities[s] = Security.builder().name("Sec " + s).symbol("SEC" + s).isin("IRO1SEC" + s).build();
+            for (int d = 0; d < DAYS; d++) securityPriceRepository.addPrice(securities[s].getIsin(), START.plusDays(d), 1000 + (s * d) % 700);
+        }
+        Portfolio portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "Active");
+        List<BaseAction> actions = new ArrayList<>(ACTIONS);
+        for (int i = 0; i < ACTIONS; i++) {
+            actions.add(Buy.builder().portfolio(portfolio).security(securities[i % SECURITIES])
+                    .volume(BigInteger.valueOf(1 + i % 9)).price(1).totalValue(BigInteger.ONE)
+                    .datetime(START.plusDays((long) i * DAYS / ACTIONS).atTime(10, 0)).build());
+        }
+        actionRepository.saveAll(actions);
+        UUID id = UUID.fromString(portfolio.getUuid());
+        LocalDate end = START.plusDays(DAYS - 1);
+
+        double[] perDay = new double[DAYS];
+        PortfolioValueSeriesService.ValueSeries series = null;
+        long loopNanos = Long.MAX_VALUE;
+        long sweepNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long started = System.nanoTime();
+            for (int d = 0; d < DAYS; d++) {
+                double value = 0;
+                for (SecuritySummary summary : summaryService.getSecuritiesSummary(id, START.plusDays(d))) {
+                    value += summary.getValue().toBigDecimal().doubleValue();
+                }
+                perDay[d] = value;
+            }
+            loopNanos = Math.min(loopNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            series = valueSeriesService.dailyValues(id, START, end);
+            sweepNanos = Math.min(sweepNanos, System.nanoTime() - started);
+        }
+
+        System.out.printf("daily values, %,d days x %d securities, %,d actions: summary per day %,.1f ms, sweep %,.1f ms (%.1fx)%n",
+                DAYS, SECURITIES, ACTIONS, loopNanos / 1e6, sweepNanos / 1e6, (double) loopNanos / sweepNanos);
+        for (int d = 0; d < DAYS; d++) assertThat(series.values()[d]).isCloseTo(perDay[d], within(1e-3));
+    }
+}
@@ -0,0 +1,108 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import com.bourse.wealthwise.domain.services.PortfolioValueSeriesService.ValueSeries;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+public class PortfolioValueSeriesServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+
+    @Autowired private PortfolioValueSeriesService valueSeriesService;
+    @Autowired private PortfolioStockSummaryService summaryService;
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private SecurityPriceRepository securityPriceRepository;
+
+    private final Security alpha = Security.builder().name("Alpha").symbol("ALPHA").isin("ISIN-ALPHA").build();
+    private final Security beta = Security.builder().name("Beta").symbol("BETA").isin("ISIN-BETA").build();
+    private final Portfolio portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "Chart");
+
+    @BeforeEach
+    void setup() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        // Alpha trades on weekdays only, Beta's prices start mid-range.
+        for (int d = -5; d < 40; d++) {
+            LocalDate date = START.plusDays(d);
+            if (date.getDayOfWeek().getValue() < 6) securityPriceRepository.addPrice(alpha.getIsin(), date, 100 + d);
+            if (d >= 10) securityPriceRepository.addPrice(beta.getIsin(), date, 50.5 - d);
+        }
+        actionRepository.saveAll(List.of(
+                buy(alpha, 10, START.minusDays(2).atTime(9, 0)),
+                buy(beta, 4, START.plusDays(3).atTime(12, 0)),
+                buy(alpha, 5, START.plusDays(7).atTime(23, 59, 59)),
+                sale(alpha, 15, START.plusDays(12).atTime(10, 0)),
+                buy(alpha, 2, START.plusDays(20).atTime(11, 0)),
+                sale(beta, 1, START.plusDays(25).atTime(15, 0)),
+                buy(alpha, 1_000, START.plusDays(40).atTime(9, 0))));
+    }
+
+    @Test
+    void everyPoint_matchesTheSecuritiesSummaryOfItsDate() {
+        ValueSeries daily = valueSeriesService.dailyValues(UUID.fromString(portfolio.getUuid()), START, START.plusDays(30));
+        assertThat(daily.size()).isEqualTo(31);
+        for (int i = 0; i < daily.size(); i++) {
+            assertThat(daily.dateAt(i)).isEqualTo(START.plusDays(i));
+            assertThat(daily.values()[i]).as("value on %s", daily.dateAt(i)).isCloseTo(summaryValue(daily.dateAt(i)), within(1e-6));
+        }
+
+        ValueSeries weekly = valueSeriesService.valueSeries(UUID.fromString(portfolio.getUuid()), START, START.plusDays(30), Period.ofWeeks(1));
+        assertThat(weekly.size()).isEqualTo(5);
+        for (int i = 0; i < weekly.size(); i++) {
+            assertThat(weekly.dateAt(i)).isEqualTo(START.plusWeeks(i));
+            assertThat(weekly.values()[i]).isEqualTo(daily.values()[7 * i]);
+        }
+    }
+
+    @Test
+    void invalidRanges_areRejected() {
+        UUID id = UUID.fromString(portfolio.getUuid());
+        assertThatThrownBy(() -> valueSeriesService.dailyValues(id, START, START.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Range start is after its end");
+        assertThatThrownBy(() -> valueSeriesService.valueSeries(id, START, START, Period.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Step must be positive");
+    }
+
+    private double summaryValue(LocalDate date) {
+        return summaryService.getSecuritiesSummary(UUID.fromString(portfolio.getUuid()), date).stream()
+                .map(SecuritySummary::getValue)
+                .reduce(Money.ZERO, Money::plus)
+                .toBigDecimal()
+                .doubleValue();
+    }
+
+    private Buy buy(Security security, long volume, LocalDateTime at) {
+        return Buy.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(volume))
+                .price(1).totalValue(BigInteger.valueOf(volume)).datetime(at).build();
+    }
+
+    private Sale sale(Security security, long volume, LocalDateTime at) {
+        return Sale.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(volume))
+                .price(1).totalValue(BigInteger.valueOf(volume)).datetime(at).build();
+    }
+}
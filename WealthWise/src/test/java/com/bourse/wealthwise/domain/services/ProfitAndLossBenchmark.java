@@ -0,0 +1,109 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.services.ProfitAndLossService.PositionProfitAndLoss;
+import com.bourse.wealthwise.domain.services.ProfitAndLossService.ProfitAndLoss;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.ledger.LotLedger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Profit and loss of 2k portfolios with 600 trades each over 20 securities, read from
+ * {@link LotLedger} against a FIFO replay of each portfolio's history, both priced the same
+ * way; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = "app.result-cache.max-entries=0")
+class ProfitAndLossBenchmark {
+
+    private static final int PORTFOLIOS = 2_000;
+    private static final int SECURITIES = 200;
+    private static final int TRADES = 600;
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 16);
+
+    @Autowired ProfitAndLossService profitAndLossService;
+    @Autowired ActionRepository actionRepository;
+    @Autowired SecurityPriceRepository securityPriceRepository;
+
+    @Test
+    void wholeBook() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        Security[] securities = new Security[SECURITIES];
+        for (int s = 0; s < SECURITIES; s++) {
+            securities[s] = Security.builder().name("Sec " + s).symbol("SEC" + s).isin("IRO1SEC" + s).build();
+            securityPriceRepository.addPrice(securities[s].getIsin(), DATE, 1000 + s);
+        }
+        List<BaseAction> actions = new ArrayList<>(PORTFOLIOS * TRADES);
+        List<UUID> portfolioIds = new ArrayList<>(PORTFOLIOS);
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            Portfolio portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "P" + p);
+            portfolioIds.add(UUID.fromString(portfolio.getUuid()));
+            for (int t = 0; t < TRADES; t++) {
+                Security security = securities[(p * 31 + (t / 3) % 20 * 7) % SECURITIES];
+                var at = DATE.minusDays(TRADES - t).atTime(10, 0);
+                actions.add(t % 3 == 2
+                        ? Sale.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(150))
+                                .price(1_050 + t).datetime(at).build()
+                        : Buy.builder().portfolio(portfolio).security(security).volume(BigInteger.valueOf(100 + t))
+                                .price(1_000 + t).datetime(at).build());
+            }
+        }
+        actionRepository.saveAll(actions);
+
+        long ledgerTotal = 0;
+        long replayTotal = 0;
+        long ledgerNanos = Long.MAX_VALUE;
+        long replayNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long started = System.nanoTime();
+            ledgerTotal = 0;
+            for (UUID portfolioId : portfolioIds) {
+                ledgerTotal += total(profitAndLossService.profitAndLoss(portfolioId, DATE));
+            }
+            ledgerNanos = Math.min(ledgerNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            replayTotal = 0;
+            for (UUID portfolioId : portfolioIds) {
+                List<PositionProfitAndLoss> positions = new ArrayList<>();
+                LotLedger.replay(actionRepository.findAllActionsOf(portfolioId.toString()), (security, volume, cost, realized) -> {
+                    Money price = securityPriceRepository.getPriceAsOf(security.getIsin(), DATE).map(Money::of).orElse(Money.ZERO);
+                    positions.add(new PositionProfitAndLoss(security, Quantity.of(volume), Money.ofUnits(cost),
+                            price.times(volume), Money.ofUnits(realized)));
+                });
+                replayTotal += total(new ProfitAndLoss(DATE, positions));
+            }
+            replayNanos = Math.min(replayNanos, System.nanoTime() - started);
+        }
+
+        System.out.printf("profit and loss of %,d portfolios x %d trades: replay %,d ms, lot ledger %,d ms (%.1fx)%n",
+                PORTFOLIOS, TRADES, replayNanos / 1_000_000, ledgerNanos / 1_000_000, (double) replayNanos / ledgerNanos);
+        assertThat(ledgerTotal).isEqualTo(replayTotal);
+    }
+
+    private static long total(ProfitAndLoss pnl) {
+        return pnl.realized().plus(pnl.unrealized()).units();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.services.ProfitAndLossService.PositionProfitAndLoss;
+import com.bourse.wealthwise.domain.services.ProfitAndLossService.ProfitAndLoss;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class ProfitAndLossServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 16);
+
+    @Autowired private ProfitAndLossService profitAndLossService;
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private SecurityPriceRepository securityPriceRepository;
+
+    private final Security alpha = Security.builder().name("Alpha").symbol("ALPHA").isin("ISIN-ALPHA").build();
+    private final Security beta = Security.builder().name("Beta").symbol("BETA").isin("ISIN-BETA").build();
+    private final Portfolio portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().build(), "PnL");
+
+    @BeforeEach
+    void setup() {
+        actionRepository.clear();
+        securityPriceRepository.clear();
+        securityPriceRepository.addPrice(alpha.getIsin(), DATE.minusDays(1), 130.5);
+        securityPriceRepository.addPrice(alpha.getIsin(), DATE.plusDays(1), 999.0);
+    }
+
+    @Test
+    void openLotsAtLastPrice_andClosedPositionKeepsItsRealizedProfit() {
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(alpha).volume(BigInteger.valueOf(10))
+                .price(100).datetime(DATE.minusDays(5).atTime(9, 0)).build());
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(alpha).volume(BigInteger.valueOf(10))
+                .price(120).datetime(DATE.minusDays(4).atTime(9, 0)).build());
+        actionRepository.save(Sale.builder().portfolio(portfolio).security(alpha).volume(BigInteger.valueOf(12))
+                .price(125).datetime(DATE.minusDays(3).atTime(9, 0)).build());
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(beta).volume(BigInteger.valueOf(5))
+                .totalValue(BigInteger.valueOf(500)).datetime(DATE.minusDays(3).atTime(10, 0)).build());
+        actionRepository.save(Sale.builder().portfolio(portfolio).security(beta).volume(BigInteger.valueOf(5))
+                .totalValue(BigInteger.valueOf(450)).datetime(DATE.minusDays(2).atTime(10, 0)).build());
+
+        ProfitAndLoss pnl = profitAndLossService.profitAndLoss(UUID.fromString(portfolio.getUuid()), DATE);
+
+        assertThat(pnl.positions()).extracting(PositionProfitAndLoss::security).containsExactly(alpha, beta);
+        PositionProfitAndLoss a = pnl.positions().get(0);
+        assertThat(a.volume()).isEqualTo(Quantity.of(8));
+        assertThat(a.cost()).isEqualTo(Money.of(8 * 120));
+        assertThat(a.marketValue()).isEqualTo(Money.of(8 * 130.5));
+        assertThat(a.realized()).isEqualTo(Money.of(12 * 125 - 1_000 - 2 * 120));
+        PositionProfitAndLoss b = pnl.positions().get(1);
+        assertThat(b.volume()).isEqualTo(Quantity.ZERO);
+        assertThat(b.unrealized()).isEqualTo(Money.ZERO);
+        assertThat(pnl.realized()).isEqualTo(Money.of(260 - 50));
+        assertThat(pnl.unrealized()).isEqualTo(Money.of(8 * 10.5));
+    }
+
+    @Test
+    void actionsAfterTheDate_areNotCounted() {
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(alpha).volume(BigInteger.valueOf(10))
+                .price(100).datetime(DATE.atTime(9, 0)).build());
+        actionRepository.save(Sale.builder().portfolio(portfolio).security(alpha).volume(BigInteger.valueOf(4))
+                .price(200).datetime(DATE.plusDays(1).atTime(9, 0)).build());
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(beta).volume(BigInteger.valueOf(5))
+                .price(50).datetime(DATE.plusDays(2).atTime(9, 0)).build());
+        UUID id = UUID.fromString(portfolio.getUuid());
+
+        ProfitAndLoss then = profitAndLossService.profitAndLoss(id, DATE);
+
+        assertThat(then.positions()).extracting(PositionProfitAndLoss::security).containsExactly(alpha);
+        assertThat(then.positions().get(0).volume()).isEqualTo(Quantity.of(10));
+        assertThat(then.realized()).isEqualTo(Money.ZERO);
+        assertThat(then.unrealized()).isEqualTo(Money.of(10 * 30.5));
+
+        ProfitAndLoss later = profitAndLossService.profitAndLoss(id, DATE.plusDays(1));
+
+        assertThat(later.positions().get(0).volume()).isEqualTo(Quantity.of(6));
+        assertThat(later.realized()).isEqualTo(Money.of(4 * 100));
+        assertThat(later.unrealized()).isEqualTo(Money.of(6 * 899));
+        assertThat(profitAndLossService.profitAndLoss(id, DATE.plusDays(2)).positions()).hasSize(2);
+    }
+
+    @Test
+    void unknownPortfolio_hasNoPositions() {
+        ProfitAndLoss pnl = profitAndLossService.profitAndLoss(UUID.randomUUID(), DATE);
+
+        assertThat(pnl.positions()).isEmpty();
+        assertThat(pnl.realized()).isEqualTo(Money.ZERO);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bourse.wealthwise.domain.services;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.services.TradeFeedService.Kind;
+import com.bourse.wealthwise.domain.services.TradeFeedService.TradeOrder;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.BalanceLedger;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class TradeFeedServiceTest {
+
+    @Autowired private TradeFeedService tradeFeedService;
+    @Autowired private SecurityRepository securityRepository;
+    @Autowired private PortfolioRepository portfolioRepository;
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private BalanceLedger balanceLedger;
+    @Autowired private PositionLedger positionLedger;
+
+    private Security foo;
+
+    @BeforeEach
+    void setup() {
+        securityRepository.clear();
+        actionRepository.clear();
+        foo = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+        securityRepository.addSecurity(foo);
+        portfolioRepository.save(new Portfolio("TF-1", User.builder().build(), "Trader"));
+    }
+
+    @Test
+    void batch_isValidatedAgainstTheLedgersPlusItsOwnEarlierOrders() {
+        LocalDateTime t = LocalDateTime.now();
+        TradeFeedService.Result result = tradeFeedService.apply(List.of(
+                cash(Kind.DEPOSIT, 1_000, t),
+                trade(Kind.BUY, 5, 100, t.plusSeconds(1)),
+                trade(Kind.BUY, 10, 100, t.plusSeconds(2)),      // only 500 left
+                trade(Kind.SELL, 6, 120, t.plusSeconds(3)),      // only 5 held
+                trade(Kind.SELL, 5, 120, t.plusSeconds(4)),
+                cash(Kind.WITHDRAW, 1_100, t.plusSeconds(5)),
+                cash(Kind.WITHDRAW, 1, t.plusSeconds(6)),        // empty
+                new TradeOrder(Kind.DEPOSIT, "NOPE", null, 0, 0, 10, t),
+                new TradeOrder(Kind.BUY, "TF-1", "BAR", 1, 1, 0, t)));
+
+        assertThat(result).isEqualTo(new TradeFeedService.Result(4, 5));
+        assertThat(balanceLedger.balanceBefore("TF-1", LocalDateTime.MAX)).isEqualTo(Money.ZERO);
+        assertThat(positionLedger.volumeOf("TF-1", foo)).isEqualTo(Quantity.ZERO);
+        assertThat(actionRepository.findAllActionsOf("TF-1")).hasSize(4);
+    }
+
+    @Test
+    void laterBatches_seeWhatEarlierBatchesCommitted() {
+        LocalDateTime t = LocalDateTime.now();
+        tradeFeedService.apply(List.of(cash(Kind.DEPOSIT, 300, t), trade(Kind.BUY, 3, 100, t.plusSeconds(1))));
+
+        TradeFeedService.Result result = tradeFeedService.apply(List.of(
+                trade(Kind.BUY, 1, 1, t.plusSeconds(2)),
+                trade(Kind.SELL, 3, 50, t.plusSeconds(3))));
+
+        assertThat(result).isEqualTo(new TradeFeedService.Result(1, 1));
+        assertThat(balanceLedger.balanceBefore("TF-1", LocalDateTime.MAX)).isEqualTo(Money.of(150));
+    }
+
+    private static TradeOrder cash(Kind kind, long amount, LocalDateTime at) {
+        return new TradeOrder(kind, "TF-1", null, 0, 0, amount, at);
+    }
+
+    private static TradeOrder trade(Kind kind, long volume, int price, LocalDateTime at) {
+        return new TradeOrder(kind, "TF-1", "FOO", volume, price, 0, at);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.messaging.enabled=true",
+        "spring.artemis.mode=embedded",
+        "spring.jms.listener.auto-startup=true",
+        "spring.jms.pub-sub-domain=false",
+        "app.capital-raise.consumer=batch",
+        "app.capital-raise.consumers=2",
+        "app.capital-raise.batch.size=16",
+        "app.capital-raise.batch.wait-ms=20"
+})
+class CapitalRaiseBatchConsumerTest {
+
+    @Autowired private CapitalRaiseJmsProducer producer;
+    @Autowired private CapitalRaiseBatchConsumer batchConsumer;
+    @Autowired private ApplicationContext context;
+    @Autowired private SecurityRepository securityRepository;
+    @Autowired private PortfolioRepository portfolioRepository;
+    @Autowired private ActionRepository actionRepository;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        securityRepository.clear();
+        actionRepository.clear();
+
+        Security foo = Security.builder().name("Foo Inc.").symbol("FOO").isin("FOO-ISIN").build();
+        securityRepository.addSecurity(foo);
+        securityRepository.addSecurity(Security.builder().name("Foo Inc. Right").symbol("FOO_X").isin("FOO_X-ISIN").build());
+
+        portfolio = new Portfolio(UUID.randomUUID().toString(), User.builder().uuid("u-1").build(), "Test Portfolio");
+        portfolioRepository.save(portfolio);
+        actionRepository.save(Buy.builder()
+                .uuid(UUID.randomUUID().toString())
+                .portfolio(portfolio)
+                .security(foo)
+                .volume(BigInteger.valueOf(10))
+                .price(10)
+                .datetime(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void batch_mode_replaces_the_single_message_adapter_and_processes_every_announcement() {
+        assertThat(context.getBeansOfType(CapitalRaiseJmsAdapter.class)).isEmpty();
+        long messagesBefore = batchConsumer.messagesProcessed();
+        long rejectedBefore = batchConsumer.messagesRejected();
+
+        for (int i = 0; i < 40; i++) {
+            // distinct ratios: identical announcements on one day are deduplicated
+            double ratio = 0.25 + i / 1000.0;
+            if (i % 2 == 0) producer.publish("CAPITAL_RAISE FOO " + ratio);
+            else producer.publishBinary("FOO", ratio);
+        }
+        producer.publish("CAPITAL_RAISE FOO notANumber");
+        producer.publish("CAPITAL_RAISE UNKNOWN 0.25");
+
+        Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(batchConsumer.messagesProcessed() - messagesBefore).isEqualTo(42));
+        long grants = actionRepository.findAllActionsOf(portfolio.getUuid()).stream()
+                .filter(a -> a instanceof CapitalRaise)
+                .count();
+        assertThat(grants).isEqualTo(40);
+        assertThat(batchConsumer.messagesRejected() - rejectedBefore).isEqualTo(2);
+    }
+}
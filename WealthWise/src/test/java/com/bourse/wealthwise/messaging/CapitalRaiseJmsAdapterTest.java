@@ -2,6 +2,7 @@ package com.bourse.wealthwise.messaging;
 
 import com.bourse.wealthwise.domain.entity.account.User;
 import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
 import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
 import com.bourse.wealthwise.domain.entity.security.Security;
 import com.bourse.wealthwise.repository.ActionRepository;
@@ -98,4 +99,18 @@ class CapitalRaiseJmsAdapterTest {
             assertThat(hasCapitalRaise).isTrue();
         });
     }
+
+    @Test
+    void end_to_end_over_jms_with_binary_payload() {
+        producer.publishBinary("FOO", 0.25);
+
+        Awaitility.await().atMost(Duration.ofSeconds(3)).untilAsserted(() -> {
+            var grants = actionRepository.findAllActionsOf(portfolio.getUuid()).stream()
+                    .filter(a -> a instanceof CapitalRaise)
+                    .map(a -> (CapitalRaise) a)
+                    .toList();
+            assertThat(grants).hasSize(1);
+            assertThat(grants.get(0).getVolume()).isEqualTo(BigInteger.valueOf(2));
+        });
+    }
 }
@@ -0,0 +1,99 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.Lifecycle;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Announcement drain rate on the embedded broker, per-message listener against batch
+ * consumption; run with {@code mvn test -Pbenchmark}. The queue is filled while consumers
+ * are stopped so that only consumption is timed.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.messaging.enabled=true",
+        "spring.artemis.mode=embedded",
+        "spring.jms.pub-sub-domain=false",
+        "logging.level.com.bourse.wealthwise.domain.services.CapitalRaiseService=WARN"
+})
+class CapitalRaiseJmsBenchmark {
+
+    private static final int MESSAGES = 5_000;
+
+    /** Times draining the queue in {@code context}, whose consumers are started and stopped through {@code consumers}. */
+    static double drainRate(ApplicationContext context, Lifecycle consumers) {
+        SecurityRepository securityRepository = context.getBean(SecurityRepository.class);
+        PortfolioRepository portfolioRepository = context.getBean(PortfolioRepository.class);
+        ActionRepository actionRepository = context.getBean(ActionRepository.class);
+        CapitalRaiseJmsProducer producer = context.getBean(CapitalRaiseJmsProducer.class);
+        securityRepository.clear();
+        actionRepository.clear();
+        Security stock = Security.builder().name("Bench").symbol("BENCH").isin("BENCH-ISIN").build();
+        securityRepository.addSecurity(stock);
+        securityRepository.addSecurity(Security.builder().name("Bench Right").symbol("BENCH_X").isin("BENCH_X-ISIN").build());
+        Portfolio portfolio = new Portfolio("BENCH-P", User.builder().build(), "Bench");
+        portfolioRepository.save(portfolio);
+        actionRepository.save(Buy.builder().portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(100)).datetime(LocalDateTime.now().minusDays(1)).build());
+
+        consumers.stop();
+        for (int i = 0; i < MESSAGES; i++) producer.publish("CAPITAL_RAISE BENCH " + (0.01 + i / 1e6));
+        long started = System.nanoTime();
+        consumers.start();
+        Awaitility.await().atMost(Duration.ofMinutes(2)).pollInterval(Duration.ofMillis(5)).until(() ->
+                actionRepository.findAllActionsOf(portfolio.getUuid()).size() == MESSAGES + 1);
+        return MESSAGES * 1e9 / (System.nanoTime() - started);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "app.capital-raise.consumer=single")
+    class Single {
+
+        @Autowired ApplicationContext context;
+        @Autowired JmsListenerEndpointRegistry registry;
+
+        @Test
+        void drainRate() {
+            double rate = CapitalRaiseJmsBenchmark.drainRate(context, registry);
+            System.out.printf("capital-raise drain, %,d messages, per-message listener: %,.0f msg/s%n", MESSAGES, rate);
+            assertThat(rate).isPositive();
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"app.capital-raise.consumer=batch", "app.capital-raise.batch.size=500"})
+    class Batch {
+
+        @Autowired ApplicationContext context;
+        @Autowired CapitalRaiseBatchConsumer batchConsumer;
+
+        @Test
+        void drainRate() {
+            double rate = CapitalRaiseJmsBenchmark.drainRate(context, batchConsumer);
+            System.out.printf("capital-raise drain, %,d messages, batches of 500: %,.0f msg/s (%d batches)%n",
+                    MESSAGES, rate, batchConsumer.batchesProcessed());
+            assertThat(rate).isPositive();
+        }
+    }
+}
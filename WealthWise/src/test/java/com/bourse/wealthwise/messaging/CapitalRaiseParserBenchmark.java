@@ -0,0 +1,96 @@
+package com.bourse.wealthwise.messaging;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH comparison of the split-based parser against the in-place scanner, with the GC
+ * profiler reporting bytes allocated per parse; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CapitalRaiseParserBenchmark {
+
+    private static final String[] MESSAGES = {
+            "CAPITAL_RAISE FOOLAD 0.25", "CAPITAL_RAISE KHODRO 1.5", "CAPITAL_RAISE SHASTA 0.125", "  CAPITAL_RAISE  VEBMELLAT\t0.4 "
+    };
+
+    private ByteBuffer[] buffers;
+    private CapitalRaiseParser.CapitalRaiseMsg holder;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        buffers = new ByteBuffer[MESSAGES.length];
+        for (int i = 0; i < MESSAGES.length; i++) buffers[i] = ByteBuffer.wrap(MESSAGES[i].getBytes(StandardCharsets.US_ASCII));
+        holder = new CapitalRaiseParser.CapitalRaiseMsg();
+    }
+
+    @Benchmark
+    public void splitBased(Blackhole bh) {
+        String msg = MESSAGES[next++ & 3];
+        String[] parts = msg.trim().split("\\s+");
+        if (parts.length != 3 || !"CAPITAL_RAISE".equals(parts[0])) throw new IllegalArgumentException();
+        CapitalRaiseParser.CapitalRaiseMsg m = new CapitalRaiseParser.CapitalRaiseMsg(parts[1], Double.parseDouble(parts[2]));
+        bh.consume(m.getSymbol());
+        bh.consume(m.getPerShare());
+    }
+
+    @Benchmark
+    public void scannerOverString(Blackhole bh) {
+        CapitalRaiseParser.CapitalRaiseMsg m = CapitalRaiseParser.parse(MESSAGES[next++ & 3], holder);
+        bh.consume(m.getSymbol());
+        bh.consume(m.getPerShare());
+    }
+
+    @Benchmark
+    public void scannerOverBytes(Blackhole bh) {
+        ByteBuffer buffer = buffers[next++ & 3];
+        CapitalRaiseParser.CapitalRaiseMsg m = CapitalRaiseParser.parse(buffer, 0, buffer.limit(), holder);
+        bh.consume(m.getSymbol());
+        bh.consume(m.getPerShare());
+    }
+
+    @Test
+    void compareParsers() throws Exception {
+        // In-process (forks 0): surefire's manifest-only classpath is not visible to a forked JVM.
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(CapitalRaiseParserBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build()).run();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            System.out.printf("%s: %,.0f ops/s, %.1f B/op%n", name.substring(name.lastIndexOf('.') + 1),
+                    result.getPrimaryResult().getScore(),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore());
+        }
+        assertThat(results).hasSize(3);
+    }
+}
@@ -1,6 +1,12 @@
 package com.bourse.wealthwise.messaging;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CapitalRaiseParserTest {
@@ -10,6 +16,16 @@ public class CapitalRaiseParserTest {
         var msg = CapitalRaiseParser.parse("CAPITAL_RAISE FOOLAD 0.25");
         assertEquals("FOOLAD", msg.getSymbol());
         assertEquals(0.25, msg.getPerShare(), 1e-9);
+        assertNull(msg.getAnnouncedOn());
+    }
+
+    @Test
+    void parsesTheAnnouncementDate() {
+        var msg = CapitalRaiseParser.parse("CAPITAL_RAISE FOOLAD 0.25 2024-05-01");
+        assertEquals("FOOLAD", msg.getSymbol());
+        assertEquals(LocalDate.of(2024, 5, 1), msg.getAnnouncedOn());
+        assertThrows(IllegalArgumentException.class, () ->
+            CapitalRaiseParser.parse("CAPITAL_RAISE FOOLAD 0.25 2024-02-30"));
     }
 
     @Test
@@ -29,4 +45,60 @@ public class CapitalRaiseParserTest {
         assertThrows(IllegalArgumentException.class, () ->
             CapitalRaiseParser.parse("CAPITAL_RAISE ONLY_TWO"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void matchesTheSplitBasedGrammarAndErrors() {
+        String[] samples = {"CAPITAL_RAISE FOOLAD 0.25", "  CAPITAL_RAISE\tFOOLAD \r\n 1e-1 ", "CAPITAL_RAISE FOOLAD 0x1p-2",
+                "CAPITAL_RAISE FOOLAD .5", "CAPITAL_RAISE FOOLAD NaN", "CAPITAL_RAISE FOOLAD 1d", "\u0001CAPITAL_RAISE A 1\u0001",
+                "CAPITAL_RAISE A\u0001B 2", "", "   ", "CAPITAL_RAISE", "CAPITAL_RAISE A 1 2", "CAPITAL_RAISE A 1 2024-05-01",
+                " CAPITAL_RAISE A 1\t2024-05-01 ", "CAPITAL_RAISE A 1 2024-5-1", "CAPITAL_RAISE A 1 2024-05-01 X",
+                "CAPITAL_RAISE A x 2024-13-01", "capital_raise A 1",
+                "CAPITAL_RAISEX A 1", "CAPITAL_RAISE A 1..2", "CAPITAL_RAISE A -", "RAISE A B C"};
+        CapitalRaiseParser.CapitalRaiseMsg holder = new CapitalRaiseParser.CapitalRaiseMsg();
+        for (String sample : samples) {
+            String expected = outcome(() -> splitBased(sample));
+            assertEquals(expected, outcome(() -> CapitalRaiseParser.parse(sample)), sample);
+            assertEquals(expected, outcome(() -> CapitalRaiseParser.parse(sample, holder)), sample);
+            ByteBuffer bytes = ByteBuffer.wrap(sample.getBytes(StandardCharsets.ISO_8859_1));
+            assertEquals(expected, outcome(() -> CapitalRaiseParser.parse(bytes, 0, bytes.limit(), holder)), sample);
+        }
+    }
+
+    @Test
+    void reusableHolder_reusesSymbolsItHasSeen() {
+        CapitalRaiseParser.CapitalRaiseMsg holder = new CapitalRaiseParser.CapitalRaiseMsg();
+        String first = CapitalRaiseParser.parse("CAPITAL_RAISE FOOLAD 0.25", holder).getSymbol();
+        CapitalRaiseParser.parse("CAPITAL_RAISE SHASTA 0.5", holder);
+        ByteBuffer bytes = ByteBuffer.wrap("CAPITAL_RAISE FOOLAD 0.75".getBytes(StandardCharsets.US_ASCII));
+        var msg = CapitalRaiseParser.parse(bytes, 0, bytes.limit(), holder);
+        assertSame(first, msg.getSymbol());
+        assertEquals(0.75, msg.getPerShare(), 1e-9);
+    }
+
+    /** The original {@code trim().split("\\s+")} implementation, kept as the reference. */
+    private static CapitalRaiseParser.CapitalRaiseMsg splitBased(String msg) {
+        String[] parts = msg.trim().split("\\s+");
+        if (parts.length != 3 && parts.length != 4) throw new IllegalArgumentException("Expected 3 or 4 parts");
+        if (!"CAPITAL_RAISE".equals(parts[0])) throw new IllegalArgumentException("Unknown verb: " + parts[0]);
+        double perShare;
+        try {
+            perShare = Double.parseDouble(parts[2]);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Per-share must be a number");
+        }
+        try {
+            return new CapitalRaiseParser.CapitalRaiseMsg(parts[1], perShare, parts.length == 4 ? LocalDate.parse(parts[3]) : null);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Announcement date must be yyyy-MM-dd");
+        }
+    }
+
+    private static String outcome(java.util.function.Supplier<CapitalRaiseParser.CapitalRaiseMsg> parse) {
+        try {
+            var msg = parse.get();
+            return msg.getSymbol() + "=" + msg.getPerShare() + "@" + msg.getAnnouncedOn();
+        } catch (IllegalArgumentException e) {
+            return "error: " + e.getMessage();
+        }
+    }
+}
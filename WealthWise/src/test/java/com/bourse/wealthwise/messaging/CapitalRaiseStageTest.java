@@ -0,0 +1,66 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.CapitalRaiseService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapitalRaiseStageTest {
+
+    @Test
+    void failedBatch_isRetriedOneByOne_andOnlyWhatStillFailsIsDeadLettered() throws Exception {
+        CountDownLatch firstBatchHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        List<CapitalRaiseService.Announcement> deadLettered = new CopyOnWriteArrayList<>();
+        CapitalRaiseStage stage = new CapitalRaiseStage(batch -> {
+            if (batch.get(0).symbol().equals("FIRST")) {
+                firstBatchHeld.countDown();
+                await(release);
+            }
+            if (batch.stream().anyMatch(a -> a.symbol().equals("BAD"))) throw new IllegalStateException("boom");
+            batch.forEach(a -> applied.add(a.symbol()));
+        }, deadLettered::add, 1, 16, 16);
+
+        stage.submit("FIRST", 0.5, null);
+        firstBatchHeld.await(5, TimeUnit.SECONDS);
+        stage.submit("A", 0.5, null);
+        stage.submit("BAD", 0.5, null);
+        stage.submit("B", 0.5, null);
+        release.countDown();
+        stage.close();
+
+        assertThat(applied).containsExactly("FIRST", "A", "B");
+        assertThat(deadLettered).extracting(CapitalRaiseService.Announcement::symbol).containsExactly("BAD");
+        assertThat(stage.deadLettered()).isEqualTo(1);
+        assertThat(stage.lost()).isZero();
+    }
+
+    @Test
+    void announcementThatCannotBeDeadLettered_isCountedAsLost() throws Exception {
+        CapitalRaiseStage stage = new CapitalRaiseStage(batch -> {
+            throw new IllegalStateException("boom");
+        }, announcement -> {
+            throw new IllegalStateException("broker down");
+        }, 1, 4, 4);
+
+        stage.submit("BAD", 0.5, null);
+        stage.close();
+
+        assertThat(stage.lost()).isEqualTo(1);
+        assertThat(stage.deadLettered()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bourse.wealthwise.messaging;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and decode cost of the text announcement format against the binary one;
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CorporateActionCodecBenchmark {
+
+    private static final String[] SYMBOLS = {"FOOLAD", "KHODRO", "SHASTA", "VEBMELLAT"};
+    private static final double[] RATIOS = {0.25, 1.5, 0.125, 0.437512};
+
+    private ByteBuffer[] text;
+    private ByteBuffer[] binary;
+    private CapitalRaiseParser.CapitalRaiseMsg holder;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        text = new ByteBuffer[SYMBOLS.length];
+        binary = new ByteBuffer[SYMBOLS.length];
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            text[i] = ByteBuffer.wrap(textPayload(i));
+            binary[i] = ByteBuffer.wrap(CorporateActionCodec.encodeCapitalRaise(SYMBOLS[i], RATIOS[i]));
+        }
+        holder = new CapitalRaiseParser.CapitalRaiseMsg();
+    }
+
+    @Benchmark
+    public void decodeText(Blackhole bh) {
+        ByteBuffer buffer = text[next++ & 3];
+        CapitalRaiseParser.CapitalRaiseMsg m = CapitalRaiseParser.parse(buffer, 0, buffer.limit(), holder);
+        bh.consume(m.getSymbol());
+        bh.consume(m.getPerShare());
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole bh) {
+        ByteBuffer buffer = binary[next++ & 3];
+        buffer.rewind();
+        CapitalRaiseParser.CapitalRaiseMsg m = CorporateActionCodec.decodeCapitalRaise(buffer, holder);
+        bh.consume(m.getSymbol());
+        bh.consume(m.getPerShare());
+    }
+
+    @Test
+    void compareFormats() throws Exception {
+        int textBytes = 0;
+        int binaryBytes = 0;
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            textBytes += textPayload(i).length;
+            binaryBytes += CorporateActionCodec.encodedLength(SYMBOLS[i]);
+        }
+        System.out.printf("capital-raise payload: text %.1f B, binary %.1f B on average%n",
+                (double) textBytes / SYMBOLS.length, (double) binaryBytes / SYMBOLS.length);
+
+        // In-process (forks 0): surefire's manifest-only classpath is not visible to a forked JVM.
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(CorporateActionCodecBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build()).run();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            System.out.printf("%s: %,.0f ops/s, %.1f B/op%n", name.substring(name.lastIndexOf('.') + 1),
+                    result.getPrimaryResult().getScore(),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore());
+        }
+        assertThat(binaryBytes).isLessThan(textBytes);
+        assertThat(results).hasSize(2);
+    }
+
+    private static byte[] textPayload(int i) {
+        return ("CAPITAL_RAISE " + SYMBOLS[i] + " " + RATIOS[i]).getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bourse.wealthwise.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorporateActionCodecTest {
+
+    @Test
+    void capitalRaise_roundTripsWithSixDecimals() {
+        CapitalRaiseParser.CapitalRaiseMsg holder = new CapitalRaiseParser.CapitalRaiseMsg();
+        for (double ratio : new double[]{0.25, 1.5, 0.000001, 0.123456, 12345.678901, -0.5, 0}) {
+            byte[] bytes = CorporateActionCodec.encodeCapitalRaise("FOOLAD", ratio);
+            assertEquals(CorporateActionCodec.encodedLength("FOOLAD"), bytes.length);
+            var msg = CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(bytes), holder);
+            assertEquals("FOOLAD", msg.getSymbol());
+            assertEquals(Double.parseDouble(Double.toString(ratio)), msg.getPerShare());
+        }
+        var rounded = CorporateActionCodec.decodeCapitalRaise(
+                ByteBuffer.wrap(CorporateActionCodec.encodeCapitalRaise("FOOLAD", 0.1234567)), holder);
+        assertEquals(0.123457, rounded.getPerShare());
+        assertNull(rounded.getAnnouncedOn());
+    }
+
+    @Test
+    void capitalRaise_roundTripsTheAnnouncementDate() {
+        LocalDate announcedOn = LocalDate.of(2024, 5, 1);
+        byte[] bytes = CorporateActionCodec.encodeCapitalRaise("FOOLAD", 0.25, announcedOn);
+        assertEquals(CorporateActionCodec.encodedLength("FOOLAD", announcedOn), bytes.length);
+        assertEquals(CorporateActionCodec.VERSION_DATED, bytes[0]);
+        var msg = CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(bytes), new CapitalRaiseParser.CapitalRaiseMsg());
+        assertEquals("FOOLAD", msg.getSymbol());
+        assertEquals(0.25, msg.getPerShare());
+        assertEquals(announcedOn, msg.getAnnouncedOn());
+        assertThrows(IllegalArgumentException.class, () ->
+                CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(bytes, 0, bytes.length - 1), msg));
+    }
+
+    @Test
+    void rejectsUnknownVersionsTypesAndTruncation() {
+        byte[] bytes = CorporateActionCodec.encodeCapitalRaise("FOOLAD", 0.25);
+        var holder = new CapitalRaiseParser.CapitalRaiseMsg();
+
+        byte[] future = bytes.clone();
+        future[0] = 3;
+        assertThrows(IllegalArgumentException.class, () -> CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(future), holder));
+        byte[] otherAction = bytes.clone();
+        otherAction[1] = 9;
+        assertThrows(IllegalArgumentException.class, () -> CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(otherAction), holder));
+        assertThrows(IllegalArgumentException.class, () ->
+                CorporateActionCodec.decodeCapitalRaise(ByteBuffer.wrap(bytes, 0, bytes.length - 1), holder));
+        assertThrows(IllegalArgumentException.class, () -> CorporateActionCodec.encodeCapitalRaise("فولاد", 0.25));
+        assertThrows(IllegalArgumentException.class, () -> CorporateActionCodec.encodeCapitalRaise("FOOLAD", Double.NaN));
+    }
+}
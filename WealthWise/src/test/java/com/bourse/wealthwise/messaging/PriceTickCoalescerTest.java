@@ -0,0 +1,48 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriceTickCoalescerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    @Test
+    void burstForOneIsin_appliesOnlyTheLatestTick() {
+        SecurityPriceRepository repository = new SecurityPriceRepository();
+        PriceTickCoalescer coalescer = new PriceTickCoalescer(repository);
+
+        for (int i = 1; i <= 100; i++) coalescer.offer(new PriceTickParser.PriceTick("FOO", DAY, i));
+        coalescer.offer(new PriceTickParser.PriceTick("BAR", DAY, 7));
+
+        assertThat(coalescer.pendingCount()).isEqualTo(2);
+        assertThat(coalescer.flush()).isEqualTo(2);
+        assertThat(repository.getPrice("FOO", DAY)).contains(100.0);
+        assertThat(repository.getPrice("BAR", DAY)).contains(7.0);
+        assertThat(coalescer.flush()).isZero();
+
+        PriceTickCoalescer.Stats stats = coalescer.stats();
+        assertThat(stats.received()).isEqualTo(101);
+        assertThat(stats.applied()).isEqualTo(2);
+        assertThat(stats.flushes()).isEqualTo(1);
+        assertThat(stats.coalescingRatio()).isEqualTo(50.5);
+    }
+
+    @Test
+    void tickAfterAFlush_isAppliedOnTheNextOne() {
+        SecurityPriceRepository repository = new SecurityPriceRepository();
+        PriceTickCoalescer coalescer = new PriceTickCoalescer(repository);
+
+        coalescer.offer(new PriceTickParser.PriceTick("FOO", DAY, 10));
+        coalescer.flush();
+        coalescer.offer(new PriceTickParser.PriceTick("FOO", DAY, 11));
+        coalescer.flush();
+
+        assertThat(repository.getPrice("FOO", DAY)).contains(11.0);
+        assertThat(coalescer.stats().applied()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.messaging.enabled=true",
+        "spring.artemis.mode=embedded",
+        "spring.jms.listener.auto-startup=true",
+        "spring.jms.pub-sub-domain=false",
+        "app.price-feed.flush-interval-ms=50"
+})
+class PriceTickJmsAdapterTest {
+
+    @Autowired private PriceTickJmsProducer producer;
+    @Autowired private PriceTickCoalescer coalescer;
+    @Autowired private SecurityPriceRepository securityPriceRepository;
+
+    @Test
+    void ticks_over_jms_reach_the_repository_with_the_latest_price_per_isin() {
+        long receivedBefore = coalescer.stats().received();
+
+        for (int i = 1; i <= 200; i++) {
+            producer.publish("PRICE_TICK TICK-ISIN-" + (i % 2) + " " + i + " 2025-01-15");
+        }
+        producer.publish("PRICE_TICK TICK-ISIN-0 not-a-price 2025-01-15");
+
+        LocalDate day = LocalDate.of(2025, 1, 15);
+        Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(securityPriceRepository.getPrice("TICK-ISIN-0", day)).contains(200.0);
+            assertThat(securityPriceRepository.getPrice("TICK-ISIN-1", day)).contains(199.0);
+        });
+        assertThat(coalescer.stats().received() - receivedBefore).isEqualTo(200);
+        assertThat(coalescer.stats().applied()).isLessThanOrEqualTo(coalescer.stats().received());
+    }
+}
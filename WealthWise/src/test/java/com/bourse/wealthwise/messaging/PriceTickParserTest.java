@@ -0,0 +1,31 @@
+package com.bourse.wealthwise.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceTickParserTest {
+
+    @Test
+    void parsesHappyPath() {
+        var tick = PriceTickParser.parse("PRICE_TICK IRO1FOLD0001 5120.5 2025-01-15");
+        assertEquals("IRO1FOLD0001", tick.isin());
+        assertEquals(5120.5, tick.price(), 1e-9);
+        assertEquals(LocalDate.of(2025, 1, 15), tick.date());
+    }
+
+    @Test
+    void defaultsToToday() {
+        assertEquals(LocalDate.now(), PriceTickParser.parse("PRICE_TICK IRO1FOLD0001 5120").date());
+    }
+
+    @Test
+    void rejectsMalformedTicks() {
+        assertThrows(IllegalArgumentException.class, () -> PriceTickParser.parse("PRICE IRO1FOLD0001 5120"));
+        assertThrows(IllegalArgumentException.class, () -> PriceTickParser.parse("PRICE_TICK IRO1FOLD0001 abc"));
+        assertThrows(IllegalArgumentException.class, () -> PriceTickParser.parse("PRICE_TICK IRO1FOLD0001 -1"));
+        assertThrows(IllegalArgumentException.class, () -> PriceTickParser.parse("PRICE_TICK IRO1FOLD0001 10 15/01/2025"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sustained trade-feed rate, through the pipeline alone on one thread and end to end over
+ * the embedded broker (queue filled first, then drained by the transacted consumers); run
+ * with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.messaging.enabled=true",
+        "spring.artemis.mode=embedded",
+        "spring.jms.pub-sub-domain=false",
+        "logging.level.com.bourse.wealthwise.domain.services.TradeFeedService=ERROR",
+        "logging.level.org.apache.activemq.audit=WARN"
+})
+class TradeFeedBenchmark {
+
+    private static final int PORTFOLIOS = 1_000;
+    private static final int ORDERS = 200_000;
+    private static final int JMS_ORDERS = 40_000;
+    private static final int BATCH = 512;
+
+    @Autowired TradeFeedPipeline pipeline;
+    @Autowired TradeFeedJmsProducer producer;
+    @Autowired TradeFeedJmsAdapter consumers;
+    @Autowired SecurityRepository securityRepository;
+    @Autowired PortfolioRepository portfolioRepository;
+    @Autowired ActionRepository actionRepository;
+
+    @Test
+    void sustainedRate() throws Exception {
+        actionRepository.clear();
+        securityRepository.addSecurity(Security.builder().name("Bench").symbol("BENCH").isin("BENCH-ISIN").build());
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            portfolioRepository.save(new Portfolio("TFB-" + p, User.builder().build(), "Trader " + p));
+        }
+        LongSupplier done = () -> pipeline.stats().accepted() + pipeline.stats().rejected();
+
+        long started = System.nanoTime();
+        long target = done.getAsLong() + ORDERS;
+        List<String> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < ORDERS; i++) {
+            batch.add(order(i));
+            if (batch.size() == BATCH) {
+                pipeline.process(batch);
+                batch.clear();
+            }
+        }
+        pipeline.process(batch);
+        assertThat(done.getAsLong()).isEqualTo(target);
+        double direct = ORDERS * 1e9 / (System.nanoTime() - started);
+
+        consumers.stop();
+        for (int i = 0; i < JMS_ORDERS; i++) producer.publish("TFB-" + i % PORTFOLIOS, order(i));
+        long target2 = done.getAsLong() + JMS_ORDERS;
+        started = System.nanoTime();
+        consumers.start();
+        Awaitility.await().atMost(Duration.ofMinutes(5)).pollInterval(Duration.ofMillis(5))
+                .until(() -> done.getAsLong() == target2);
+        double overJms = JMS_ORDERS * 1e9 / (System.nanoTime() - started);
+
+        System.out.printf("trade feed over %,d portfolios: pipeline %,.0f actions/s (%,d orders), over JMS %,.0f actions/s (%,d orders)%n",
+                PORTFOLIOS, direct, ORDERS, overJms, JMS_ORDERS);
+        assertThat(pipeline.stats().rejected()).isZero();
+    }
+
+    /** Per portfolio: deposit, buy, sell, withdraw, repeating, so every order stays valid. */
+    private static String order(int i) {
+        String id = "TFB-" + i % PORTFOLIOS;
+        return switch ((i / PORTFOLIOS) % 4) {
+            case 0 -> "DEPOSIT " + id + " 1000";
+            case 1 -> "BUY " + id + " BENCH 10 100";
+            case 2 -> "SELL " + id + " BENCH 10 100";
+            default -> "WITHDRAW " + id + " 1000";
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.BalanceLedger;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.messaging.enabled=true",
+        "spring.artemis.mode=embedded",
+        "spring.jms.listener.auto-startup=true",
+        "spring.jms.pub-sub-domain=false",
+        "app.trade-feed.consumers=2",
+        "app.trade-feed.batch-size=8"
+})
+class TradeFeedJmsAdapterTest {
+
+    /** Fails the next saves touching portfolio {@code TFJ-FAIL}, as a full disk or a broken journal would. */
+    static class FailingSaves implements ActionRepositoryListener {
+        final AtomicInteger remaining = new AtomicInteger();
+
+        @Override
+        public void onSaveAll(List<BaseAction> actions) {
+            boolean touched = actions.stream()
+                    .anyMatch(a -> a.getPortfolio() != null && "TFJ-FAIL".equals(a.getPortfolio().getUuid()));
+            if (touched && remaining.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("simulated save failure");
+            }
+        }
+
+        @Override
+        public void onSave(BaseAction action) {
+            onSaveAll(List.of(action));
+        }
+
+        @Override
+        public void onDelete(BaseAction action) {
+        }
+
+        @Override
+        public void onClear() {
+        }
+    }
+
+    @TestConfiguration
+    static class FailingSavesConfig {
+        @Bean
+        FailingSaves failingSaves() {
+            return new FailingSaves();
+        }
+    }
+
+    @Autowired private TradeFeedJmsProducer producer;
+    @Autowired private TradeFeedPipeline pipeline;
+    @Autowired private SecurityRepository securityRepository;
+    @Autowired private PortfolioRepository portfolioRepository;
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private BalanceLedger balanceLedger;
+    @Autowired private PositionLedger positionLedger;
+    @Autowired private FailingSaves failingSaves;
+
+    @Test
+    void interleaved_orders_of_many_portfolios_are_applied_in_per_portfolio_order() {
+        actionRepository.clear();
+        securityRepository.clear();
+        Security foo = Security.builder().name("Foo").symbol("FOO").isin("FOO-ISIN").build();
+        securityRepository.addSecurity(foo);
+        int portfolios = 20;
+        for (int p = 0; p < portfolios; p++) {
+            portfolioRepository.save(new Portfolio("TFJ-" + p, User.builder().build(), "Trader " + p));
+        }
+        long before = pipeline.stats().accepted() + pipeline.stats().rejected();
+
+        // Each portfolio: deposit, buy with all of it, sell half, withdraw the proceeds.
+        // Any reordering within a portfolio would make a later step fail validation.
+        for (int step = 0; step < 4; step++) {
+            for (int p = 0; p < portfolios; p++) {
+                String id = "TFJ-" + p;
+                producer.publish(id, switch (step) {
+                    case 0 -> "DEPOSIT " + id + " 1000";
+                    case 1 -> "BUY " + id + " FOO 10 100";
+                    case 2 -> "SELL " + id + " FOO 5 100";
+                    default -> "WITHDRAW " + id + " 500";
+                });
+            }
+        }
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(pipeline.stats().accepted() + pipeline.stats().rejected() - before).isEqualTo(4L * portfolios));
+        assertThat(pipeline.stats().rejected()).isZero();
+        for (int p = 0; p < portfolios; p++) {
+            assertThat(balanceLedger.balanceBefore("TFJ-" + p, LocalDateTime.MAX)).isEqualTo(Money.ZERO);
+            assertThat(positionLedger.volumeOf("TFJ-" + p, foo)).isEqualTo(Quantity.of(5));
+        }
+    }
+
+    @Test
+    void batch_whose_save_fails_is_rolled_back_and_redelivered_not_lost() {
+        Security foo = securityRepository.findSecurityBySymbol("FOO");
+        if (foo == null) {
+            foo = Security.builder().name("Foo").symbol("FOO").isin("FOO-ISIN").build();
+            securityRepository.addSecurity(foo);
+        }
+        portfolioRepository.save(new Portfolio("TFJ-FAIL", User.builder().build(), "Unlucky trader"));
+        long failedBefore = pipeline.stats().failedBatches();
+        failingSaves.remaining.set(2);
+
+        producer.publish("TFJ-FAIL", "DEPOSIT TFJ-FAIL 1000");
+        producer.publish("TFJ-FAIL", "BUY TFJ-FAIL FOO 10 100");
+
+        Security held = foo;
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(positionLedger.volumeOf("TFJ-FAIL", held)).isEqualTo(Quantity.of(10)));
+        assertThat(pipeline.stats().failedBatches() - failedBefore).isEqualTo(2);
+        assertThat(actionRepository.findAllActionsOf("TFJ-FAIL")).hasSize(2);
+        assertThat(balanceLedger.balanceBefore("TFJ-FAIL", LocalDateTime.MAX)).isEqualTo(Money.ZERO);
+    }
+}
@@ -0,0 +1,37 @@
+package com.bourse.wealthwise.messaging;
+
+import com.bourse.wealthwise.domain.services.TradeFeedService.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TradeFeedParserTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 1, 15, 9, 0);
+
+    @Test
+    void parsesTradesAndCashMovements() {
+        var buy = TradeFeedParser.parse("BUY P1 FOOLAD 100 5120", AT);
+        assertEquals(Kind.BUY, buy.kind());
+        assertEquals("P1", buy.portfolioId());
+        assertEquals("FOOLAD", buy.symbol());
+        assertEquals(100, buy.volume());
+        assertEquals(5120, buy.price());
+        assertEquals(AT, buy.datetime());
+
+        var withdraw = TradeFeedParser.parse("  WITHDRAW\tP1  250 ", AT);
+        assertEquals(Kind.WITHDRAW, withdraw.kind());
+        assertEquals(250, withdraw.amount());
+    }
+
+    @Test
+    void rejectsMalformedMessages() {
+        for (String msg : new String[]{"", "TRADE P1 10", "BUY P1 FOOLAD 100", "SELL P1 FOOLAD x 10",
+                "DEPOSIT P1 1.5", "DEPOSIT P1 10 20", "BUY P1 FOOLAD 1 99999999999", "BUY P1 FOOLAD 1 2 3"}) {
+            assertThrows(IllegalArgumentException.class, () -> TradeFeedParser.parse(msg, AT), msg);
+        }
+        assertThrows(IllegalArgumentException.class, () -> TradeFeedParser.parse(null, AT));
+    }
+}
@@ -0,0 +1,174 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ledger.BalanceLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class ActionRepositoryTest {
+
+    @Autowired
+    private ActionRepository actionRepository;
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    private Portfolio first;
+    private Portfolio second;
+    private final LocalDateTime base = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        actionRepository.clear();
+        first = new Portfolio("P1", User.builder().build(), "first");
+        second = new Portfolio("P2", User.builder().build(), "second");
+    }
+
+    @Test
+    void actionsOfPortfolio_returnedInTimeOrder_otherPortfoliosExcluded() {
+        BaseAction late = deposit("a", first, base.plusHours(2));
+        BaseAction early = deposit("b", first, base);
+        BaseAction other = deposit("c", second, base.plusHours(1));
+        actionRepository.save(late);
+        actionRepository.save(early);
+        actionRepository.save(other);
+
+        assertThat(actionRepository.findAllActionsOf("P1")).containsExactly(early, late);
+        assertThat(actionRepository.findAllActionsOf("P2")).containsExactly(other);
+        assertThat(actionRepository.findAllActionsOf("missing")).isEmpty();
+    }
+
+    @Test
+    void actionsSharingTimestamp_bothKept() {
+        actionRepository.save(deposit("a", first, base));
+        actionRepository.save(deposit("b", first, base));
+
+        assertThat(actionRepository.findAllActionsOf("P1")).hasSize(2);
+    }
+
+    @Test
+    void untilDate_isInclusiveAndSkipsUndatedActions() {
+        BaseAction atBound = deposit("a", first, base);
+        BaseAction after = deposit("b", first, base.plusSeconds(1));
+        BaseAction undated = deposit("c", first, null);
+        actionRepository.save(atBound);
+        actionRepository.save(after);
+        actionRepository.save(undated);
+
+        assertThat(actionRepository.findAllActionsOfUntilDate("P1", base)).containsExactly(atBound);
+    }
+
+    @Test
+    void resavingAndDeleting_keepIndexConsistent() {
+        actionRepository.save(deposit("a", first, base));
+        BaseAction moved = deposit("a", second, base.plusDays(1));
+        actionRepository.save(moved);
+
+        assertThat(actionRepository.findAllActionsOf("P1")).isEmpty();
+        assertThat(actionRepository.findAllActionsOf("P2")).containsExactly(moved);
+
+        actionRepository.deleteById("a");
+        assertThat(actionRepository.findAllActionsOf("P2")).isEmpty();
+        assertThat(actionRepository.findById("a")).isEmpty();
+    }
+
+    @Test
+    void saveAll_assignsIdsAndFeedsLedgers() {
+        Deposit unnamed = deposit(null, first, base);
+        actionRepository.saveAll(List.of(unnamed, deposit("a", first, base.plusHours(1)), deposit("b", second, base)));
+
+        assertThat(unnamed.getUuid()).isNotBlank();
+        assertThat(actionRepository.findById(unnamed.getUuid())).contains(unnamed);
+        assertThat(actionRepository.findAllActionsOf("P1")).hasSize(2);
+        assertThat(balanceLedger.balanceBefore("P1", base.plusDays(1))).isEqualTo(Money.of(20));
+        assertThat(balanceLedger.balanceBefore("P2", base.plusDays(1))).isEqualTo(Money.of(10));
+    }
+
+    @Test
+    void saveAll_replacingStoredAction_reversesItFirst() {
+        actionRepository.save(deposit("a", first, base));
+        actionRepository.saveAll(List.of(deposit("a", first, base), deposit("b", first, base)));
+
+        assertThat(actionRepository.findAllActionsOf("P1")).hasSize(2);
+        assertThat(balanceLedger.balanceBefore("P1", base.plusDays(1))).isEqualTo(Money.of(20));
+    }
+
+    @Test
+    void batchWithAnActionALedgerRejects_storesNothing() {
+        Buy tooLarge = Buy.builder()
+                .uuid("huge")
+                .portfolio(first)
+                .security(Security.builder().symbol("FOO").isin("FOO-ISIN").build())
+                .volume(BigInteger.TWO.pow(70))
+                .price(1)
+                .datetime(base)
+                .build();
+
+        assertThatThrownBy(() -> actionRepository.saveAll(List.of(deposit("a", first, base), tooLarge)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(actionRepository.findAllActionsOf("P1")).isEmpty();
+        assertThat(actionRepository.findById("a")).isEmpty();
+        assertThat(balanceLedger.balanceBefore("P1", base.plusDays(1))).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void failingListener_undoesTheWriteAndTheListenersThatTookIt() {
+        ActionStoreLock lock = new ActionStoreLock();
+        BalanceLedger ledger = new BalanceLedger(lock);
+        ActionRepositoryListener failing = new ActionRepositoryListener() {
+            @Override
+            public void onSave(BaseAction action) {
+                if ("b".equals(action.getUuid())) throw new IllegalStateException("disk full");
+            }
+
+            @Override
+            public void onDelete(BaseAction action) {
+            }
+
+            @Override
+            public void onClear() {
+            }
+        };
+        ActionRepository repository = new ActionRepository(List.of(ledger, failing), lock);
+        Deposit original = deposit("a", first, base);
+        repository.save(original);
+
+        Deposit replacement = deposit("a", second, base);
+        assertThatThrownBy(() -> repository.saveAll(List.of(replacement, deposit("b", first, base))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.save(deposit("b", second, base)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.findById("a")).containsSame(original);
+        assertThat(repository.findById("b")).isEmpty();
+        assertThat(repository.findAllActionsOf("P1")).containsExactly(original);
+        assertThat(repository.findAllActionsOf("P2")).isEmpty();
+        assertThat(ledger.balanceBefore("P1", base.plusDays(1))).isEqualTo(Money.of(10));
+        assertThat(ledger.balanceBefore("P2", base.plusDays(1))).isEqualTo(Money.ZERO);
+    }
+
+    private Deposit deposit(String uuid, Portfolio portfolio, LocalDateTime when) {
+        return Deposit.builder()
+                .uuid(uuid)
+                .portfolio(portfolio)
+                .datetime(when)
+                .amount(BigInteger.TEN)
+                .build();
+    }
+}
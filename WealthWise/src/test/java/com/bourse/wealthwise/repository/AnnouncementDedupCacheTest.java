@@ -0,0 +1,109 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnnouncementDedupCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Test
+    void keysOfReplayedGrants_areKnownAfterARestart() {
+        AnnouncementDedupCache cache = new AnnouncementDedupCache(7, 100);
+        cache.onSaveAll(List.of(grant("K1", NOW.minusDays(1)), grant("K1", NOW.minusDays(1))));
+
+        assertThat(cache.tryClaim("K1", NOW)).isFalse();
+        assertThat(cache.tryClaim("K2", NOW)).isTrue();
+        assertThat(cache.tryClaim("K2", NOW)).isFalse();
+        assertThat(cache.duplicates()).isEqualTo(2);
+    }
+
+    @Test
+    void keysExpireAfterTheTtl_andTheOldestAreEvictedPastTheBound() {
+        AnnouncementDedupCache cache = new AnnouncementDedupCache(7, 2);
+        cache.onSave(grant("OLD", NOW.minusDays(8)));
+        assertThat(cache.tryClaim("OLD", NOW)).isTrue();
+
+        cache.tryClaim("A", NOW);
+        cache.tryClaim("B", NOW);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains("OLD", NOW)).isFalse();
+        assertThat(cache.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void releaseAndDeletion_makeAKeyClaimableAgain() {
+        AnnouncementDedupCache cache = new AnnouncementDedupCache(7, 100);
+        cache.tryClaim("FAILED", NOW);
+        cache.release("FAILED");
+        assertThat(cache.tryClaim("FAILED", NOW)).isTrue();
+
+        BaseAction first = grant("UNDONE", NOW);
+        BaseAction second = grant("UNDONE", NOW);
+        cache.onSaveAll(List.of(first, second));
+        cache.release("UNDONE");
+        cache.onDelete(first);
+        assertThat(cache.contains("UNDONE", NOW)).isTrue();
+        cache.onDelete(second);
+        assertThat(cache.tryClaim("UNDONE", NOW)).isTrue();
+
+        cache.onClear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void reclaimingAnExpiredKey_keepsCountingItsOldGrants() {
+        AnnouncementDedupCache cache = new AnnouncementDedupCache(7, 100);
+        BaseAction old = grant("K", NOW.minusDays(8));
+        cache.onSave(old);
+        assertThat(cache.tryClaim("K", NOW)).isTrue();
+
+        // Deleting the old grant while the new claim is in flight keeps the claim.
+        cache.onDelete(old);
+        assertThat(cache.contains("K", NOW)).isTrue();
+
+        BaseAction fresh = grant("K", NOW);
+        cache.onSave(fresh);
+        cache.onSave(old);
+        cache.onDelete(old);
+        assertThat(cache.tryClaim("K", NOW)).isFalse();
+        cache.onDelete(fresh);
+        assertThat(cache.tryClaim("K", NOW)).isTrue();
+    }
+
+    @Test
+    void grantsOfASweptClaim_doNotCountAgainstANewClaim() {
+        AnnouncementDedupCache cache = new AnnouncementDedupCache(7, 100);
+        BaseAction old = grant("K", NOW.minusDays(10));
+        cache.onSave(old);
+        cache.onSave(grant("OTHER", NOW.minusDays(9)));
+
+        assertThat(cache.tryClaim("NEW", NOW)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThat(cache.tryClaim("K", NOW)).isTrue();
+        cache.onSave(grant("K", NOW));
+        cache.onDelete(old);
+        assertThat(cache.tryClaim("K", NOW)).isFalse();
+    }
+
+    private static CapitalRaise grant(String key, LocalDateTime at) {
+        return CapitalRaise.builder()
+                .portfolio(new Portfolio("P", User.builder().build(), "P"))
+                .security(Security.builder().symbol("FOO_X").isin("FOO_X").build())
+                .volume(BigInteger.ONE)
+                .datetime(at)
+                .tracing_number(key)
+                .build();
+    }
+}
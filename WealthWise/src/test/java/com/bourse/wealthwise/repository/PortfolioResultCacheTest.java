@@ -0,0 +1,143 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecuritySummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioResultCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 10);
+
+    private final Security alpha = Security.builder().name("Alpha").isin("ISIN-A").build();
+    private final Security beta = Security.builder().name("Beta").isin("ISIN-B").build();
+    private final Portfolio p1 = new Portfolio("P1", User.builder().build(), "One");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void actions_evictOnlyTheirPortfolioFromTheirTimeOn() {
+        PortfolioResultCache cache = new PortfolioResultCache(100);
+        for (int d = 0; d < 3; d++) {
+            summary(cache, "P1", DAY.plusDays(d), alpha);
+            summary(cache, "P2", DAY.plusDays(d), alpha);
+            balance(cache, "P1", DAY.plusDays(d).atStartOfDay());
+        }
+        assertThat(loads).hasValue(9);
+
+        cache.onSave(Deposit.builder().portfolio(p1).amount(BigInteger.TEN).datetime(DAY.plusDays(1).atTime(12, 0)).build());
+
+        for (int d = 0; d < 3; d++) {
+            summary(cache, "P1", DAY.plusDays(d), alpha);
+            summary(cache, "P2", DAY.plusDays(d), alpha);
+            balance(cache, "P1", DAY.plusDays(d).atStartOfDay());
+        }
+        // P1's summaries of days 1 and 2 and its balance at the start of day 2.
+        assertThat(loads).hasValue(12);
+        assertThat(cache.stats().invalidations()).isEqualTo(3);
+        assertThat(cache.stats().hits()).isEqualTo(6);
+    }
+
+    @Test
+    void prices_evictOnlySummariesListingTheIsinFromTheirDateOn() {
+        PortfolioResultCache cache = new PortfolioResultCache(100);
+        summary(cache, "P1", DAY, alpha);
+        summary(cache, "P1", DAY.plusDays(5), alpha);
+        summary(cache, "P2", DAY.plusDays(5), beta);
+        balance(cache, "P1", DAY.plusDays(5).atStartOfDay());
+
+        cache.onPricesChanged("ISIN-A", DAY.plusDays(1));
+
+        summary(cache, "P1", DAY, alpha);
+        summary(cache, "P1", DAY.plusDays(5), alpha);
+        summary(cache, "P2", DAY.plusDays(5), beta);
+        balance(cache, "P1", DAY.plusDays(5).atStartOfDay());
+        assertThat(loads).hasValue(5);
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsed_isEvictedPastCapacity() {
+        PortfolioResultCache cache = new PortfolioResultCache(2);
+        summary(cache, "P1", DAY, alpha);
+        summary(cache, "P2", DAY, alpha);
+        summary(cache, "P1", DAY, alpha);
+        summary(cache, "P3", DAY, alpha);
+
+        summary(cache, "P1", DAY, alpha);
+        summary(cache, "P2", DAY, alpha);
+
+        PortfolioResultCache.Stats stats = cache.stats();
+        assertThat(loads).hasValue(4);
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.hitRatio()).isEqualTo(2 / 6.0);
+        // Only the two live entries are left to invalidate.
+        cache.onPricesChanged("ISIN-A", DAY);
+        assertThat(cache.stats().invalidations()).isEqualTo(2);
+    }
+
+    @Test
+    void resultLoadedAcrossAnInvalidation_isNotStored() {
+        PortfolioResultCache cache = new PortfolioResultCache(100);
+        cache.summary("P1", DAY, () -> {
+            cache.onSave(Buy.builder().portfolio(p1).security(alpha).volume(BigInteger.ONE).datetime(DAY.atTime(9, 0)).build());
+            return List.of(new SecuritySummary(alpha, Quantity.of(1), Money.of(1)));
+        });
+
+        summary(cache, "P1", DAY, alpha);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void changesToOtherPortfoliosAndIsins_duringALoad_doNotPreventStoringIt() {
+        PortfolioResultCache cache = new PortfolioResultCache(100);
+        Portfolio p2 = new Portfolio("P2", User.builder().build(), "Two");
+        cache.summary("P1", DAY, () -> {
+            cache.onSave(Deposit.builder().portfolio(p2).amount(BigInteger.TEN).datetime(DAY.atTime(9, 0)).build());
+            cache.onPricesChanged("ISIN-B", DAY);
+            return List.of(new SecuritySummary(alpha, Quantity.of(1), Money.of(1)));
+        });
+        cache.balance("P1", DAY.atStartOfDay(), () -> {
+            cache.onPricesChanged("ISIN-C", DAY);
+            return BigInteger.ONE;
+        });
+
+        summary(cache, "P1", DAY, alpha);
+        balance(cache, "P1", DAY.atStartOfDay());
+        assertThat(loads).hasValue(0);
+
+        cache.summary("P1", DAY.plusDays(1), () -> {
+            cache.onPricesChanged("ISIN-A", DAY);
+            return List.of(new SecuritySummary(alpha, Quantity.of(1), Money.of(1)));
+        });
+        summary(cache, "P1", DAY.plusDays(1), alpha);
+        assertThat(loads).hasValue(1);
+    }
+
+    private void summary(PortfolioResultCache cache, String portfolioId, LocalDate date, Security security) {
+        cache.summary(portfolioId, date, () -> {
+            loads.incrementAndGet();
+            return List.of(new SecuritySummary(security, Quantity.of(1), Money.of(1)));
+        });
+    }
+
+    private void balance(PortfolioResultCache cache, String portfolioId, LocalDateTime before) {
+        cache.balance(portfolioId, before, () -> {
+            loads.incrementAndGet();
+            return BigInteger.ONE;
+        });
+    }
+}
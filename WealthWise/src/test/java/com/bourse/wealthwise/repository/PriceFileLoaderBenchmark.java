@@ -0,0 +1,62 @@
+package com.bourse.wealthwise.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Bulk price load throughput against row-at-a-time {@code addPrice}; run with {@code mvn test -Pbenchmark}. */
+@Tag("benchmark")
+public class PriceFileLoaderBenchmark {
+
+    private static final int SECURITIES = 2_000;
+    private static final int DAYS = 2_500;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadThroughput() throws Exception {
+        Path csv = dir.resolve("prices.csv");
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write("isin,date,price\n");
+            for (int s = 0; s < SECURITIES; s++) {
+                for (int d = 0; d < DAYS; d++) {
+                    out.write("IRO1SEC" + s + "," + first.plusDays(d) + "," + (1000 + (s * 31 + d * 7) % 5000) / 100.0 + "\n");
+                }
+            }
+        }
+        long rows = (long) SECURITIES * DAYS;
+
+        long started = System.nanoTime();
+        SecurityPriceRepository baseline = new SecurityPriceRepository();
+        try (var lines = Files.lines(csv)) {
+            lines.skip(1).forEach(line -> {
+                List<String> parts = List.of(line.split(","));
+                baseline.addPrice(parts.get(0), LocalDate.parse(parts.get(1)), Double.parseDouble(parts.get(2)));
+            });
+        }
+        double baselineRate = rows * 1e9 / (System.nanoTime() - started);
+
+        SecurityPriceRepository mapped = new SecurityPriceRepository();
+        PriceFileLoader loader = new PriceFileLoader(mapped);
+        PriceFileLoader.LoadResult csvResult = loader.loadCsv(csv);
+
+        Path binary = dir.resolve("prices.bin");
+        loader.exportBinary(binary);
+        PriceFileLoader.LoadResult binaryResult = new PriceFileLoader(new SecurityPriceRepository()).loadBinary(binary);
+
+        System.out.printf("price load, %,d rows: readLine+addPrice %,.0f rows/s, mapped CSV %,.0f rows/s, binary %,.0f rows/s%n",
+                rows, baselineRate, csvResult.rowsPerSecond(), binaryResult.rowsPerSecond());
+        assertThat(csvResult.rows()).isEqualTo(rows);
+        assertThat(binaryResult.rows()).isEqualTo(rows);
+    }
+}
@@ -0,0 +1,144 @@
+package com.bourse.wealthwise.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class PriceFileLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final SecurityPriceRepository repository = new SecurityPriceRepository();
+    private final PriceFileLoader loader = new PriceFileLoader(repository);
+
+    @Test
+    void csv_withHeaderCrlfAndUnsortedRows_loadsEveryRow() throws Exception {
+        Path file = dir.resolve("prices.csv");
+        Files.writeString(file, "isin,date,price\r\n"
+                + "IR1,2025-06-16,101.5\r\n"
+                + "IR2,2025-06-15,20\r\n"
+                + "IR1,2025-06-15,100.25\r\n"
+                + "\r\n"
+                + "IR2,2025-06-16,21.75");
+
+        PriceFileLoader.LoadResult result = loader.loadCsv(file);
+
+        assertThat(result.rows()).isEqualTo(4);
+        assertThat(result.securities()).isEqualTo(2);
+        assertThat(repository.getPrice("IR1", LocalDate.of(2025, 6, 15))).contains(100.25);
+        assertThat(repository.getPrice("IR1", LocalDate.of(2025, 6, 16))).contains(101.5);
+        assertThat(repository.getPrice("IR2", LocalDate.of(2025, 6, 16))).contains(21.75);
+        assertThat(repository.historyOf("IR2").size()).isEqualTo(2);
+    }
+
+    @Test
+    void loads_reportEachIsinFromItsEarliestDate() throws Exception {
+        Map<String, LocalDate> changed = new HashMap<>();
+        SecurityPriceRepository listened = new SecurityPriceRepository(List.of(new SecurityPriceListener() {
+            @Override
+            public void onPricesChanged(String isin, LocalDate from) {
+                changed.merge(isin, from, (a, b) -> a.isBefore(b) ? a : b);
+            }
+
+            @Override
+            public void onClear() {
+            }
+        }));
+        Path csv = dir.resolve("listened.csv");
+        Files.writeString(csv, "IR1,2025-06-16,1\nIR2,2025-06-20,2\nIR1,2025-06-14,3\n");
+        new PriceFileLoader(listened).loadCsv(csv);
+        assertThat(changed).containsOnly(entry("IR1", LocalDate.of(2025, 6, 14)), entry("IR2", LocalDate.of(2025, 6, 20)));
+
+        Path binary = dir.resolve("listened.bin");
+        new PriceFileLoader(listened).exportBinary(binary);
+        changed.clear();
+        new PriceFileLoader(listened).loadBinary(binary);
+        assertThat(changed).containsOnly(entry("IR1", LocalDate.of(2025, 6, 14)), entry("IR2", LocalDate.of(2025, 6, 20)));
+    }
+
+    @Test
+    void csv_malformedRow_reportsLine() throws Exception {
+        Path file = dir.resolve("bad.csv");
+        Files.writeString(file, "IR1,2025-06-15,1\nIR1,2025-06-16,abc\n");
+
+        assertThatThrownBy(() -> loader.loadCsv(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    void binary_roundTripsExport() {
+        for (int i = 0; i < 1_000; i++) {
+            repository.addPrice("IR" + (i % 7), LocalDate.of(2020, 1, 1).plusDays(i), i + 0.5);
+        }
+        Path file = dir.resolve("prices.bin");
+        assertThat(loader.exportBinary(file)).isEqualTo(1_000);
+
+        SecurityPriceRepository restored = new SecurityPriceRepository();
+        PriceFileLoader.LoadResult result = new PriceFileLoader(restored).loadBinary(file);
+
+        assertThat(result.rows()).isEqualTo(1_000);
+        assertThat(restored.isins()).isEqualTo(repository.isins());
+        for (String isin : repository.isins()) {
+            assertThat(restored.getPricesForSecurity(isin))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .isEqualTo(repository.getPricesForSecurity(isin));
+        }
+    }
+
+    @Test
+    void binary_badBlockHeaders_areRejectedWithTheirOffset() throws Exception {
+        Map<String, LocalDate> changed = new HashMap<>();
+        SecurityPriceRepository listened = new SecurityPriceRepository(List.of(new SecurityPriceListener() {
+            @Override
+            public void onPricesChanged(String isin, LocalDate from) {
+                changed.put(isin, from);
+            }
+
+            @Override
+            public void onClear() {
+            }
+        }));
+        int day = (int) LocalDate.of(2025, 6, 15).toEpochDay();
+        ByteBuffer good = ByteBuffer.allocate(64)
+                .putInt(PriceFileLoader.BINARY_MAGIC).putInt(PriceFileLoader.BINARY_VERSION)
+                .putShort((short) 3).put("IR1".getBytes(StandardCharsets.US_ASCII)).putInt(1)
+                .putInt(day).putDouble(10.5);
+        int offset = good.position();
+
+        Path longIsin = dir.resolve("long-isin.bin");
+        Files.write(longIsin, bytes(good.duplicate().putShort((short) -1).putInt(0)));
+        assertThatThrownBy(() -> new PriceFileLoader(listened).loadBinary(longIsin))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ISIN length 65535 at offset " + offset);
+        assertThat(listened.getPrice("IR1", LocalDate.of(2025, 6, 15))).contains(10.5);
+        assertThat(changed).containsOnly(entry("IR1", LocalDate.of(2025, 6, 15)));
+
+        Path shortRows = dir.resolve("short-rows.bin");
+        Files.write(shortRows, bytes(good.duplicate().putShort((short) 3)
+                .put("IR2".getBytes(StandardCharsets.US_ASCII)).putInt(2).putInt(day).putDouble(1)));
+        assertThatThrownBy(() -> new PriceFileLoader(listened).loadBinary(shortRows))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("row count 2 at offset " + offset);
+        assertThat(listened.historyOf("IR2").size()).isZero();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.bourse.wealthwise.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** As-of lookup throughput from 1 to N reader threads under a live writer; run with {@code mvn test -Pbenchmark}. */
+@Tag("benchmark")
+public class SecurityPriceRepositoryBenchmark {
+
+    private static final int SECURITIES = 1_000;
+    private static final int DAYS = 2_500;
+    private static final long MEASURE_MILLIS = 1_000;
+
+    @Test
+    void readerScaling() throws Exception {
+        SecurityPriceRepository repository = new SecurityPriceRepository();
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        for (int s = 0; s < SECURITIES; s++) {
+            for (int d = 0; d < DAYS; d++) repository.addPrice("IRO1SEC" + s, first.plusDays(d), 1000 + (s + d) % 500);
+        }
+        String[] isins = new String[SECURITIES];
+        for (int s = 0; s < SECURITIES; s++) isins[s] = "IRO1SEC" + s;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        lookupsPerSecond(repository, isins, first, cores);
+        double singleThreaded = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double rate = lookupsPerSecond(repository, isins, first, threads);
+            if (threads == 1) singleThreaded = rate;
+            System.out.printf("price lookups, %d reader(s) + 1 writer: %,.0f lookups/s (%.1fx)%n",
+                    threads, rate, rate / singleThreaded);
+            assertThat(rate).isPositive();
+        }
+    }
+
+    private static double lookupsPerSecond(SecurityPriceRepository repository, String[] isins, LocalDate first, int threads)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder lookups = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                double sink = 0;
+                while (running.get()) {
+                    for (int i = 0; i < 1024; i++) {
+                        sink += repository.getPriceAsOf(isins[random.nextInt(isins.length)],
+                                first.plusDays(random.nextInt(DAYS + 30))).orElse(0.0);
+                    }
+                    done += 1024;
+                }
+                lookups.add(done);
+                if (sink == -1) System.out.println(sink);
+            }));
+        }
+        Thread writer = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                repository.addPrice(isins[random.nextInt(isins.length)], first.plusDays(random.nextInt(DAYS)), 1234);
+            }
+        });
+
+        start.countDown();
+        long started = System.nanoTime();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread reader : readers) reader.join();
+        writer.join();
+        return lookups.sum() * 1e9 / (System.nanoTime() - started);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.security.Security;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SecurityPriceRepositoryConcurrencyTest {
+
+    private static final int ISINS = 4;
+    private static final int DAYS = 20_000;
+
+    /**
+     * One writer per ISIN appends even days and backfills odd days out of order, always
+     * storing the day number as the price, while readers check every history they see
+     * is sorted, self-consistent and never shrinks.
+     */
+    @Test
+    void readersNeverSeeInconsistentHistories_whileWritersAppendAndBackfill() throws Exception {
+        SecurityPriceRepository repository = new SecurityPriceRepository();
+        SecurityRepository securities = new SecurityRepository();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < ISINS; w++) {
+            String isin = "ISIN" + w;
+            writers.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int day = 0; day < DAYS; day += 2) {
+                    repository.addPrice(isin, LocalDate.ofEpochDay(day), day);
+                    if (day % 20 == 10) {
+                        int backfill = ThreadLocalRandom.current().nextInt(day / 2) * 2 + 1;
+                        repository.addPrice(isin, LocalDate.ofEpochDay(backfill), backfill);
+                    }
+                    if (day % 50 == 0) {
+                        securities.addSecurity(Security.builder().isin(isin + "-" + day).symbol("S" + isin + day).build());
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < Math.max(2, Runtime.getRuntime().availableProcessors() - ISINS); r++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                int[] lastSize = new int[ISINS];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    int w = random.nextInt(ISINS);
+                    PriceHistory history = repository.historyOf("ISIN" + w);
+                    if (history.size() < lastSize[w]) failures.add("history shrank for ISIN" + w);
+                    lastSize[w] = history.size();
+                    int day = random.nextInt(DAYS);
+                    int at = history.floorIndex(day);
+                    if (at >= 0) {
+                        if (history.epochDayAt(at) > day) failures.add("floor after day " + day);
+                        if (history.priceAt(at) != history.epochDayAt(at)) failures.add("torn price at day " + day);
+                        if (at + 1 < history.size() && history.epochDayAt(at + 1) <= day) failures.add("floor not last at " + day);
+                    }
+                    repository.getPriceAsOf("ISIN" + w, LocalDate.ofEpochDay(day))
+                            .filter(price -> price > day)
+                            .ifPresent(price -> failures.add("as-of price from the future for day " + day));
+                    securities.findSecurityBySymbol("SISIN" + w + "0");
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Thread writer : writers) writer.join();
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        assertThat(failures).isEmpty();
+        assertThat(reads.get()).isPositive();
+        for (int w = 0; w < ISINS; w++) {
+            PriceHistory history = repository.historyOf("ISIN" + w);
+            for (int i = 1; i < history.size(); i++) assertThat(history.epochDayAt(i)).isGreaterThan(history.epochDayAt(i - 1));
+            assertThat(history.floorIndex(DAYS)).isEqualTo(history.size() - 1);
+        }
+        assertThat(securities.findSecurityByIsin("ISIN0-0")).isNotNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
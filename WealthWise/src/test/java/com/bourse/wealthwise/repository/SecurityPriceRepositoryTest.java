@@ -0,0 +1,74 @@
+package com.bourse.wealthwise.repository;
+
+import com.bourse.wealthwise.domain.entity.security.SecurityPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+public class SecurityPriceRepositoryTest {
+
+    @Autowired
+    private SecurityPriceRepository securityPriceRepository;
+
+    private final LocalDate day = LocalDate.of(2025, 6, 15);
+
+    @BeforeEach
+    void setUp() {
+        securityPriceRepository.clear();
+    }
+
+    @Test
+    void outOfOrderPrices_returnedInDateOrder() {
+        securityPriceRepository.addPrice("ISIN", day.plusDays(2), 102.0);
+        securityPriceRepository.addPrice("ISIN", day, 100.0);
+        securityPriceRepository.addPrice("ISIN", day.plusDays(3), 103.0);
+        securityPriceRepository.addPrice("ISIN", day.plusDays(1), 101.0);
+
+        assertThat(securityPriceRepository.getPricesForSecurity("ISIN"))
+                .extracting(SecurityPrice::getDate, SecurityPrice::getPrice)
+                .containsExactly(
+                        tuple(day, 100.0),
+                        tuple(day.plusDays(1), 101.0),
+                        tuple(day.plusDays(2), 102.0),
+                        tuple(day.plusDays(3), 103.0));
+        assertThat(securityPriceRepository.historyOf("ISIN").size()).isEqualTo(4);
+    }
+
+    @Test
+    void pointLookup_matchesExactDayAndOverwrites() {
+        for (int i = 0; i < 100; i++) securityPriceRepository.addPrice("ISIN", day.plusDays(2L * i), i);
+        securityPriceRepository.addPrice("ISIN", day.plusDays(10), 99.5);
+
+        assertThat(securityPriceRepository.getPrice("ISIN", day.plusDays(10))).contains(99.5);
+        assertThat(securityPriceRepository.getPrice("ISIN", day.plusDays(11))).isEmpty();
+        assertThat(securityPriceRepository.getPrice("ISIN", day.minusDays(1))).isEmpty();
+        assertThat(securityPriceRepository.getPrice("OTHER", day)).isEmpty();
+        assertThat(securityPriceRepository.historyOf("ISIN").size()).isEqualTo(100);
+    }
+
+    @Test
+    void asOfLookup_returnsLastPriceOnOrBeforeDate() {
+        securityPriceRepository.addPrice("A", day, 10.0);
+        securityPriceRepository.addPrice("A", day.plusDays(3), 13.0);
+        securityPriceRepository.addPrice("B", day.plusDays(2), 20.0);
+
+        assertThat(securityPriceRepository.getPriceAsOf("A", day.minusDays(1))).isEmpty();
+        assertThat(securityPriceRepository.getPriceAsOf("A", day)).contains(10.0);
+        assertThat(securityPriceRepository.getPriceAsOf("A", day.plusDays(2))).contains(10.0);
+        assertThat(securityPriceRepository.getPriceAsOf("A", day.plusYears(1))).contains(13.0);
+
+        assertThat(securityPriceRepository.getPricesAsOf(List.of("A", "B", "C"), day.plusDays(1)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("A", 10.0));
+        assertThat(securityPriceRepository.getPricesAsOf(List.of("A", "B", "C"), day.plusDays(3)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("A", 13.0, "B", 20.0));
+    }
+}
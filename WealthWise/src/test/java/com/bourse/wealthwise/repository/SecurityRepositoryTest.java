@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -39,5 +40,17 @@ public class SecurityRepositoryTest {
         assertNull(foundSecurity);
     }
 
+    @Test
+    public void securitiesWithAndWithoutIsin_allSecuritiesListsEachOnce(){
+        Security both = Security.builder().isin("IR-ALL-1").symbol("all-1").build();
+        Security symbolOnly = Security.builder().symbol("all-2").build();
+        securityRepository.addSecurity(both);
+        securityRepository.addSecurity(symbolOnly);
+
+        List<Security> all = new ArrayList<>();
+        securityRepository.allSecurities().forEach(all::add);
 
+        assertThat(all.stream().filter(security -> security == both)).hasSize(1);
+        assertThat(all.stream().filter(security -> security == symbolOnly)).hasSize(1);
+    }
 }
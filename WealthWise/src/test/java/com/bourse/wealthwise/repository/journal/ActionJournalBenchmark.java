@@ -0,0 +1,85 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Journal write throughput and recovery time; run with {@code mvn test -Pbenchmark}. */
+@Tag("benchmark")
+public class ActionJournalBenchmark {
+
+    private static final int ACTIONS = 200_000;
+    private static final int BATCH = 1_000;
+
+    @TempDir
+    Path dir;
+
+    private final Security stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+    private final LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Test
+    void writeThroughput_withoutFsync() {
+        measure("no-fsync", false, 1, 20_000);
+        measure("no-fsync", false, BATCH, ACTIONS);
+    }
+
+    @Test
+    void writeThroughput_withFsync() {
+        measure("fsync", true, 1, 2_000);
+        measure("fsync", true, BATCH, ACTIONS);
+    }
+
+    private void measure(String mode, boolean fsync, int batchSize, int count) {
+        Path journalDir = dir.resolve(mode + "-" + batchSize);
+        ActionJournal journal = new ActionJournal(journalDir.toString(), 64 << 20, fsync);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        List<Portfolio> portfolios = new ArrayList<>();
+        for (int p = 0; p < 100; p++) portfolios.add(new Portfolio("P" + p, User.builder().build(), "P" + p));
+
+        long started = System.nanoTime();
+        List<BaseAction> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            batch.add(Buy.builder().portfolio(portfolios.get(i % portfolios.size())).security(stock)
+                    .volume(BigInteger.valueOf(1 + i % 50)).price(1_000 + i % 7)
+                    .totalValue(BigInteger.valueOf((1 + i % 50) * 1_000L)).datetime(base.plusSeconds(i)).build());
+            if (batch.size() == batchSize) {
+                if (batchSize == 1) repository.save(batch.get(0));
+                else repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        double writeSeconds = (System.nanoTime() - started) / 1e9;
+        long bytes = journal.bytesWritten();
+        journal.close();
+
+        ActionJournal reopened = new ActionJournal(journalDir.toString(), 64 << 20, false);
+        ActionStoreLock lock = new ActionStoreLock();
+        ActionRepository restored = new ActionRepository(List.of(reopened), lock);
+        JournalRecovery recovery = new JournalRecovery(reopened, null, restored, new PortfolioRepository(),
+                new SecurityRepository(), lock);
+        recovery.recover(0);
+        reopened.close();
+
+        System.out.printf("journal %-8s batch %5d: %,d actions, %,.0f actions/s, %.1f B/action, recovery %d ms (%,.0f actions/s)%n",
+                mode, batchSize, count, count / writeSeconds, (double) bytes / count,
+                recovery.recoveryMillis(), count / Math.max(0.001, recovery.recoveryMillis() / 1e3));
+        assertThat(recovery.recoveredRecords()).isEqualTo(count);
+    }
+}
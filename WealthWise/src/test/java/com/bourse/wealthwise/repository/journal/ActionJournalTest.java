@@ -0,0 +1,234 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.ActionType;
+import com.bourse.wealthwise.domain.entity.action.Actor;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
+import com.bourse.wealthwise.domain.entity.action.Withdrawal;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.domain.entity.security.SecurityType;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ActionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final Portfolio portfolio = new Portfolio("P1", User.builder().build(), "Port");
+    private final Security stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+    private final Security right = Security.builder().name("Foo Right").symbol("FOO_X").isin("ISIN-FOO-X")
+            .securityType(SecurityType.STOCK_RIGHT).build();
+    private final LocalDateTime base = LocalDateTime.of(2025, 6, 15, 10, 0, 0, 123_456_789);
+
+    @Test
+    void everyActionKind_survivesRestart() {
+        ActionJournal journal = new ActionJournal(dir.toString(), 1 << 16, true);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        repository.save(Buy.builder().uuid("b").portfolio(portfolio).security(stock).volume(BigInteger.TEN)
+                .price(1_500).totalValue(BigInteger.valueOf(15_000)).datetime(base)
+                .tracing_number("T-1").actionType(ActionType.BUY).actor(Actor.MANUAL).build());
+        repository.saveAll(List.of(
+                Sale.builder().uuid("s").portfolio(portfolio).security(stock).volume(BigInteger.TWO)
+                        .price(1_600).datetime(base.plusHours(1)).build(),
+                Deposit.builder().uuid("d").portfolio(portfolio).amount(new BigInteger("123456789012345678901234567890"))
+                        .datetime(base).build(),
+                Withdrawal.builder().uuid("w").portfolio(portfolio).amount(BigInteger.ONE).build(),
+                CapitalRaise.builder().uuid("c").portfolio(portfolio).security(right).volume(BigInteger.valueOf(3))
+                        .datetime(base.plusDays(1)).actor(Actor.PUBLISHER).build(),
+                StockRightUsage.builder().uuid("u").portfolio(portfolio).rightSecurity(right).stockSecurity(stock)
+                        .rightsUsed(BigInteger.TWO).pricePerRight(BigInteger.valueOf(100))
+                        .datetime(base.plusDays(2)).build()));
+        repository.deleteById("w");
+        journal.close();
+
+        Recovered recovered = recover();
+
+        assertThat(recovered.journal.lastSequence()).isEqualTo(7);
+        assertThat(recovered.repository.findById("w")).isEmpty();
+        assertThat(recovered.repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("b", "d", "s", "c", "u");
+
+        Buy buy = (Buy) recovered.repository.findById("b").orElseThrow();
+        assertThat(buy.getDatetime()).isEqualTo(base);
+        assertThat(buy.getPrice()).isEqualTo(1_500);
+        assertThat(buy.getTotalValue()).isEqualTo(15_000);
+        assertThat(buy.getTracing_number()).isEqualTo("T-1");
+        assertThat(buy.getActionType()).isEqualTo(ActionType.BUY);
+        assertThat(buy.getActor()).isEqualTo(Actor.MANUAL);
+        assertThat(buy.getSecurity().getIsin()).isEqualTo("ISIN-FOO");
+        assertThat(((Sale) recovered.repository.findById("s").orElseThrow()).getTotalValue()).isNull();
+        assertThat(((Deposit) recovered.repository.findById("d").orElseThrow()).getAmount())
+                .isEqualTo(new BigInteger("123456789012345678901234567890"));
+
+        StockRightUsage usage = (StockRightUsage) recovered.repository.findById("u").orElseThrow();
+        assertThat(usage.getRightSecurity().getSecurityType()).isEqualTo(SecurityType.STOCK_RIGHT);
+        assertThat(usage.getStockSecurity()).isSameAs(buy.getSecurity());
+        assertThat(recovered.repository.findById("c").orElseThrow().getPortfolio())
+                .isSameAs(buy.getPortfolio());
+    }
+
+    @Test
+    void tornTail_isDiscardedAndOverwritten() throws Exception {
+        ActionJournal journal = new ActionJournal(dir.toString(), 1 << 16, false);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        repository.save(deposit("a"));
+        repository.save(deposit("b"));
+        long end = journal.bytesWritten();
+        journal.close();
+
+        // A record whose length made it to disk but whose checksum does not match.
+        try (RandomAccessFile file = new RandomAccessFile(singleSegment().toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(40);
+            file.writeInt(0xDEADBEEF);
+            file.write(new byte[40]);
+        }
+
+        Recovered recovered = recover();
+        assertThat(recovered.repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("a", "b");
+
+        recovered.repository.save(deposit("c"));
+        recovered.journal.close();
+        assertThat(recover().repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void segmentsRotate_andReplayInOrder() throws Exception {
+        ActionJournal journal = new ActionJournal(dir.toString(), 4096, false);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        List<BaseAction> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) batch.add(deposit(String.format("a%04d", i)));
+        repository.saveAll(batch);
+        repository.clear();
+        repository.save(deposit("last"));
+        journal.close();
+
+        try (var files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        Recovered recovered = recover();
+        assertThat(recovered.journal.lastSequence()).isEqualTo(502);
+        assertThat(recovered.repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("last");
+    }
+
+    @Test
+    void actionTooLargeForASegment_isRejectedBeforeAnythingIsStored() {
+        ActionJournal journal = new ActionJournal(dir.toString(), 4096, false);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+
+        assertThatThrownBy(() -> repository.saveAll(List.of(deposit("a"), deposit("x".repeat(5_000)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.findAllActionsOf("P1")).isEmpty();
+        assertThat(journal.lastSequence()).isZero();
+
+        repository.save(deposit("b"));
+        journal.close();
+        assertThat(recover().repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("b");
+    }
+
+    @Test
+    void batchFailingPartway_leavesNoneOfItsRecords() throws Exception {
+        ActionJournal journal = new ActionJournal(dir.toString(), 4096, false);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        repository.save(deposit("a0000"));
+        int perSegment = (int) (4096 / journal.bytesWritten());
+        // The batch rotates once, then cannot create its second new segment.
+        Path blocked = Files.createDirectory(JournalSegment.pathFor(dir, 2L * perSegment + 1));
+        List<BaseAction> batch = new ArrayList<>();
+        for (int i = 1; i <= 3 * perSegment; i++) batch.add(deposit(String.format("a%04d", i)));
+
+        assertThatThrownBy(() -> repository.saveAll(batch)).isInstanceOf(UncheckedIOException.class);
+        assertThat(repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid).containsExactly("a0000");
+        assertThat(journal.lastSequence()).isEqualTo(1);
+        assertThat(journal.recordsWritten()).isEqualTo(1);
+
+        Files.deleteIfExists(blocked);
+        repository.save(deposit("b"));
+        journal.close();
+        try (var files = Files.list(dir)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+        Recovered recovered = recover();
+        assertThat(recovered.journal.lastSequence()).isEqualTo(2);
+        assertThat(recovered.repository.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("a0000", "b");
+    }
+
+    @Test
+    void rolledReplayedAndClosedSegments_areUnmapped() throws Exception {
+        Path maps = Path.of("/proc/self/maps");
+        assumeTrue(Files.isReadable(maps));
+        ActionJournal journal = new ActionJournal(dir.toString(), 4096, false);
+        ActionRepository repository = new ActionRepository(List.of(journal), new ActionStoreLock());
+        List<BaseAction> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) batch.add(deposit(String.format("a%04d", i)));
+        repository.saveAll(batch);
+
+        assertThat(mappedSegments(maps)).isEqualTo(1);
+        journal.replay(0, (seq, tag, body) -> {
+        });
+        assertThat(mappedSegments(maps)).isEqualTo(1);
+        assertThat(journal.deleteSegmentsUpTo(journal.lastSequence())).isPositive();
+        assertThat(mappedSegments(maps)).isEqualTo(1);
+        journal.close();
+        assertThat(mappedSegments(maps)).isZero();
+    }
+
+    private long mappedSegments(Path maps) throws Exception {
+        String prefix = dir.toRealPath().toString();
+        try (var lines = Files.lines(maps)) {
+            return lines.filter(line -> line.contains(prefix)).count();
+        }
+    }
+
+    private Deposit deposit(String uuid) {
+        return Deposit.builder().uuid(uuid).portfolio(portfolio).amount(BigInteger.TEN)
+                .datetime(base).build();
+    }
+
+    private Path singleSegment() throws Exception {
+        try (var files = Files.list(dir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private Recovered recover() {
+        ActionJournal journal = new ActionJournal(dir.toString(), 1 << 16, false);
+        ActionStoreLock lock = new ActionStoreLock();
+        ActionRepository repository = new ActionRepository(List.of(journal), lock);
+        new JournalRecovery(journal, null, repository, new PortfolioRepository(), new SecurityRepository(), lock)
+                .recover(0);
+        return new Recovered(journal, repository);
+    }
+
+    private record Recovered(ActionJournal journal, ActionRepository repository) {
+    }
+}
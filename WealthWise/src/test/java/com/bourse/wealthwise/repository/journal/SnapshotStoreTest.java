@@ -0,0 +1,234 @@
+package com.bourse.wealthwise.repository.journal;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.Deposit;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.portfolio.PortfolioStatus;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ActionRepositoryListener;
+import com.bourse.wealthwise.repository.ActionStoreLock;
+import com.bourse.wealthwise.repository.PortfolioRepository;
+import com.bourse.wealthwise.repository.SecurityPriceRepository;
+import com.bourse.wealthwise.repository.SecurityRepository;
+import com.bourse.wealthwise.repository.ledger.PositionLedger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final LocalDateTime base = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+    @Test
+    void restart_loadsSnapshotThenJournalTail() throws Exception {
+        Book book = open();
+        Security stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+        book.securities.addSecurity(stock);
+        Portfolio portfolio = new Portfolio("P1", User.builder().uuid("U1").firstName("Ada").build(), "Main");
+        portfolio.setStatus(PortfolioStatus.ACTIVE);
+        book.portfolios.save(portfolio);
+        book.prices.addPrice("ISIN-FOO", LocalDate.of(2025, 6, 15), 101.5);
+
+        book.actions.save(buy("b1", portfolio, stock, 10, base));
+        book.actions.save(deposit("d1", portfolio, base));
+        long covered = book.snapshots.snapshot();
+        book.actions.save(buy("b2", portfolio, stock, 5, base.plusDays(1)));
+        book.actions.deleteById("d1");
+        book.journal.close();
+
+        Book restarted = open();
+        long tail = restarted.recovery.recover(restarted.snapshots.loadLatest());
+
+        assertThat(covered).isEqualTo(2);
+        assertThat(tail).isEqualTo(2);
+        assertThat(restarted.actions.findAllActionsOf("P1")).extracting(BaseAction::getUuid)
+                .containsExactly("b1", "b2");
+        Portfolio restored = restarted.portfolios.findById("P1").orElseThrow();
+        assertThat(restored.getName()).isEqualTo("Main");
+        assertThat(restored.getStatus()).isEqualTo(PortfolioStatus.ACTIVE);
+        assertThat(restored.getPortfolioManager().getFirstName()).isEqualTo("Ada");
+        assertThat(restarted.prices.getPrice("ISIN-FOO", LocalDate.of(2025, 6, 15))).contains(101.5);
+        Security restoredStock = restarted.securities.findSecurityBySymbol("FOO");
+        assertThat(restarted.ledger.volumeOf("P1", restoredStock)).isEqualTo(Quantity.of(15));
+        assertThat(restarted.journal.lastSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void secondSnapshot_compactsJournalCoveredByBoth() throws Exception {
+        Book book = open();
+        Portfolio portfolio = new Portfolio("P1", User.builder().build(), "Main");
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 100; i++) book.actions.save(deposit("d" + round + "-" + i, portfolio, base));
+            book.snapshots.snapshot();
+        }
+        book.actions.save(deposit("tail", portfolio, base));
+        book.journal.close();
+
+        try (var files = Files.list(dir.resolve("snapshots"))) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+        try (var files = Files.list(dir.resolve("journal"))) {
+            assertThat(files.map(f -> JournalSegment.firstSeqOf(f)).toList()).allMatch(first -> first > 100);
+        }
+
+        Book restarted = open();
+        restarted.recovery.recover(restarted.snapshots.loadLatest());
+        assertThat(restarted.actions.findAllActionsOf("P1")).hasSize(301);
+    }
+
+    @Test
+    void writesBetweenPortfolioCopies_areRestoredFromTheJournalTail() throws Exception {
+        WritesBetweenReads lock = new WritesBetweenReads();
+        Book book = open(lock);
+        Security stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+        Portfolio p1 = new Portfolio("P1", null, "One");
+        Portfolio p2 = new Portfolio("P2", null, "Two");
+        book.portfolios.save(p1);
+        book.portfolios.save(p2);
+        book.actions.saveAll(List.of(buy("m", p1, stock, 1, base), buy("n", p2, stock, 2, base),
+                buy("y1", p1, stock, 4, base), buy("y2", p2, stock, 8, base), deposit("u", null, base)));
+
+        // After the sequence number is read and one portfolio is copied, whichever it is,
+        // actions move both ways and each portfolio gains and loses one.
+        lock.afterReads(2, () -> {
+            book.actions.saveAll(List.of(buy("m", p2, stock, 1, base), buy("n", p1, stock, 2, base),
+                    buy("x1", p1, stock, 16, base), buy("x2", p2, stock, 32, base)));
+            book.actions.deleteById("y1");
+            book.actions.deleteById("y2");
+            book.actions.deleteById("u");
+        });
+        long covered = book.snapshots.snapshot();
+        book.journal.close();
+
+        Book restarted = open();
+        restarted.recovery.recover(restarted.snapshots.loadLatest());
+
+        assertThat(covered).isEqualTo(5);
+        assertThat(uuidsAndOwners(restarted.actions)).isEqualTo(uuidsAndOwners(book.actions))
+                .containsOnlyKeys("m", "n", "x1", "x2");
+        Security restoredStock = restarted.securities.findSecurityBySymbol("FOO");
+        assertThat(restarted.ledger.volumeOf("P1", restoredStock)).isEqualTo(Quantity.of(18));
+        assertThat(restarted.ledger.volumeOf("P2", restoredStock)).isEqualTo(Quantity.of(33));
+    }
+
+    @Test
+    void portfolioRegisteredAfterTheLatestSnapshot_comesBackByUuidOnly() throws Exception {
+        Book book = open();
+        book.snapshots.snapshot();
+        Portfolio portfolio = new Portfolio("P9", User.builder().firstName("Ada").build(), "Late");
+        book.portfolios.save(portfolio);
+        book.actions.save(deposit("d1", portfolio, base));
+        book.journal.close();
+
+        Book restarted = open();
+        restarted.recovery.recover(restarted.snapshots.loadLatest());
+
+        Portfolio restored = restarted.portfolios.findById("P9").orElseThrow();
+        assertThat(restarted.actions.findAllActionsOf("P9")).extracting(BaseAction::getUuid).containsExactly("d1");
+        assertThat(restored.getName()).isNull();
+        assertThat(restored.getPortfolioManager()).isNull();
+    }
+
+    private static Map<String, String> uuidsAndOwners(ActionRepository actions) {
+        Map<String, String> owners = new HashMap<>();
+        for (BaseAction action : actions.findAll()) {
+            owners.put(action.getUuid(), action.getPortfolio() == null ? "-" : action.getPortfolio().getUuid());
+        }
+        return owners;
+    }
+
+    private Book open() {
+        return open(new ActionStoreLock());
+    }
+
+    /** Small segments so that snapshots have whole segments to compact. */
+    private Book open(ActionStoreLock lock) {
+        ActionJournal journal = new ActionJournal(dir.resolve("journal").toString(), 2048, false);
+        PositionLedger ledger = new PositionLedger(lock);
+        ActionRepository actions = new ActionRepository(List.<ActionRepositoryListener>of(journal, ledger), lock);
+        PortfolioRepository portfolios = new PortfolioRepository();
+        SecurityRepository securities = new SecurityRepository();
+        SecurityPriceRepository prices = new SecurityPriceRepository();
+        SnapshotStore snapshots = new SnapshotStore(dir.resolve("snapshots").toString(), 2, true,
+                journal, actions, portfolios, securities, prices, lock);
+        JournalRecovery recovery = new JournalRecovery(journal, snapshots, actions, portfolios, securities, lock);
+        return new Book(journal, actions, portfolios, securities, prices, ledger, snapshots, recovery);
+    }
+
+    private Buy buy(String uuid, Portfolio portfolio, Security security, long volume, LocalDateTime when) {
+        return Buy.builder().uuid(uuid).portfolio(portfolio).security(security)
+                .volume(BigInteger.valueOf(volume)).datetime(when).build();
+    }
+
+    private Deposit deposit(String uuid, Portfolio portfolio, LocalDateTime when) {
+        return Deposit.builder().uuid(uuid).portfolio(portfolio).amount(BigInteger.TEN).datetime(when).build();
+    }
+
+    /** Runs a write once the store's read lock has been released a given number of times. */
+    private static final class WritesBetweenReads extends ActionStoreLock {
+
+        private int remaining = -1;
+        private Runnable write;
+
+        void afterReads(int reads, Runnable write) {
+            this.remaining = reads;
+            this.write = write;
+        }
+
+        @Override
+        public Lock readLock() {
+            Lock read = super.readLock();
+            return new Lock() {
+                public void lock() {
+                    read.lock();
+                }
+
+                public void lockInterruptibly() throws InterruptedException {
+                    read.lockInterruptibly();
+                }
+
+                public boolean tryLock() {
+                    return read.tryLock();
+                }
+
+                public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                    return read.tryLock(time, unit);
+                }
+
+                public void unlock() {
+                    read.unlock();
+                    if (remaining > 0 && --remaining == 0) write.run();
+                }
+
+                public Condition newCondition() {
+                    return read.newCondition();
+                }
+            };
+        }
+    }
+
+    private record Book(ActionJournal journal, ActionRepository actions, PortfolioRepository portfolios,
+                        SecurityRepository securities, SecurityPriceRepository prices, PositionLedger ledger,
+                        SnapshotStore snapshots, JournalRecovery recovery) {
+    }
+}
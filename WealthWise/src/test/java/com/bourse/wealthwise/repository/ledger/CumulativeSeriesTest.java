@@ -0,0 +1,38 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CumulativeSeriesTest {
+
+    @Test
+    void inOrderAppends_lookupIsInclusive() {
+        CumulativeSeries series = new CumulativeSeries();
+        series.add(10, 5);
+        series.add(20, -2);
+        series.add(20, 4);
+
+        assertThat(series.valueAt(9)).isZero();
+        assertThat(series.valueAt(10)).isEqualTo(5);
+        assertThat(series.valueAt(19)).isEqualTo(5);
+        assertThat(series.valueAt(20)).isEqualTo(7);
+        assertThat(series.valueAt(Long.MAX_VALUE)).isEqualTo(7);
+    }
+
+    @Test
+    void backdatedInsert_patchesSuffix() {
+        CumulativeSeries series = new CumulativeSeries();
+        for (int t = 10; t <= 100; t += 10) series.add(t, 1);
+
+        series.add(35, 100);
+        series.add(5, -1);
+
+        assertThat(series.valueAt(5)).isEqualTo(-1);
+        assertThat(series.valueAt(30)).isEqualTo(2);
+        assertThat(series.valueAt(35)).isEqualTo(102);
+        assertThat(series.valueAt(100)).isEqualTo(109);
+        assertThat(series.hasPointAtOrBefore(4)).isFalse();
+        assertThat(series.hasPointAtOrBefore(5)).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.BaseAction;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
+import com.bourse.wealthwise.domain.entity.money.Money;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import com.bourse.wealthwise.repository.ledger.LotLedger.Lot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class LotLedgerTest {
+
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private LotLedger lotLedger;
+
+    private Portfolio portfolio;
+    private Security stock;
+    private Security right;
+    private final LocalDateTime base = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        actionRepository.clear();
+        portfolio = new Portfolio("P1", User.builder().build(), "Port");
+        stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+        right = Security.builder().name("Foo Right").symbol("FOO_X").isin("ISIN-FOO-X").build();
+    }
+
+    @Test
+    void sale_closesOldestLots_andRealizesProceedsOverTheirCost() {
+        actionRepository.save(buy("b1", 10, 1_000, base));
+        actionRepository.save(buy("b2", 10, 1_500, base.plusHours(1)));
+        actionRepository.save(sale("s", 15, 2_400, base.plusHours(2)));
+
+        assertThat(lotLedger.openLots("P1", stock)).containsExactly(new Lot(5, Money.of(750)));
+        assertThat(positions().get(stock)).containsExactly(5, Money.of(750).units(), Money.of(2_400 - 1_750).units());
+    }
+
+    @Test
+    void rightsUsage_movesRightsBasisIntoTheStockLot() {
+        actionRepository.save(CapitalRaise.builder().uuid("c").portfolio(portfolio).security(right)
+                .volume(BigInteger.valueOf(4)).datetime(base).build());
+        actionRepository.save(buy("r", 2, 60, base.plusHours(1), right));
+        actionRepository.save(StockRightUsage.builder().uuid("u").portfolio(portfolio)
+                .rightSecurity(right).stockSecurity(stock).rightsUsed(BigInteger.valueOf(5))
+                .pricePerRight(BigInteger.valueOf(100)).datetime(base.plusHours(2)).build());
+
+        // Four free rights and one of the bought ones at 30.
+        assertThat(lotLedger.openLots("P1", stock)).containsExactly(new Lot(5, Money.of(530)));
+        assertThat(lotLedger.openLots("P1", right)).containsExactly(new Lot(1, Money.of(30)));
+        assertThat(positions().get(stock)[2]).isZero();
+    }
+
+    @Test
+    void backdatedBuyAndDelete_rebuildInTimeOrder() {
+        actionRepository.save(buy("late", 10, 2_000, base.plusDays(1)));
+        actionRepository.save(sale("s", 10, 3_000, base.plusDays(2)));
+        actionRepository.save(buy("early", 10, 1_000, base));
+
+        assertThat(lotLedger.openLots("P1", stock)).containsExactly(new Lot(10, Money.of(2_000)));
+        assertThat(positions().get(stock)[2]).isEqualTo(Money.of(2_000).units());
+
+        actionRepository.deleteById("early");
+
+        assertThat(lotLedger.openLots("P1", stock)).isEmpty();
+        assertThat(positions().get(stock)[2]).isEqualTo(Money.of(1_000).units());
+    }
+
+    @Test
+    void ledger_matchesReplayOfTheStoredHistory() {
+        actionRepository.saveAll(List.of(
+                buy("b1", 100, 10_000, base.plusHours(3)),
+                sale("s1", 30, 4_000, base.plusHours(4)),
+                buy("b2", 50, 4_000, base),
+                sale("s2", 60, 6_600, base.plusHours(5)),
+                buy("b3", 20, 2_500, base.plusHours(1))));
+
+        Map<Security, long[]> replayed = new HashMap<>();
+        LotLedger.replay(actionRepository.findAllActionsOf("P1"),
+                (security, volume, cost, realized) -> replayed.put(security, new long[]{volume, cost, realized}));
+        assertThat(positions()).containsOnlyKeys(replayed.keySet());
+        assertThat(positions().get(stock)).containsExactly(replayed.get(stock));
+        assertThat(positions().get(stock)[0]).isEqualTo(80);
+    }
+
+    private Map<Security, long[]> positions() {
+        Map<Security, long[]> positions = new HashMap<>();
+        lotLedger.forEachPosition("P1", (security, volume, cost, realized) ->
+                positions.put(security, new long[]{volume, cost, realized}));
+        return positions;
+    }
+
+    private BaseAction buy(String id, long volume, long total, LocalDateTime at) {
+        return buy(id, volume, total, at, stock);
+    }
+
+    private BaseAction buy(String id, long volume, long total, LocalDateTime at, Security security) {
+        return Buy.builder().uuid(id).portfolio(portfolio).security(security).volume(BigInteger.valueOf(volume))
+                .totalValue(BigInteger.valueOf(total)).datetime(at).build();
+    }
+
+    private BaseAction sale(String id, long volume, long total, LocalDateTime at) {
+        return Sale.builder().uuid(id).portfolio(portfolio).security(stock).volume(BigInteger.valueOf(volume))
+                .totalValue(BigInteger.valueOf(total)).datetime(at).build();
+    }
+}
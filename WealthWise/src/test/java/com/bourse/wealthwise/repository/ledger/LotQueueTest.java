@@ -0,0 +1,56 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LotQueueTest {
+
+    @Test
+    void closesOldestFirst_partialLotKeepsItsRemainingCost() {
+        LotQueue lots = new LotQueue();
+        lots.open(10, 1_000);
+        lots.open(3, 900);
+
+        assertThat(lots.close(4)).isEqualTo(400);
+        assertThat(lots.close(7)).isEqualTo(600 + 300);
+
+        assertThat(lots.lotCount()).isEqualTo(1);
+        assertThat(lots.lotVolume(0)).isEqualTo(2);
+        assertThat(lots.lotCost(0)).isEqualTo(600);
+        assertThat(lots.volume()).isEqualTo(2);
+        assertThat(lots.cost()).isEqualTo(600);
+    }
+
+    @Test
+    void wrapsAndGrows_inFifoOrder() {
+        LotQueue lots = new LotQueue();
+        for (int i = 1; i <= 3; i++) lots.open(1, i);
+        lots.close(2);
+        for (int i = 4; i <= 10; i++) lots.open(1, i);
+
+        assertThat(lots.lotCount()).isEqualTo(8);
+        for (int i = 0; i < 8; i++) assertThat(lots.lotCost(i)).isEqualTo(i + 3);
+        assertThat(lots.close(8)).isEqualTo(52);
+    }
+
+    @Test
+    void roundingRemainder_staysWithTheLot_andOversellCostsNothing() {
+        LotQueue lots = new LotQueue();
+        lots.open(3, 100);
+
+        assertThat(lots.close(1)).isEqualTo(33);
+        assertThat(lots.close(1)).isEqualTo(33);
+        assertThat(lots.close(5)).isEqualTo(34);
+        assertThat(lots.volume()).isZero();
+        assertThat(lots.cost()).isZero();
+    }
+
+    @Test
+    void largeCostTimesVolume_doesNotOverflow() {
+        LotQueue lots = new LotQueue();
+        lots.open(4_000_000_000L, 8_000_000_000_000_000L);
+
+        assertThat(lots.close(1_000_000_000L)).isEqualTo(2_000_000_000_000_000L);
+    }
+}
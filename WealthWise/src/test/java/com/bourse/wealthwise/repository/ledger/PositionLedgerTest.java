@@ -0,0 +1,131 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import com.bourse.wealthwise.domain.entity.account.User;
+import com.bourse.wealthwise.domain.entity.action.Buy;
+import com.bourse.wealthwise.domain.entity.action.CapitalRaise;
+import com.bourse.wealthwise.domain.entity.action.Sale;
+import com.bourse.wealthwise.domain.entity.action.StockRightUsage;
+import com.bourse.wealthwise.domain.entity.money.Quantity;
+import com.bourse.wealthwise.domain.entity.portfolio.Portfolio;
+import com.bourse.wealthwise.domain.entity.security.Security;
+import com.bourse.wealthwise.repository.ActionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class PositionLedgerTest {
+
+    @Autowired private ActionRepository actionRepository;
+    @Autowired private PositionLedger positionLedger;
+    @Autowired private PositionLedgerVerifier verifier;
+
+    private Portfolio portfolio;
+    private Security stock;
+    private Security right;
+    private final LocalDateTime base = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        actionRepository.clear();
+        portfolio = new Portfolio("P1", User.builder().build(), "Port");
+        stock = Security.builder().name("Foo Inc").symbol("FOO").isin("ISIN-FOO").build();
+        right = Security.builder().name("Foo Right").symbol("FOO_X").isin("ISIN-FOO-X").build();
+    }
+
+    @Test
+    void everyActionKind_updatesPositions() {
+        actionRepository.save(Buy.builder().uuid("b").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(10)).datetime(base).build());
+        actionRepository.save(Sale.builder().uuid("s").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(4)).datetime(base.plusHours(1)).build());
+        actionRepository.save(CapitalRaise.builder().uuid("c").portfolio(portfolio).security(right)
+                .volume(BigInteger.valueOf(3)).datetime(base.plusHours(2)).build());
+        actionRepository.save(StockRightUsage.builder().uuid("u").portfolio(portfolio)
+                .rightSecurity(right).stockSecurity(stock).rightsUsed(BigInteger.TWO)
+                .pricePerRight(BigInteger.valueOf(100)).datetime(base.plusHours(3)).build());
+
+        assertThat(positionLedger.volumeOf("P1", stock)).isEqualTo(Quantity.of(8));
+        assertThat(positionLedger.volumeOf("P1", right)).isEqualTo(Quantity.of(1));
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    @Test
+    void deleteAndResave_reverseEarlierContribution() {
+        actionRepository.save(Buy.builder().uuid("b").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(10)).datetime(base).build());
+        actionRepository.save(Buy.builder().uuid("b").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(7)).datetime(base).build());
+        assertThat(positionLedger.volumeOf("P1", stock)).isEqualTo(Quantity.of(7));
+
+        actionRepository.deleteById("b");
+        assertThat(positionLedger.volumeOf("P1", stock)).isEqualTo(Quantity.ZERO);
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    @Test
+    void volumeAsOf_reflectsBackdatedActions() {
+        actionRepository.save(Buy.builder().uuid("b1").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(10)).datetime(base).build());
+        actionRepository.save(Buy.builder().uuid("b2").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(5)).datetime(base.plusDays(2)).build());
+        actionRepository.save(Sale.builder().uuid("s").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(3)).datetime(base.plusDays(1)).build());
+
+        assertThat(positionLedger.volumeAsOf("P1", stock, base.minusSeconds(1))).isEqualTo(Quantity.ZERO);
+        assertThat(positionLedger.volumeAsOf("P1", stock, base)).isEqualTo(Quantity.of(10));
+        assertThat(positionLedger.volumeAsOf("P1", stock, base.plusDays(1))).isEqualTo(Quantity.of(7));
+        assertThat(positionLedger.volumeAsOf("P1", stock, base.plusDays(3))).isEqualTo(Quantity.of(12));
+        assertThat(positionLedger.holdingsAsOf("P1", base.minusDays(1))).isEmpty();
+
+        actionRepository.deleteById("s");
+        assertThat(positionLedger.volumeAsOf("P1", stock, base.plusDays(1))).isEqualTo(Quantity.of(10));
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    @Test
+    void deletedPositions_dropOutOfHoldings() {
+        actionRepository.save(Buy.builder().uuid("b").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(10)).datetime(base).build());
+        actionRepository.deleteById("b");
+
+        assertThat(positionLedger.holdingsAsOf("P1", base.plusDays(1))).isEmpty();
+        assertThat(positionLedger.holdingsOf("P1")).isEmpty();
+        assertThat(verifier.verify()).isEmpty();
+    }
+
+    @Test
+    void volumeChangeWithoutANegation_isRejectedBeforeItIsStored() {
+        Buy buy = Buy.builder().uuid("min").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(Long.MIN_VALUE)).datetime(base).build();
+
+        assertThatThrownBy(() -> actionRepository.save(buy)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(actionRepository.findById("min")).isEmpty();
+        assertThat(positionLedger.volumeOf("P1", stock)).isEqualTo(Quantity.ZERO);
+    }
+
+    @Test
+    void holdersOf_tracksNonzeroPositionsOnly() {
+        Portfolio other = new Portfolio("P2", User.builder().build(), "Other");
+        actionRepository.save(Buy.builder().uuid("b1").portfolio(portfolio).security(stock)
+                .volume(BigInteger.valueOf(4)).datetime(base).build());
+        actionRepository.save(Buy.builder().uuid("b2").portfolio(other).security(stock)
+                .volume(BigInteger.valueOf(2)).datetime(base).build());
+        assertThat(positionLedger.holdersOf(stock)).containsExactlyInAnyOrder("P1", "P2");
+        assertThat(positionLedger.holdersOf(right)).isEmpty();
+
+        actionRepository.save(Sale.builder().uuid("s").portfolio(other).security(stock)
+                .volume(BigInteger.valueOf(2)).datetime(base.plusHours(1)).build());
+        assertThat(positionLedger.holdersOf(stock)).containsExactly("P1");
+
+        actionRepository.deleteById("s");
+        assertThat(positionLedger.holdersOf(stock)).containsExactlyInAnyOrder("P1", "P2");
+    }
+}
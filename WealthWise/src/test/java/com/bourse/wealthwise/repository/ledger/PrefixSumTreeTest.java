@@ -0,0 +1,89 @@
+package com.bourse.wealthwise.repository.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrefixSumTreeTest {
+
+    @Test
+    void sumBefore_isStrict() {
+        PrefixSumTree tree = new PrefixSumTree();
+        tree.add(10, 100);
+        tree.add(20, -30);
+        tree.add(10, 5);
+
+        assertThat(tree.sumBefore(10)).isZero();
+        assertThat(tree.sumBefore(11)).isEqualTo(105);
+        assertThat(tree.sumBefore(20)).isEqualTo(105);
+        assertThat(tree.sumBefore(Long.MAX_VALUE)).isEqualTo(75);
+    }
+
+    @Test
+    void sumsPastTheLongRange_areKeptExactly() {
+        // Inserted in several orders, so whatever the shape some subtree adds up past a long.
+        long[][] orders = {{1, 2, 3}, {3, 2, 1}, {2, 1, 3}, {2, 3, 1}};
+        long[] amounts = {0, Long.MAX_VALUE, Long.MAX_VALUE, -Long.MAX_VALUE};
+        for (long[] order : orders) {
+            PrefixSumTree tree = new PrefixSumTree();
+            for (long key : order) tree.add(key, amounts[(int) key]);
+
+            BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+            assertThat(tree.sumBefore(2)).isEqualTo(Long.MAX_VALUE);
+            assertThatThrownBy(() -> tree.sumBefore(3)).isInstanceOf(ArithmeticException.class);
+            assertThat(tree.exactSumBefore(3)).isEqualTo(max.add(max));
+            assertThat(tree.sumBefore(4)).isEqualTo(Long.MAX_VALUE);
+            assertThat(tree.exactSumBefore(4)).isEqualTo(max);
+        }
+        PrefixSumTree negative = new PrefixSumTree();
+        negative.add(1, Long.MIN_VALUE);
+        negative.add(2, -1);
+        assertThat(negative.exactSumBefore(3)).isEqualTo(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE));
+    }
+
+    @Test
+    void amountsAddedAtOneKey_pastTheLongRange_areKeptExactly() {
+        PrefixSumTree tree = new PrefixSumTree();
+        tree.add(5, 1);
+        tree.add(10, Long.MAX_VALUE);
+        tree.add(10, Long.MAX_VALUE);
+
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        assertThat(tree.exactSumBefore(11)).isEqualTo(max.add(max).add(BigInteger.ONE));
+        assertThatThrownBy(() -> tree.sumBefore(11)).isInstanceOf(ArithmeticException.class);
+
+        tree.add(10, -Long.MAX_VALUE);
+        tree.add(10, -1);
+        assertThat(tree.sumBefore(11)).isEqualTo(Long.MAX_VALUE);
+
+        BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+        tree.add(10, Long.MIN_VALUE);
+        tree.add(10, Long.MIN_VALUE);
+        tree.add(10, Long.MIN_VALUE);
+        assertThat(tree.exactSumBefore(11)).isEqualTo(max.add(min.multiply(BigInteger.valueOf(3))));
+        assertThat(tree.sumBefore(10)).isEqualTo(1);
+    }
+
+    @Test
+    void outOfOrderInserts_matchNaivePrefixSums() {
+        PrefixSumTree tree = new PrefixSumTree();
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextInt(2_000);
+            long amount = random.nextInt(1_000) - 500;
+            tree.add(key, amount);
+            expected.merge(key, amount, Long::sum);
+        }
+
+        for (long probe = -1; probe <= 2_001; probe += 7) {
+            long naive = expected.headMap(probe, false).values().stream().mapToLong(Long::longValue).sum();
+            assertThat(tree.sumBefore(probe)).isEqualTo(naive);
+        }
+    }
+}
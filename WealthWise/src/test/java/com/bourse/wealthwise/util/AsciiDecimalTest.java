@@ -0,0 +1,63 @@
+package com.bourse.wealthwise.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsciiDecimalTest {
+
+    @Test
+    void parseDouble_matchesJdk() {
+        String[] samples = {"0", "-0", "1", "+2.5", "100", "0.05", "1234.5678", "-98765.4321", "1e3", "2.5E-4",
+                "0.1", "0.30000000000000004", "123456789012345678", "3.141592653589793238", "1e-400", "7."};
+        for (String sample : samples) {
+            assertThat(parse(sample)).as(sample).isEqualTo(Double.parseDouble(sample));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            String sample = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(12) - 4));
+            assertThat(parse(sample)).as(sample).isEqualTo(Double.parseDouble(sample));
+        }
+    }
+
+    @Test
+    void malformedInput_isRejected() {
+        for (String sample : new String[]{"", "-", ".", "1.2.3", "12a", "1e", "e5"}) {
+            assertThatThrownBy(() -> parse(sample)).as(sample).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> AsciiDecimal.parseDouble(sample, 0, sample.length())).as(sample)
+                    .isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    void parseEpochDay_matchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 25); date.isBefore(LocalDate.of(2101, 1, 5)); date = date.plusDays(13)) {
+            ByteBuffer bytes = ascii(date.toString());
+            assertThat(AsciiDecimal.parseEpochDay(bytes, 0, bytes.limit())).as(date.toString()).isEqualTo(date.toEpochDay());
+            assertThat(AsciiDecimal.parseEpochDay(date.toString(), 0, 10)).as(date.toString()).isEqualTo(date.toEpochDay());
+        }
+        for (String sample : new String[]{"2026-02-29", "2100-02-29", "2026-04-31", "2026-13-01", "2026/01/01"}) {
+            assertThatThrownBy(() -> AsciiDecimal.parseEpochDay(sample, 0, sample.length())).as(sample)
+                    .isInstanceOf(NumberFormatException.class);
+        }
+        assertThat(AsciiDecimal.parseEpochDay("2024-02-29", 0, 10)).isEqualTo(LocalDate.of(2024, 2, 29).toEpochDay());
+    }
+
+    /** Parses {@code text} from bytes and checks the {@code CharSequence} overload agrees. */
+    private static double parse(String text) {
+        ByteBuffer bytes = ascii(text);
+        double value = AsciiDecimal.parseDouble(bytes, 0, bytes.limit());
+        assertThat(AsciiDecimal.parseDouble("[" + text + "]", 1, text.length() + 1)).as(text).isEqualTo(value);
+        return value;
+    }
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,84 @@
+package com.bourse.wealthwise.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PartitionedWorkQueueTest {
+
+    @Test
+    void itemsWithTheSameKey_areHandledInSubmissionOrder() throws Exception {
+        Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+        PartitionedWorkQueue<Integer, int[]> queue = new PartitionedWorkQueue<>("test", 4, 8, 5, batch -> {
+            for (int[] item : batch) seen.computeIfAbsent(item[0], k -> new ArrayList<>()).add(item[1]);
+        });
+
+        for (int i = 0; i < 2_000; i++) queue.put(i % 10, new int[]{i % 10, i / 10});
+        queue.close();
+
+        assertThat(seen).hasSize(10);
+        for (List<Integer> sequence : seen.values()) {
+            assertThat(sequence).hasSize(200).isSorted();
+        }
+        PartitionedWorkQueue.Stats stats = queue.stats();
+        assertThat(stats.submitted()).isEqualTo(2_000);
+        assertThat(stats.processed()).isEqualTo(2_000);
+        assertThat(stats.depth()).isZero();
+        assertThat(stats.batches()).isLessThanOrEqualTo(2_000);
+    }
+
+    @Test
+    void fullLane_blocksTheProducerUntilTheWorkerCatchesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PartitionedWorkQueue<String, Integer> queue = new PartitionedWorkQueue<>("test", 1, 2, 1, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        queue.put("k", 1);
+        while (queue.depth() > 0) Thread.onSpinWait(); // the worker holds item 1
+        queue.put("k", 2);
+        queue.put("k", 3);
+
+        Thread producer = Thread.ofPlatform().start(() -> {
+            try {
+                queue.put("k", 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(queue.stats().depth()).isEqualTo(2);
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        queue.close();
+
+        PartitionedWorkQueue.Stats stats = queue.stats();
+        assertThat(stats.blockedPuts()).isEqualTo(1);
+        assertThat(stats.maxPutWaitMillis()).isGreaterThanOrEqualTo(150);
+        assertThat(stats.processed()).isEqualTo(4);
+    }
+
+    @Test
+    void failingBatch_isCountedAndTheWorkerCarriesOn() throws Exception {
+        PartitionedWorkQueue<String, Integer> queue = new PartitionedWorkQueue<>("test", 1, 16, 1, batch -> {
+            if (batch.get(0) == 2) throw new IllegalStateException("boom");
+        });
+        for (int i = 1; i <= 3; i++) queue.put("k", i);
+        queue.close();
+
+        assertThat(queue.stats().failed()).isEqualTo(1);
+        assertThat(queue.stats().processed()).isEqualTo(2);
+    }
+}